@@ -0,0 +1,101 @@
+package com.books.benchmark;
+
+import com.books.dto.AuthorDTO;
+import com.books.dto.BookDTO;
+import com.books.dto.CategoryDTO;
+import com.books.entities.BookEntity;
+import com.books.mapping.ParallelDtoMapper;
+import com.books.readmodel.CatalogTitlesReadModel;
+import com.books.repository.AuthorRepository;
+import com.books.repository.CategoryRepository;
+import com.books.repository.projection.AuthorTitleRow;
+import com.books.repository.projection.CategoryTitleRow;
+import com.books.service.impl.BookApplicationService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * DTO mapping and assembly cost in isolation: repositories are in-memory stand-ins returning
+ * prebuilt entities and projection rows, so no SQL is part of the measurement.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BookDtoMappingBenchmark {
+
+    @Param({"1000", "100000"})
+    private int books;
+
+    private List<BookEntity> bookEntities;
+
+    private BookApplicationService bookService;
+
+    private CatalogTitlesReadModel catalogTitlesReadModel;
+
+    @Setup
+    public void setUp() {
+        bookEntities = BookFixtures.bookEntities(books, Math.max(books / 20, 1));
+
+        List<AuthorTitleRow> authorRows = BookFixtures.authorRows(bookEntities);
+        List<CategoryTitleRow> categoryRows = BookFixtures.categoryRows(bookEntities);
+
+        AuthorRepository authorRepository = StubRepositories.stub(AuthorRepository.class,
+                Map.of("findAllAuthorTitles", () -> authorRows));
+        CategoryRepository categoryRepository = StubRepositories.stub(CategoryRepository.class,
+                Map.of("findAllCategoryTitles", () -> categoryRows));
+
+        // never built, so the service assembles the listings from the projection rows
+        bookService = new BookApplicationService();
+        ReflectionTestUtils.setField(bookService, "authorRepository", authorRepository);
+        ReflectionTestUtils.setField(bookService, "categoryRepository", categoryRepository);
+        ReflectionTestUtils.setField(bookService, "catalogTitlesReadModel", new CatalogTitlesReadModel());
+        // never started, so everything is mapped on the calling thread
+        ReflectionTestUtils.setField(bookService, "parallelDtoMapper", new ParallelDtoMapper());
+
+        catalogTitlesReadModel = new CatalogTitlesReadModel();
+        ReflectionTestUtils.setField(catalogTitlesReadModel, "parallelDtoMapper", new ParallelDtoMapper());
+        ReflectionTestUtils.setField(catalogTitlesReadModel, "authorRepository", authorRepository);
+        ReflectionTestUtils.setField(catalogTitlesReadModel, "categoryRepository", categoryRepository);
+        catalogTitlesReadModel.rebuild();
+    }
+
+    @Benchmark
+    public BookDTO toBookDto() {
+        return BookDTO.toBookDto(bookEntities.get(0));
+    }
+
+    @Benchmark
+    public List<BookDTO> toBookDtoList() {
+        return bookEntities.stream()
+                .map(BookDTO::toBookDto)
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<AuthorDTO> assembleAuthors() {
+        return bookService.getAllAuthors();
+    }
+
+    @Benchmark
+    public List<CategoryDTO> assembleCategories() {
+        return bookService.getAllCategoriesWithBooks();
+    }
+
+    @Benchmark
+    public List<AuthorDTO> readModelAuthors() {
+        return catalogTitlesReadModel.getAllAuthors();
+    }
+
+    @Benchmark
+    public List<CategoryDTO> readModelCategories() {
+        return catalogTitlesReadModel.getAllCategories();
+    }
+}
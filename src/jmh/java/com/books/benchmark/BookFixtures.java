@@ -0,0 +1,109 @@
+package com.books.benchmark;
+
+import com.books.dto.BookDTO;
+import com.books.entities.AuthorEntity;
+import com.books.entities.BookEntity;
+import com.books.entities.CategoryEntity;
+import com.books.repository.projection.AuthorTitleRow;
+import com.books.repository.projection.CategoryTitleRow;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+final class BookFixtures {
+
+    static final String[] CATEGORIES = {"COOKING", "FUN", "HORROR", "SCIENCE FICTION", "SPIRITUAL"};
+
+    private BookFixtures() {
+    }
+
+    static List<BookEntity> bookEntities(int count, int authors) {
+        List<AuthorEntity> authorEntities = new ArrayList<>(authors);
+        for (int a = 0; a < authors; a++) {
+            authorEntities.add(AuthorEntity.builder().authorId((long) a + 1).authorName("author " + a).build());
+        }
+        List<CategoryEntity> categoryEntities = new ArrayList<>(CATEGORIES.length);
+        for (int c = 0; c < CATEGORIES.length; c++) {
+            categoryEntities.add(CategoryEntity.builder().categoryId((long) c + 1).categoryName(CATEGORIES[c]).build());
+        }
+        List<BookEntity> books = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            books.add(BookEntity.builder()
+                    .bookId((long) i + 1)
+                    .title("The benchmark book number " + i)
+                    .authorEntity(authorEntities.get(i % authors))
+                    .categoryEntity(categoryEntities.get(i % CATEGORIES.length))
+                    .isbn(9780000000000L + i)
+                    .publicationYear(String.valueOf(1950 + i % 70))
+                    .build());
+        }
+        return books;
+    }
+
+    static List<BookDTO> bookDtos(int count, int authors) {
+        List<BookDTO> books = new ArrayList<>(count);
+        for (BookEntity bookEntity : bookEntities(count, authors)) {
+            books.add(BookDTO.toBookDto(bookEntity));
+        }
+        return books;
+    }
+
+    // ordered by group id then bookId, as the projection queries return them
+    static List<AuthorTitleRow> authorRows(List<BookEntity> bookEntities) {
+        return bookEntities.stream()
+                .sorted(Comparator.comparing(book -> book.getAuthorEntity().getAuthorId()))
+                .map(book -> authorRow(book.getAuthorEntity().getAuthorId(), book.getAuthorEntity().getAuthorName(),
+                        book.getBookId(), book.getTitle()))
+                .collect(Collectors.toCollection(ArrayList::new));
+    }
+
+    static List<CategoryTitleRow> categoryRows(List<BookEntity> bookEntities) {
+        return bookEntities.stream()
+                .sorted(Comparator.comparing(book -> book.getCategoryEntity().getCategoryId()))
+                .map(book -> categoryRow(book.getCategoryEntity().getCategoryId(),
+                        book.getCategoryEntity().getCategoryName(), book.getBookId(), book.getTitle()))
+                .collect(Collectors.toCollection(ArrayList::new));
+    }
+
+    private static AuthorTitleRow authorRow(Long authorId, String authorName, Long bookId, String title) {
+        return new AuthorTitleRow() {
+            public Long getAuthorId() {
+                return authorId;
+            }
+
+            public String getAuthorName() {
+                return authorName;
+            }
+
+            public Long getBookId() {
+                return bookId;
+            }
+
+            public String getTitle() {
+                return title;
+            }
+        };
+    }
+
+    private static CategoryTitleRow categoryRow(Long categoryId, String categoryName, Long bookId, String title) {
+        return new CategoryTitleRow() {
+            public Long getCategoryId() {
+                return categoryId;
+            }
+
+            public String getCategoryName() {
+                return categoryName;
+            }
+
+            public Long getBookId() {
+                return bookId;
+            }
+
+            public String getTitle() {
+                return title;
+            }
+        };
+    }
+}
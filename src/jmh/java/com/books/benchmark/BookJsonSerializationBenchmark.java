@@ -0,0 +1,49 @@
+package com.books.benchmark;
+
+import com.books.dto.BookDTO;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson cost of a GET /books style response body, both buffered into a byte array and
+ * written straight to a sink the way the servlet output stream is.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BookJsonSerializationBenchmark {
+
+    @Param({"1000", "100000"})
+    private int books;
+
+    private List<BookDTO> bookDtos;
+
+    private ObjectWriter writer;
+
+    @Setup
+    public void setUp() {
+        bookDtos = BookFixtures.bookDtos(books, Math.max(books / 20, 1));
+        writer = new ObjectMapper().writerFor(new TypeReference<List<BookDTO>>() {
+        });
+    }
+
+    @Benchmark
+    public byte[] serializeToBytes() throws IOException {
+        return writer.writeValueAsBytes(bookDtos);
+    }
+
+    @Benchmark
+    public void serializeToStream() throws IOException {
+        writer.writeValue(OutputStream.nullOutputStream(), bookDtos);
+    }
+}
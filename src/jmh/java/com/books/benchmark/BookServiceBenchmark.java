@@ -0,0 +1,94 @@
+package com.books.benchmark;
+
+import com.books.BookshopApplication;
+import com.books.cache.BookResponseCache;
+import com.books.dto.AuthorDTO;
+import com.books.dto.BookDTO;
+import com.books.dto.BulkSaveReportDTO;
+import com.books.dto.CategoryDTO;
+import com.books.service.BookService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end service calls against the embedded H2 database the tests use
+ * (src/test/resources/application.properties), seeded once per fork.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BookServiceBenchmark {
+
+    private static final int CATALOG_SIZE = 5000;
+
+    private static final int WRITE_BATCH = 100;
+
+    private ConfigurableApplicationContext context;
+
+    private BookService bookService;
+
+    private BookResponseCache bookResponseCache;
+
+    private List<BookDTO> writeBatch;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(BookshopApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties("spring.jpa.properties.hibernate.generate_statistics=false",
+                        "logging.level.root=WARN")
+                .run();
+        bookService = context.getBean(BookService.class);
+        bookResponseCache = context.getBean(BookResponseCache.class);
+        bookService.bulkSaveBooks(BookFixtures.bookDtos(CATALOG_SIZE, CATALOG_SIZE / 25));
+        writeBatch = BookFixtures.bookDtos(WRITE_BATCH, WRITE_BATCH / 25);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<BookDTO> getAllBooks() {
+        return bookService.getAllBooks();
+    }
+
+    @Benchmark
+    public List<AuthorDTO> getAllAuthors() {
+        return bookService.getAllAuthors();
+    }
+
+    @Benchmark
+    public List<CategoryDTO> getAllCategoriesWithBooks() {
+        return bookService.getAllCategoriesWithBooks();
+    }
+
+    @Benchmark
+    public List<BookDTO> getBooksByCategoryUncached() {
+        bookResponseCache.invalidateAll();
+        return bookService.getBooksByCategory("HORROR");
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @BenchmarkMode(Mode.AverageTime)
+    public List<BookDTO> saveAndUpdateBooks() {
+        return bookService.saveAndUpdateBooks(writeBatch);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @BenchmarkMode(Mode.AverageTime)
+    public BulkSaveReportDTO bulkSaveBooks() {
+        return bookService.bulkSaveBooks(writeBatch);
+    }
+}
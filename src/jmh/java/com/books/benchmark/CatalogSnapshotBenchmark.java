@@ -0,0 +1,85 @@
+package com.books.benchmark;
+
+import com.books.BookshopApplication;
+import com.books.cache.BookResponseCache;
+import com.books.dto.BookDTO;
+import com.books.service.BookService;
+import com.books.snapshot.CatalogSnapshotService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The hot read endpoints served through JPA versus the off-heap catalog snapshot,
+ * against the same seeded H2 catalog. Run with {@code -prof gc} to compare allocation, and with
+ * {@code -prof com.books.benchmark.GcPauseProfiler} to compare the GC pauses it causes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CatalogSnapshotBenchmark {
+
+    private static final int CATALOG_SIZE = 5000;
+
+    @Param({"false", "true"})
+    public boolean snapshot;
+
+    private ConfigurableApplicationContext context;
+
+    private BookService bookService;
+
+    private BookResponseCache bookResponseCache;
+
+    private long nextId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(BookshopApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties("spring.jpa.properties.hibernate.generate_statistics=false",
+                        "logging.level.root=WARN",
+                        "books.snapshot.enabled=" + snapshot,
+                        "books.snapshot.rebuild-delay=1h")
+                .run();
+        bookService = context.getBean(BookService.class);
+        bookResponseCache = context.getBean(BookResponseCache.class);
+        bookService.bulkSaveBooks(BookFixtures.bookDtos(CATALOG_SIZE, CATALOG_SIZE / 25));
+        if (snapshot) {
+            CatalogSnapshotService catalogSnapshotService = context.getBean(CatalogSnapshotService.class);
+            catalogSnapshotService.rebuild();
+            if (catalogSnapshotService.current() == null) {
+                throw new IllegalStateException("snapshot is not serving");
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<BookDTO> getAllBooks() {
+        return bookService.getAllBooks();
+    }
+
+    @Benchmark
+    public BookDTO getBookByIdUncached() {
+        bookResponseCache.invalidateAll();
+        nextId = nextId % CATALOG_SIZE + 1;
+        return bookService.getBookById(nextId);
+    }
+
+    @Benchmark
+    public List<BookDTO> getBooksByCategoryUncached() {
+        bookResponseCache.invalidateAll();
+        return bookService.getBooksByCategory("HORROR");
+    }
+}
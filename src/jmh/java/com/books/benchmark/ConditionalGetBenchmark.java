@@ -0,0 +1,112 @@
+package com.books.benchmark;
+
+import com.books.cache.CatalogVersion;
+import com.books.cache.JsonResponseCache;
+import com.books.config.CatalogETagInterceptor;
+import com.books.controller.BookApplicationController;
+import com.books.entities.BookEntity;
+import com.books.mapping.ParallelDtoMapper;
+import com.books.readmodel.CatalogTitlesReadModel;
+import com.books.repository.AuthorRepository;
+import com.books.repository.CategoryRepository;
+import com.books.service.impl.BookApplicationService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.converter.ByteArrayHttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * Catalog reads through the controller and {@link CatalogETagInterceptor}: a plain GET that is answered
+ * with the full 200 body against a GET carrying the current tag in {@code If-None-Match}, which is answered
+ * 304 before the handler runs. Each call returns the bytes written, so the score pairs with the size of
+ * what was saved on the wire. The categories body comes from the warm JSON cache; the authors body is
+ * mapped and serialized on every 200, as it is while the read model is loading.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ConditionalGetBenchmark {
+
+    @Param({"1000", "10000"})
+    private int catalogSize;
+
+    private MockMvc mockMvc;
+
+    private String etag;
+
+    @Setup
+    public void setUp() {
+        List<BookEntity> bookEntities = BookFixtures.bookEntities(catalogSize, Math.max(catalogSize / 25, 1));
+        AuthorRepository authorRepository = StubRepositories.stub(AuthorRepository.class, Map.of(
+                "findAllAuthorTitles", () -> BookFixtures.authorRows(bookEntities)));
+        CategoryRepository categoryRepository = StubRepositories.stub(CategoryRepository.class, Map.of(
+                "findAllCategoryTitles", () -> BookFixtures.categoryRows(bookEntities)));
+        ObjectMapper objectMapper = new ObjectMapper();
+
+        BookApplicationService bookService = new BookApplicationService();
+        ReflectionTestUtils.setField(bookService, "authorRepository", authorRepository);
+        ReflectionTestUtils.setField(bookService, "categoryRepository", categoryRepository);
+        ReflectionTestUtils.setField(bookService, "catalogTitlesReadModel", new CatalogTitlesReadModel());
+        ReflectionTestUtils.setField(bookService, "jsonResponseCache", new JsonResponseCache(1000, Duration.ofHours(1)));
+        ReflectionTestUtils.setField(bookService, "parallelDtoMapper", new ParallelDtoMapper());
+        ReflectionTestUtils.setField(bookService, "objectMapper", objectMapper);
+
+        BookApplicationController controller = new BookApplicationController();
+        ReflectionTestUtils.setField(controller, "bookService", bookService);
+        ReflectionTestUtils.setField(controller, "objectMapper", objectMapper);
+
+        CatalogVersion catalogVersion = new CatalogVersion();
+        etag = catalogVersion.etag();
+        mockMvc = MockMvcBuilders.standaloneSetup(controller)
+                .setMessageConverters(new ByteArrayHttpMessageConverter(),
+                        new MappingJackson2HttpMessageConverter(objectMapper))
+                .addInterceptors(new CatalogETagInterceptor(catalogVersion))
+                .build();
+    }
+
+    @Benchmark
+    public int categoriesFullGet() throws Exception {
+        return perform("/books/categories", null, 200);
+    }
+
+    @Benchmark
+    public int categoriesConditionalGet() throws Exception {
+        return perform("/books/categories", etag, 304);
+    }
+
+    @Benchmark
+    public int authorsFullGet() throws Exception {
+        return perform("/books/authors", null, 200);
+    }
+
+    @Benchmark
+    public int authorsConditionalGet() throws Exception {
+        return perform("/books/authors", etag, 304);
+    }
+
+    private int perform(String path, String ifNoneMatch, int expectedStatus) throws Exception {
+        MockHttpServletResponse response = mockMvc.perform(ifNoneMatch == null
+                        ? get(path)
+                        : get(path).header(HttpHeaders.IF_NONE_MATCH, ifNoneMatch))
+                .andReturn().getResponse();
+        if (response.getStatus() != expectedStatus) {
+            throw new IllegalStateException(path + " answered " + response.getStatus() + ", expected " + expectedStatus);
+        }
+        return response.getContentAsByteArray().length;
+    }
+}
@@ -0,0 +1,80 @@
+package com.books.benchmark;
+
+import com.sun.management.GarbageCollectionNotificationInfo;
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.infra.IterationParams;
+import org.openjdk.jmh.profile.InternalProfiler;
+import org.openjdk.jmh.results.AggregationPolicy;
+import org.openjdk.jmh.results.IterationResult;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.ScalarResult;
+
+import javax.management.ListenerNotFoundException;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import javax.management.openmbean.CompositeData;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Stop-the-world GC pauses per iteration, taken from the JVM's collection notifications: how many, their
+ * total and the longest. {@code -prof gc} reports allocation; this is for the pauses that allocation
+ * costs. Collections the JVM reports as concurrent cycles are left out, as they don't stop the benchmark
+ * threads. Run with {@code -prof com.books.benchmark.GcPauseProfiler}.
+ */
+public class GcPauseProfiler implements InternalProfiler {
+
+    private final AtomicLong pauses = new AtomicLong();
+
+    private final AtomicLong totalMillis = new AtomicLong();
+
+    private final AtomicLong maxMillis = new AtomicLong();
+
+    private final NotificationListener listener = (notification, handback) -> {
+        if (!GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION.equals(notification.getType())) {
+            return;
+        }
+        GarbageCollectionNotificationInfo info =
+                GarbageCollectionNotificationInfo.from((CompositeData) notification.getUserData());
+        if (info.getGcName().contains("Concurrent") || info.getGcName().contains("Cycles")) {
+            return;
+        }
+        long millis = info.getGcInfo().getDuration();
+        pauses.incrementAndGet();
+        totalMillis.addAndGet(millis);
+        maxMillis.accumulateAndGet(millis, Math::max);
+    };
+
+    @Override
+    public String getDescription() {
+        return "GC pause count, total and longest pause per iteration";
+    }
+
+    @Override
+    public void beforeIteration(BenchmarkParams benchmarkParams, IterationParams iterationParams) {
+        pauses.set(0);
+        totalMillis.set(0);
+        maxMillis.set(0);
+        for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            ((NotificationEmitter) collector).addNotificationListener(listener, null, null);
+        }
+    }
+
+    @Override
+    public List<? extends Result> afterIteration(BenchmarkParams benchmarkParams, IterationParams iterationParams,
+                                                 IterationResult result) {
+        for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            try {
+                ((NotificationEmitter) collector).removeNotificationListener(listener);
+            } catch (ListenerNotFoundException e) {
+                // never added, nothing to remove
+            }
+        }
+        return List.of(
+                new ScalarResult("gc.pause.count", pauses.get(), "counts", AggregationPolicy.SUM),
+                new ScalarResult("gc.pause.total", totalMillis.get(), "ms", AggregationPolicy.SUM),
+                new ScalarResult("gc.pause.max", maxMillis.get(), "ms", AggregationPolicy.MAX));
+    }
+}
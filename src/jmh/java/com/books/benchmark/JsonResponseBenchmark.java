@@ -0,0 +1,113 @@
+package com.books.benchmark;
+
+import com.books.cache.BookResponseCache;
+import com.books.cache.JsonResponseCache;
+import com.books.dto.BookDTO;
+import com.books.entities.BookEntity;
+import com.books.mapping.ParallelDtoMapper;
+import com.books.repository.BookRepository;
+import com.books.service.impl.BookApplicationService;
+import com.books.snapshot.CatalogSnapshotService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.ByteArrayHttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cache hits written the way Spring MVC writes them: a {@code ResponseEntity<List<BookDTO>>} through the
+ * Jackson message converter against the pre-encoded bytes through the byte array converter. Both paths
+ * start from a warm cache, so the difference is DTO handling and serialization alone.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonResponseBenchmark {
+
+    @Param({"20", "1000"})
+    private int booksPerCategory;
+
+    private BookApplicationService bookService;
+
+    private MappingJackson2HttpMessageConverter jacksonConverter;
+
+    private ByteArrayHttpMessageConverter byteArrayConverter;
+
+    private String categoryName;
+
+    @Setup
+    public void setUp() {
+        List<BookEntity> bookEntities = BookFixtures.bookEntities(booksPerCategory * BookFixtures.CATEGORIES.length,
+                Math.max(booksPerCategory / 4, 1));
+        categoryName = BookFixtures.CATEGORIES[0];
+        List<BookEntity> categoryBooks = bookEntities.stream()
+                .filter(book -> book.getCategoryEntity().getCategoryName().equals(categoryName))
+                .toList();
+        BookRepository bookRepository = StubRepositories.stub(BookRepository.class, Map.of(
+                "findById", () -> Optional.of(bookEntities.get(0)),
+                "findByCategoryName", () -> categoryBooks));
+        ObjectMapper objectMapper = new ObjectMapper();
+
+        bookService = new BookApplicationService();
+        ReflectionTestUtils.setField(bookService, "bookRepository", bookRepository);
+        ReflectionTestUtils.setField(bookService, "bookResponseCache", new BookResponseCache(10000, Duration.ofHours(1)));
+        ReflectionTestUtils.setField(bookService, "jsonResponseCache", new JsonResponseCache(1000, Duration.ofHours(1)));
+        ReflectionTestUtils.setField(bookService, "catalogSnapshotService", new CatalogSnapshotService());
+        ReflectionTestUtils.setField(bookService, "parallelDtoMapper", new ParallelDtoMapper());
+        ReflectionTestUtils.setField(bookService, "objectMapper", objectMapper);
+
+        jacksonConverter = new MappingJackson2HttpMessageConverter(objectMapper);
+        byteArrayConverter = new ByteArrayHttpMessageConverter();
+    }
+
+    @Benchmark
+    public void bookDtoResponse() throws IOException {
+        jacksonConverter.write(bookService.getBookById(1L), MediaType.APPLICATION_JSON, new NullOutputMessage());
+    }
+
+    @Benchmark
+    public void bookJsonResponse() throws IOException {
+        byteArrayConverter.write(bookService.getBookJsonById(1L), MediaType.APPLICATION_JSON, new NullOutputMessage());
+    }
+
+    @Benchmark
+    public void categoryDtoResponse() throws IOException {
+        List<BookDTO> books = bookService.getBooksByCategory(categoryName);
+        jacksonConverter.write(books, MediaType.APPLICATION_JSON, new NullOutputMessage());
+    }
+
+    @Benchmark
+    public void categoryJsonResponse() throws IOException {
+        byteArrayConverter.write(bookService.getBooksByCategoryJson(categoryName), MediaType.APPLICATION_JSON,
+                new NullOutputMessage());
+    }
+
+    private static final class NullOutputMessage implements HttpOutputMessage {
+
+        private final HttpHeaders headers = new HttpHeaders();
+
+        @Override
+        public OutputStream getBody() {
+            return OutputStream.nullOutputStream();
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return headers;
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.books.benchmark;
+
+import com.books.dto.AuthorDTO;
+import com.books.dto.BookDTO;
+import com.books.entities.BookEntity;
+import com.books.mapping.ParallelDtoMapper;
+import com.books.readmodel.CatalogTitlesReadModel;
+import com.books.repository.AuthorRepository;
+import com.books.repository.BookRepository;
+import com.books.repository.CategoryRepository;
+import com.books.repository.projection.AuthorTitleRow;
+import com.books.repository.projection.CategoryTitleRow;
+import com.books.service.impl.BookApplicationService;
+import com.books.snapshot.CatalogSnapshotService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sequential versus fork/join listing assembly over the same in-memory rows, to find the size where
+ * splitting starts to pay off ({@code books.mapping.parallel-threshold}). The threshold is disabled here so
+ * every parallelism above 1 always splits; parallelism 1 is the sequential baseline. Only meaningful on a
+ * machine with at least as many cores as the largest parallelism measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ParallelDtoMappingBenchmark {
+
+    @Param({"1000", "5000", "10000", "20000", "50000", "100000", "500000"})
+    private int books;
+
+    @Param({"1", "2", "4", "8"})
+    private int parallelism;
+
+    private BookApplicationService bookService;
+
+    private CatalogTitlesReadModel catalogTitlesReadModel;
+
+    private ParallelDtoMapper parallelDtoMapper;
+
+    @Setup
+    public void setUp() {
+        List<BookEntity> bookEntities = BookFixtures.bookEntities(books, Math.max(books / 20, 1));
+        List<AuthorTitleRow> authorRows = BookFixtures.authorRows(bookEntities);
+        List<CategoryTitleRow> categoryRows = BookFixtures.categoryRows(bookEntities);
+
+        parallelDtoMapper = new ParallelDtoMapper();
+        ReflectionTestUtils.setField(parallelDtoMapper, "parallelism", parallelism);
+        ReflectionTestUtils.setField(parallelDtoMapper, "parallelThreshold", 0);
+        parallelDtoMapper.start();
+
+        AuthorRepository authorRepository = StubRepositories.stub(AuthorRepository.class,
+                Map.of("findAllAuthorTitles", () -> authorRows));
+        CategoryRepository categoryRepository = StubRepositories.stub(CategoryRepository.class,
+                Map.of("findAllCategoryTitles", () -> categoryRows));
+
+        bookService = new BookApplicationService();
+        ReflectionTestUtils.setField(bookService, "bookRepository", StubRepositories.stub(BookRepository.class,
+                Map.of("findAll", () -> bookEntities)));
+        ReflectionTestUtils.setField(bookService, "authorRepository", authorRepository);
+        ReflectionTestUtils.setField(bookService, "categoryRepository", categoryRepository);
+        ReflectionTestUtils.setField(bookService, "catalogTitlesReadModel", new CatalogTitlesReadModel());
+        ReflectionTestUtils.setField(bookService, "catalogSnapshotService", new CatalogSnapshotService());
+        ReflectionTestUtils.setField(bookService, "parallelDtoMapper", parallelDtoMapper);
+
+        catalogTitlesReadModel = new CatalogTitlesReadModel();
+        ReflectionTestUtils.setField(catalogTitlesReadModel, "authorRepository", authorRepository);
+        ReflectionTestUtils.setField(catalogTitlesReadModel, "categoryRepository", categoryRepository);
+        ReflectionTestUtils.setField(catalogTitlesReadModel, "parallelDtoMapper", parallelDtoMapper);
+        catalogTitlesReadModel.rebuild();
+    }
+
+    @TearDown
+    public void tearDown() {
+        parallelDtoMapper.shutdown();
+    }
+
+    @Benchmark
+    public List<BookDTO> getAllBooks() {
+        return bookService.getAllBooks();
+    }
+
+    @Benchmark
+    public List<AuthorDTO> assembleAuthors() {
+        return bookService.getAllAuthors();
+    }
+
+    @Benchmark
+    public List<AuthorDTO> readModelAuthors() {
+        return catalogTitlesReadModel.getAllAuthors();
+    }
+}
@@ -0,0 +1,27 @@
+package com.books.benchmark;
+
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * In-memory repository stand-ins: each stubbed method name returns the supplied value,
+ * every other method fails loudly so a benchmark can't silently measure a no-op.
+ */
+final class StubRepositories {
+
+    private StubRepositories() {
+    }
+
+    static <T> T stub(Class<T> repositoryType, Map<String, Supplier<?>> answers) {
+        Object proxy = Proxy.newProxyInstance(repositoryType.getClassLoader(), new Class<?>[]{repositoryType},
+                (instance, method, args) -> {
+                    Supplier<?> answer = answers.get(method.getName());
+                    if (answer == null) {
+                        throw new UnsupportedOperationException(method.getName());
+                    }
+                    return answer.get();
+                });
+        return repositoryType.cast(proxy);
+    }
+}
@@ -0,0 +1,82 @@
+package com.books.cache;
+
+import com.books.dto.BookDTO;
+import com.books.dto.CacheStatsDTO;
+import com.books.service.BookChange;
+import com.books.service.BookChangeListener;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Read-through cache of books by id and of the book list of each category.
+ * Concurrent misses on the same key wait for a single load instead of each querying the database.
+ */
+@Component
+public class BookResponseCache implements BookChangeListener {
+
+    private final CoalescingCache<Long, Optional<BookDTO>> books;
+
+    private final CoalescingCache<String, List<BookDTO>> categoryBooks;
+
+    public BookResponseCache(@Value("${books.cache.response.maximum-size:10000}") long maximumSize,
+                             @Value("${books.cache.response.ttl:10m}") Duration ttl) {
+        this.books = new CoalescingCache<>("books", Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .buildAsync());
+        this.categoryBooks = new CoalescingCache<>("categoryBooks", Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .buildAsync());
+    }
+
+    public BookDTO getBook(Long bookId, Function<Long, Optional<BookDTO>> loader) {
+        return books.get(bookId, loader).orElse(null);
+    }
+
+    public Map<Long, Optional<BookDTO>> getPresentBooks(Collection<Long> bookIds) {
+        return books.getAllPresent(bookIds);
+    }
+
+    public List<BookDTO> getBooksByCategory(String categoryName, Function<String, List<BookDTO>> loader) {
+        return categoryBooks.get(categoryName, name -> List.copyOf(loader.apply(name)));
+    }
+
+    @Override
+    public void onBooksChanged(List<BookChange> changes) {
+        for (BookChange change : changes) {
+            books.invalidate(change.getBookId());
+            if (change.getPrevious() != null) {
+                invalidateCategory(change.getPrevious().getCategoryName());
+            }
+            if (change.getCurrent() != null) {
+                invalidateCategory(change.getCurrent().getCategoryName());
+            }
+        }
+    }
+
+    private void invalidateCategory(String categoryName) {
+        if (categoryName != null) {
+            categoryBooks.invalidate(categoryName);
+        }
+    }
+
+    public void invalidateAll() {
+        books.invalidateAll();
+        categoryBooks.invalidateAll();
+    }
+
+    public List<CacheStatsDTO> stats() {
+        return List.of(books.stats(), categoryBooks.stats());
+    }
+}
@@ -0,0 +1,40 @@
+package com.books.cache;
+
+import com.books.service.BookChange;
+import com.books.service.BookChangeListener;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counter bumped on every committed catalog write. The epoch keeps tags issued before a restart
+ * from matching the counter after it starts again at zero. It is bumped after every other listener
+ * has applied the write, so a tag is never newer than the cached bodies it is served with.
+ */
+@Component
+public class CatalogVersion implements BookChangeListener {
+
+    private final long epoch = System.currentTimeMillis();
+
+    private final AtomicLong version = new AtomicLong();
+
+    public String etag() {
+        return "\"" + tag() + "\"";
+    }
+
+    public String tag() {
+        return Long.toString(epoch, 36) + "-" + version.get();
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.LOWEST_PRECEDENCE;
+    }
+
+    @Override
+    public void onBooksChanged(List<BookChange> changes) {
+        version.incrementAndGet();
+    }
+}
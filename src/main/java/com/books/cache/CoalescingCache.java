@@ -0,0 +1,79 @@
+package com.books.cache;
+
+import com.books.dto.CacheStatsDTO;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Caffeine-backed cache (built with recordStats) where concurrent misses on a key share one load. The load runs on the calling
+ * thread outside of any lock, and the other callers wait on its future, so a slow database load never
+ * holds a monitor (which would pin the carrier of a virtual thread).
+ */
+final class CoalescingCache<K, V> {
+
+    private final String name;
+
+    private final AsyncCache<K, V> cache;
+
+    CoalescingCache(String name, AsyncCache<K, V> cache) {
+        this.name = name;
+        this.cache = cache;
+    }
+
+    V get(K key, Function<? super K, ? extends V> loader) {
+        return get(key, loader, value -> true);
+    }
+
+    /**
+     * Like {@link #get(Object, Function)}, but a loaded value failing {@code keep} is handed to the callers
+     * already waiting for it and then dropped rather than cached.
+     */
+    V get(K key, Function<? super K, ? extends V> loader, Predicate<? super V> keep) {
+        CompletableFuture<V> cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return cached.join();
+        }
+        CompletableFuture<V> loading = new CompletableFuture<>();
+        CompletableFuture<V> existing = cache.asMap().putIfAbsent(key, loading);
+        if (existing != null) {
+            return existing.join();
+        }
+        try {
+            V value = loader.apply(key);
+            loading.complete(value);
+            if (!keep.test(value)) {
+                cache.asMap().remove(key, loading);
+            }
+            return value;
+        } catch (RuntimeException | Error e) {
+            cache.asMap().remove(key, loading);
+            loading.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    Map<K, V> getAllPresent(Collection<K> keys) {
+        return cache.synchronous().getAllPresent(keys);
+    }
+
+    void put(K key, V value) {
+        cache.put(key, CompletableFuture.completedFuture(value));
+    }
+
+    void invalidate(K key) {
+        cache.synchronous().invalidate(key);
+    }
+
+    void invalidateAll() {
+        cache.synchronous().invalidateAll();
+    }
+
+    CacheStatsDTO stats() {
+        return CacheStatsSupport.toStats(name, cache.synchronous());
+    }
+}
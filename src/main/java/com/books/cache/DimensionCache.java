@@ -0,0 +1,128 @@
+package com.books.cache;
+
+import com.books.dto.CacheStatsDTO;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Name to id cache for authors and categories. Lookups that find nothing are cached as
+ * {@link Optional#empty()} for a shorter time so repeated misses don't reach the database either.
+ * <p>
+ * {@code getOrCreate*} coalesces creation per name: concurrent writers that miss on the same name join the
+ * one creation in flight instead of inserting the name again.
+ */
+@Component
+public class DimensionCache {
+
+    private final CoalescingCache<String, Optional<Long>> authorIds;
+
+    private final CoalescingCache<String, Optional<Long>> categoryIds;
+
+    public DimensionCache(@Value("${books.cache.dimension.maximum-size:10000}") long maximumSize,
+                          @Value("${books.cache.dimension.negative-ttl:60s}") Duration negativeTtl) {
+        this.authorIds = newCache("authorIds", maximumSize, negativeTtl);
+        this.categoryIds = newCache("categoryIds", maximumSize, negativeTtl);
+    }
+
+    private static CoalescingCache<String, Optional<Long>> newCache(String name, long maximumSize,
+                                                                    Duration negativeTtl) {
+        // size-bounded caches use Caffeine's W-TinyLFU admission and eviction policy
+        return new CoalescingCache<>(name, Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new NegativeEntryExpiry(negativeTtl))
+                .recordStats()
+                .buildAsync());
+    }
+
+    public Long getAuthorId(String authorName, Function<String, Optional<Long>> loader) {
+        return authorIds.get(authorName, loader).orElse(null);
+    }
+
+    public Long getCategoryId(String categoryName, Function<String, Optional<Long>> loader) {
+        return categoryIds.get(categoryName, loader).orElse(null);
+    }
+
+    /**
+     * The creator must commit the new row before it returns, because its id is cached at once.
+     */
+    public Long getOrCreateAuthorId(String authorName, Function<String, Long> creator) {
+        return getOrCreate(authorIds, authorName, creator);
+    }
+
+    public Long getOrCreateCategoryId(String categoryName, Function<String, Long> creator) {
+        return getOrCreate(categoryIds, categoryName, creator);
+    }
+
+    /**
+     * Caches ids of rows already committed, such as names a batch just created.
+     */
+    public void putAuthorIds(Map<String, Long> authorIdsByName) {
+        authorIdsByName.forEach((name, authorId) -> authorIds.put(name, Optional.of(authorId)));
+    }
+
+    public void putCategoryIds(Map<String, Long> categoryIdsByName) {
+        categoryIdsByName.forEach((name, categoryId) -> categoryIds.put(name, Optional.of(categoryId)));
+    }
+
+    public Map<String, Optional<Long>> getPresentAuthorIds(Collection<String> authorNames) {
+        return authorIds.getAllPresent(authorNames);
+    }
+
+    public Map<String, Optional<Long>> getPresentCategoryIds(Collection<String> categoryNames) {
+        return categoryIds.getAllPresent(categoryNames);
+    }
+
+    public void invalidateAll() {
+        authorIds.invalidateAll();
+        categoryIds.invalidateAll();
+    }
+
+    public List<CacheStatsDTO> stats() {
+        return List.of(authorIds.stats(), categoryIds.stats());
+    }
+
+    private static Long getOrCreate(CoalescingCache<String, Optional<Long>> cache, String name,
+                                    Function<String, Long> creator) {
+        Function<String, Optional<Long>> loader = key -> Optional.ofNullable(creator.apply(key));
+        Optional<Long> id = cache.get(name, loader);
+        if (id.isEmpty()) {
+            // a miss cached by a plain lookup must not keep the name from being created
+            cache.invalidate(name);
+            id = cache.get(name, loader);
+        }
+        return id.orElse(null);
+    }
+
+    private static final class NegativeEntryExpiry implements Expiry<String, Optional<Long>> {
+
+        private final long negativeTtlNanos;
+
+        private NegativeEntryExpiry(Duration negativeTtl) {
+            this.negativeTtlNanos = negativeTtl.toNanos();
+        }
+
+        @Override
+        public long expireAfterCreate(String key, Optional<Long> value, long currentTime) {
+            return value.isPresent() ? Long.MAX_VALUE : negativeTtlNanos;
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Optional<Long> value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, Optional<Long> value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
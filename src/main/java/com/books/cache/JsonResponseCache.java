@@ -0,0 +1,101 @@
+package com.books.cache;
+
+import com.books.dto.CacheStatsDTO;
+import com.books.service.BookChange;
+import com.books.service.BookChangeListener;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * UTF-8 JSON bodies of the hottest read responses, written to the response as they are, so a hit neither
+ * builds DTOs nor runs Jackson. Each of the three caches is bounded to {@code books.cache.json.maximum-size}
+ * entries, and empty results (an unknown category, no categories yet) are not kept. Entries are
+ * rebuilt from the service, so this cache is notified after the listeners the service reads from, and
+ * before {@link CatalogVersion} moves the catalog ETag on.
+ */
+@Component
+public class JsonResponseCache implements BookChangeListener {
+
+    private static final String ALL_CATEGORIES = "*";
+
+    private final CoalescingCache<Long, Optional<byte[]>> books;
+
+    private final CoalescingCache<String, Optional<byte[]>> categoryBooks;
+
+    private final CoalescingCache<String, Optional<byte[]>> categories;
+
+    public JsonResponseCache(@Value("${books.cache.json.maximum-size:1000}") long maximumSize,
+                             @Value("${books.cache.response.ttl:10m}") Duration ttl) {
+        this.books = new CoalescingCache<>("bookJson", Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .buildAsync());
+        this.categoryBooks = new CoalescingCache<>("categoryBooksJson", Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .buildAsync());
+        this.categories = new CoalescingCache<>("categoriesJson", Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .buildAsync());
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.LOWEST_PRECEDENCE - 1;
+    }
+
+    public byte[] getBook(Long bookId, Function<Long, Optional<byte[]>> loader) {
+        return books.get(bookId, loader).orElse(null);
+    }
+
+    public byte[] getBooksByCategory(String categoryName, Function<String, Optional<byte[]>> loader) {
+        // category names come straight from the request path, so only categories that have books are kept
+        return categoryBooks.get(categoryName, loader, Optional::isPresent).orElse(null);
+    }
+
+    public byte[] getCategories(Supplier<Optional<byte[]>> loader) {
+        return categories.get(ALL_CATEGORIES, key -> loader.get(), Optional::isPresent).orElse(null);
+    }
+
+    @Override
+    public void onBooksChanged(List<BookChange> changes) {
+        for (BookChange change : changes) {
+            books.invalidate(change.getBookId());
+            if (change.getPrevious() != null) {
+                invalidateCategory(change.getPrevious().getCategoryName());
+            }
+            if (change.getCurrent() != null) {
+                invalidateCategory(change.getCurrent().getCategoryName());
+            }
+        }
+        categories.invalidateAll();
+    }
+
+    private void invalidateCategory(String categoryName) {
+        if (categoryName != null) {
+            categoryBooks.invalidate(categoryName);
+        }
+    }
+
+    public void invalidateAll() {
+        books.invalidateAll();
+        categoryBooks.invalidateAll();
+        categories.invalidateAll();
+    }
+
+    public List<CacheStatsDTO> stats() {
+        return List.of(books.stats(), categoryBooks.stats(), categories.stats());
+    }
+}
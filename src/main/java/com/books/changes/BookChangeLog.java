@@ -0,0 +1,193 @@
+package com.books.changes;
+
+import com.books.dto.BookChangeDTO;
+import com.books.dto.BookChangesDTO;
+import com.books.service.BookChange;
+import com.books.service.BookChangeListener;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Versioned log of the books written through {@link com.books.service.BookService}, kept in a ring buffer
+ * holding the last {@code books.changes.capacity} changes. Every changed book takes the next version once its
+ * write has committed, so a reader that has seen version v can ask for what came after it instead of reloading
+ * the catalog; a reader further behind than the ring reaches is told to resync.
+ * <p>
+ * Versions start at the startup time shifted left by {@value #VERSION_SHIFT} bits, so they keep increasing
+ * across restarts and one handed out before a restart is always out of reach afterwards. The log only sees
+ * the writes made through this node.
+ */
+@Component
+public class BookChangeLog implements BookChangeListener {
+
+    private static final int VERSION_SHIFT = 20;
+
+    private final BookChangeDTO[] entries;
+
+    private final int subscriberBuffer;
+
+    // the first version this log hands out
+    private final long first;
+
+    // written under the lock
+    private volatile long version;
+
+    // a lock rather than a monitor, so a listener waiting here doesn't pin the carrier of a virtual thread
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+
+    public BookChangeLog(@Value("${books.changes.capacity:100000}") int capacity,
+                         @Value("${books.changes.subscriber-buffer:1000}") int subscriberBuffer) {
+        this.entries = new BookChangeDTO[Math.max(capacity, 1)];
+        this.subscriberBuffer = Math.max(subscriberBuffer, 1);
+        this.first = System.currentTimeMillis() << VERSION_SHIFT;
+        this.version = first - 1;
+    }
+
+    public long version() {
+        return version;
+    }
+
+    @Override
+    public void onBooksChanged(List<BookChange> changes) {
+        lock.lock();
+        try {
+            for (BookChange change : changes) {
+                BookChangeDTO entry = BookChangeDTO.builder()
+                        .version(version + 1)
+                        .bookId(change.getBookId())
+                        .book(change.getCurrent())
+                        .build();
+                entries[slot(entry.getVersion())] = entry;
+                version = entry.getVersion();
+                for (Subscriber subscriber : subscribers) {
+                    subscriber.offer(entry);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return up to {@code limit} changes after {@code since}, only the latest of each book, or just the
+     * current version when {@code since} is null
+     */
+    public BookChangesDTO getChangesSince(Long since, int limit) {
+        lock.lock();
+        try {
+            BookChangesDTO.BookChangesDTOBuilder changes = BookChangesDTO.builder()
+                    .since(since)
+                    .version(version)
+                    .changes(List.of());
+            if (since == null) {
+                return changes.build();
+            }
+            if (!reaches(since)) {
+                return changes.resync(true).build();
+            }
+            long to = Math.min(version, since + Math.max(limit, 1));
+            Map<Long, BookChangeDTO> latest = new LinkedHashMap<>();
+            for (long next = since + 1; next <= to; next++) {
+                BookChangeDTO entry = entries[slot(next)];
+                // re-inserted so the books stay in the order of their last change
+                latest.remove(entry.getBookId());
+                latest.put(entry.getBookId(), entry);
+            }
+            return changes.version(to)
+                    .more(to < version)
+                    .changes(new ArrayList<>(latest.values()))
+                    .build();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Every change after {@code since} (from now on when null) as it is logged. Each subscriber buffers up to
+     * {@code books.changes.subscriber-buffer} changes; one that falls further behind, or asks for a version
+     * out of reach, gets what it has buffered and then a {@link ChangeLogGapException}.
+     */
+    public Flux<BookChangeDTO> subscribe(Long since) {
+        return Flux.defer(() -> {
+            Subscriber subscriber;
+            lock.lock();
+            try {
+                long from = (since != null) ? since : version;
+                if (!reaches(from)) {
+                    return Flux.error(new ChangeLogGapException(from));
+                }
+                subscriber = new Subscriber(from);
+                for (long next = from + 1; next <= version; next++) {
+                    subscriber.offer(entries[slot(next)]);
+                }
+                if (!subscriber.overflowed) {
+                    subscribers.add(subscriber);
+                }
+            } finally {
+                lock.unlock();
+            }
+            return subscriber.changes();
+        });
+    }
+
+    private boolean reaches(long since) {
+        return since >= first - 1 && since <= version && version - since <= entries.length;
+    }
+
+    private int slot(long version) {
+        return (int) ((version - first) % entries.length);
+    }
+
+    private final class Subscriber {
+
+        private final Sinks.Many<BookChangeDTO> sink =
+                Sinks.many().unicast().onBackpressureBuffer(new ArrayBlockingQueue<>(subscriberBuffer));
+
+        private volatile long lastOffered;
+
+        private volatile boolean overflowed;
+
+        private Subscriber(long since) {
+            this.lastOffered = since;
+        }
+
+        // called under the lock, so emissions are serialized
+        private void offer(BookChangeDTO entry) {
+            if (overflowed) {
+                return;
+            }
+            Sinks.EmitResult result = sink.tryEmitNext(entry);
+            if (result.isSuccess()) {
+                lastOffered = entry.getVersion();
+            } else if (result == Sinks.EmitResult.FAIL_OVERFLOW) {
+                // deliver what is buffered, then report the gap after it
+                overflowed = true;
+                subscribers.remove(this);
+                sink.tryEmitComplete();
+            } else {
+                subscribers.remove(this);
+            }
+        }
+
+        private Flux<BookChangeDTO> changes() {
+            return sink.asFlux()
+                    .concatWith(Flux.defer(() -> overflowed
+                            ? Flux.error(new ChangeLogGapException(lastOffered))
+                            : Flux.empty()))
+                    .doFinally(signal -> subscribers.remove(this));
+        }
+    }
+
+}
@@ -0,0 +1,19 @@
+package com.books.changes;
+
+import lombok.Getter;
+
+/**
+ * The change log can't continue right after {@link #getVersion()}: the changes that followed it have been
+ * overwritten, or never reached this subscriber's buffer.
+ */
+@Getter
+public class ChangeLogGapException extends RuntimeException {
+
+    private final long version;
+
+    public ChangeLogGapException(long version) {
+        super("No changes logged right after version " + version);
+        this.version = version;
+    }
+
+}
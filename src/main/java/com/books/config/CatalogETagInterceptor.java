@@ -0,0 +1,31 @@
+package com.books.config;
+
+import com.books.cache.CatalogVersion;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Answers conditional GETs on catalog reads from the catalog version alone, before the handler
+ * (and therefore the database) is reached. The version is read before the handler runs, and
+ * {@link CatalogVersion} is the last change listener to apply a write, so a write racing the read
+ * can only make the tag older than the body, never newer.
+ */
+public class CatalogETagInterceptor implements HandlerInterceptor {
+
+    private final CatalogVersion catalogVersion;
+
+    public CatalogETagInterceptor(CatalogVersion catalogVersion) {
+        this.catalogVersion = catalogVersion;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!HttpMethod.GET.matches(request.getMethod()) && !HttpMethod.HEAD.matches(request.getMethod())) {
+            return true;
+        }
+        return !new ServletWebRequest(request, response).checkNotModified(catalogVersion.etag());
+    }
+}
@@ -0,0 +1,56 @@
+package com.books.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.server.PathContainer;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.async.AsyncWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.context.request.async.DeferredResultProcessingInterceptor;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+/**
+ * Gives async responses on streaming routes their own timeout in place of the default async request
+ * timeout, which would cut a long listing or export off mid-body once it ran out. Applied just before the
+ * request goes async, whether the body is a {@code StreamingResponseBody} or a reactive stream. A negative
+ * timeout never expires.
+ */
+public class StreamingTimeoutInterceptor implements CallableProcessingInterceptor, DeferredResultProcessingInterceptor {
+
+    private final long timeoutMillis;
+
+    private final List<PathPattern> routes;
+
+    public StreamingTimeoutInterceptor(Duration timeout, String... routes) {
+        this.timeoutMillis = timeout.toMillis();
+        this.routes = Arrays.stream(routes).map(PathPatternParser.defaultInstance::parse).toList();
+    }
+
+    @Override
+    public <T> void beforeConcurrentHandling(NativeWebRequest request, Callable<T> task) {
+        applyTimeout(request);
+    }
+
+    @Override
+    public <T> void beforeConcurrentHandling(NativeWebRequest request, DeferredResult<T> deferredResult) {
+        applyTimeout(request);
+    }
+
+    private void applyTimeout(NativeWebRequest request) {
+        HttpServletRequest servletRequest = request.getNativeRequest(HttpServletRequest.class);
+        if (!(request instanceof AsyncWebRequest asyncRequest) || servletRequest == null) {
+            return;
+        }
+        PathContainer path = PathContainer.parsePath(
+                servletRequest.getRequestURI().substring(servletRequest.getContextPath().length()));
+        if (routes.stream().anyMatch(route -> route.matches(path))) {
+            asyncRequest.setTimeout(timeoutMillis);
+        }
+    }
+}
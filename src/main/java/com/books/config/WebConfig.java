@@ -0,0 +1,41 @@
+package com.books.config;
+
+import com.books.cache.CatalogVersion;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.time.Duration;
+
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    @Autowired
+    private CatalogVersion catalogVersion;
+
+    // streamed listings take as long as the catalog is big, so by default they never time out
+    @Value("${books.streaming.request-timeout:-1}")
+    private Duration streamingRequestTimeout = Duration.ofMillis(-1);
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new CatalogETagInterceptor(catalogVersion))
+                .addPathPatterns("/books", "/books/**")
+                // job status and the change stream move on without the catalog version changing
+                .excludePathPatterns("/books/admin/**", "/books/jobs/**", "/books/changes/stream");
+    }
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        StreamingTimeoutInterceptor streamingTimeout = new StreamingTimeoutInterceptor(streamingRequestTimeout,
+                // GET /books?stream=true; the other GET /books listings don't go async
+                "/books", "/books/export",
+                "/reactive/books", "/reactive/books/authors",
+                "/reactive/books/categories", "/reactive/books/categories/*");
+        configurer.registerCallableInterceptors(streamingTimeout);
+        configurer.registerDeferredResultInterceptors(streamingTimeout);
+    }
+}
@@ -0,0 +1,176 @@
+package com.books.controller;
+
+import com.books.cache.BookResponseCache;
+import com.books.cache.JsonResponseCache;
+import com.books.cache.DimensionCache;
+import com.books.dto.CacheStatsDTO;
+import com.books.dto.ExportSnapshotDTO;
+import com.books.dto.ImportReportDTO;
+import com.books.dto.ReadModelCheckDTO;
+import com.books.dto.SnapshotStatsDTO;
+import com.books.export.BookExport;
+import com.books.readmodel.CatalogStats;
+import com.books.readmodel.CatalogTitlesReadModel;
+import com.books.snapshot.CatalogSnapshotService;
+import com.books.service.BookExportService;
+import com.books.service.BookImportService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+@RestController
+@RequestMapping("/books/admin")
+@Tag(name = "Books Admin Endpoints")
+public class BookAdminController {
+
+    // set by Tomcat when the connector can hand a file to the kernel (sendfile) after the servlet returns
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    @Autowired
+    private DimensionCache dimensionCache;
+
+    @Autowired
+    private BookResponseCache bookResponseCache;
+
+    @Autowired
+    private JsonResponseCache jsonResponseCache;
+
+    @Autowired
+    private BookImportService bookImportService;
+
+    @Autowired
+    private BookExportService bookExportService;
+
+    @Autowired
+    private CatalogTitlesReadModel catalogTitlesReadModel;
+
+    @Autowired
+    private CatalogStats catalogStats;
+
+    @Autowired
+    private CatalogSnapshotService catalogSnapshotService;
+
+    @Operation(summary = "Get hit/miss/eviction counters of the in-process caches")
+    @GetMapping("/caches")
+    public ResponseEntity<List<CacheStatsDTO>> getCacheStats() {
+        List<CacheStatsDTO> stats = new ArrayList<>(dimensionCache.stats());
+        stats.addAll(bookResponseCache.stats());
+        stats.addAll(jsonResponseCache.stats());
+        return ResponseEntity.ok(stats);
+    }
+
+    @Operation(summary = "Drop every entry of the in-process caches")
+    @DeleteMapping("/caches")
+    public ResponseEntity<Void> clearCaches() {
+        dimensionCache.invalidateAll();
+        bookResponseCache.invalidateAll();
+        jsonResponseCache.invalidateAll();
+        return ResponseEntity.noContent().build();
+    }
+
+    @Operation(summary = "Get progress and throughput of the imports currently running")
+    @GetMapping("/imports")
+    public ResponseEntity<List<ImportReportDTO>> getRunningImports() {
+        return ResponseEntity.ok(bookImportService.getRunningImports());
+    }
+
+    @Operation(summary = "Rebuild the author and category title read models and diff them against the live ones")
+    @PostMapping("/read-models/check")
+    public ResponseEntity<ReadModelCheckDTO> checkReadModels(@RequestParam(defaultValue = "false") boolean repair) {
+        return ResponseEntity.ok(catalogTitlesReadModel.check(repair));
+    }
+
+    @Operation(summary = "Count the books table again and diff the result against the live catalog stats")
+    @PostMapping("/stats/check")
+    public ResponseEntity<ReadModelCheckDTO> checkCatalogStats(@RequestParam(defaultValue = "false") boolean repair) {
+        return ResponseEntity.ok(catalogStats.check(repair));
+    }
+
+    @Operation(summary = "Get the state of the off-heap catalog snapshot used in snapshot serving mode")
+    @GetMapping("/snapshot")
+    public ResponseEntity<SnapshotStatsDTO> getSnapshotStats() {
+        return ResponseEntity.ok(catalogSnapshotService.stats());
+    }
+
+    @Operation(summary = "Rebuild the off-heap catalog snapshot now")
+    @PostMapping("/snapshot")
+    public ResponseEntity<SnapshotStatsDTO> rebuildSnapshot() {
+        catalogSnapshotService.rebuild();
+        return ResponseEntity.ok(catalogSnapshotService.stats());
+    }
+
+    @Operation(summary = "Write an export snapshot file for the current catalog version, reusing it if already written")
+    @PostMapping("/exports")
+    public ResponseEntity<ExportSnapshotDTO> writeExportSnapshot(@RequestParam(defaultValue = "ndjson") String format,
+                                                                 @RequestParam(defaultValue = "false") boolean gzip) {
+        return ResponseEntity.ok(bookExportService.writeSnapshot(parseExport(format, gzip)));
+    }
+
+    @Operation(summary = "Download the last export snapshot straight from its file")
+    @GetMapping("/exports")
+    public void downloadExportSnapshot(@RequestParam(defaultValue = "ndjson") String format,
+                                       @RequestParam(defaultValue = "false") boolean gzip,
+                                       HttpServletRequest request, HttpServletResponse response) throws IOException {
+        BookExport export = parseExport(format, gzip);
+        ExportSnapshotDTO snapshot = bookExportService.getSnapshot(export);
+        if (snapshot == null) {
+            response.setStatus(HttpStatus.NOT_FOUND.value());
+            response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+            response.getWriter().write("No export snapshot written for format: " + export.fileName("catalog"));
+            return;
+        }
+
+        Path file = bookExportService.snapshotFile(snapshot);
+        long length = snapshot.getBytes();
+        response.setContentType(export.contentType().toString());
+        response.setContentLengthLong(length);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                ContentDisposition.attachment().filename(export.fileName("catalog")).build().toString());
+        response.setHeader(HttpHeaders.ETAG, "\"" + snapshot.getCatalogVersion() + "\"");
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            request.setAttribute(SENDFILE_FILENAME, file.toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, 0L);
+            request.setAttribute(SENDFILE_END, length);
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            WritableByteChannel target = Channels.newChannel(response.getOutputStream());
+            long position = 0;
+            while (position < length) {
+                position += channel.transferTo(position, length - position, target);
+            }
+        }
+    }
+
+    private static BookExport parseExport(String format, boolean gzip) {
+        try {
+            return BookExport.parse(format, gzip);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        }
+    }
+}
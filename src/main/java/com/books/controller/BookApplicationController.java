@@ -1,32 +1,111 @@
 package com.books.controller;
 
+import com.books.changes.BookChangeLog;
+import com.books.changes.ChangeLogGapException;
 import com.books.dto.AuthorDTO;
+import com.books.dto.BookBatchDTO;
+import com.books.dto.BookChangesDTO;
 import com.books.dto.BookDTO;
+import com.books.dto.BookFilterDTO;
+import com.books.dto.BookJobDTO;
+import com.books.dto.BulkSaveReportDTO;
+import com.books.dto.CatalogStatsDTO;
 import com.books.dto.CategoryDTO;
+import com.books.dto.ImportReportDTO;
+import com.books.export.BookExport;
+import com.books.ingest.BookImportFormat;
+import com.books.service.BookExportService;
+import com.books.service.BookImportService;
+import com.books.service.BookJobService;
 import com.books.service.BookService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.enums.ParameterIn;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import reactor.core.publisher.Flux;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestController
 @RequestMapping("/books")
 @Tag(name = "Books Application Endpoints")
 public class BookApplicationController {
 
+    static final String NEXT_CURSOR_HEADER = "X-Next-After";
+
+    private static final int DEFAULT_PAGE_LIMIT = 100;
+
+    private static final int MAX_PAGE_LIMIT = 1000;
+
+    private static final int DEFAULT_SEARCH_LIMIT = 20;
+
+    private static final int MAX_SEARCH_LIMIT = 100;
+
+    private static final int MAX_BATCH_IDS = 10000;
+
+    private static final String RETRY_AFTER_SECONDS = "5";
+
+    private static final int DEFAULT_CHANGES_LIMIT = 1000;
+
+    private static final int MAX_CHANGES_LIMIT = 10000;
+
+    private static final int DEFAULT_TOP_AUTHORS = 10;
+
+    private static final int MAX_TOP_AUTHORS = 1000;
+
     @Autowired
     private BookService bookService;
 
-    @Operation(summary = "Get all the books")
+    @Autowired
+    private BookImportService bookImportService;
+
+    @Autowired
+    private BookExportService bookExportService;
+
+    @Autowired
+    private BookJobService bookJobService;
+
+    @Autowired
+    private BookChangeLog bookChangeLog;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Operation(summary = "Get all the books, optionally paged by bookId cursor")
     @GetMapping
-    public ResponseEntity<List<BookDTO>> getAllBooks() {
+    public ResponseEntity<?> getAllBooks(
+            @Parameter(description = "Return books with an ID greater than this cursor")
+            @RequestParam(required = false) Long after,
+            @Parameter(description = "Page size, capped at " + MAX_PAGE_LIMIT)
+            @RequestParam(required = false) Integer limit) {
+        if (after != null || limit != null) {
+            return getBooksPage(after, limit);
+        }
         List<BookDTO> books = bookService.getAllBooks();
         if (books != null && !books.isEmpty()) {
             return new ResponseEntity<>(books, HttpStatus.OK);
@@ -35,15 +114,99 @@ public class BookApplicationController {
         }
     }
 
+    private ResponseEntity<?> getBooksPage(Long after, Integer limit) {
+        int pageSize = (limit != null) ? Math.min(Math.max(limit, 1), MAX_PAGE_LIMIT) : DEFAULT_PAGE_LIMIT;
+        List<BookDTO> books = bookService.getBooksAfter(after, pageSize);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (books.size() == pageSize) {
+            response.header(NEXT_CURSOR_HEADER, String.valueOf(books.get(books.size() - 1).getBookId()));
+        }
+        return response.body(books);
+    }
+
+    @Operation(summary = "Stream the whole catalog as a JSON array")
+    @GetMapping(params = "stream=true")
+    public ResponseEntity<StreamingResponseBody> streamAllBooks() {
+        StreamingResponseBody body = outputStream -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+                generator.writeStartArray();
+                bookService.streamAllBooks(bookDTO -> {
+                    try {
+                        generator.writeObject(bookDTO);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                generator.writeEndArray();
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body);
+    }
+
+
+    @Operation(summary = "Export the whole catalog as csv, ndjson or gz (gzipped ndjson), streamed from a database cursor")
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportBooks(@RequestParam(defaultValue = "ndjson") String format,
+                                                             @RequestParam(defaultValue = "false") boolean gzip) {
+        BookExport export;
+        try {
+            export = BookExport.parse(format, gzip);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        }
+        StreamingResponseBody body = outputStream -> bookExportService.exportBooks(export, outputStream);
+        return ResponseEntity.ok()
+                .contentType(export.contentType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename(export.fileName("catalog")).build().toString())
+                .body(body);
+    }
 
     @Operation(summary = "Get book by ID")
+    @ApiResponse(responseCode = "200", content = @Content(schema = @Schema(implementation = BookDTO.class)))
     @GetMapping("/{bookId}")
     public ResponseEntity<?> getBookById(@PathVariable Long bookId) {
-        BookDTO bookDTO = bookService.getBookById(bookId);
+        byte[] json = bookService.getBookJsonById(bookId);
+        if (json != null) {
+            return jsonResponse(json);
+        } else {
+            String errorMessage = "Book not found for ID: " + bookId;
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(errorMessage);
+        }
+    }
+
+    @Operation(summary = "Get many books by ID with one query per chunk of IDs, in request order, listing the IDs not found")
+    @PostMapping("/batch-get")
+    public ResponseEntity<BookBatchDTO> batchGetBooks(@RequestBody List<Long> bookIds) {
+        return ResponseEntity.ok(getBooksByIds(bookIds));
+    }
+
+    @Operation(summary = "Get many books by comma separated IDs, in request order, listing the IDs not found")
+    @GetMapping("/batch-get")
+    public ResponseEntity<BookBatchDTO> batchGetBooksByParam(
+            @Parameter(description = "Book IDs, at most " + MAX_BATCH_IDS)
+            @RequestParam List<Long> ids) {
+        return ResponseEntity.ok(getBooksByIds(ids));
+    }
+
+    private BookBatchDTO getBooksByIds(List<Long> bookIds) {
+        if (bookIds.size() > MAX_BATCH_IDS) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "At most " + MAX_BATCH_IDS + " book IDs per request, got " + bookIds.size());
+        }
+        return bookService.getBooksByIds(bookIds);
+    }
+
+    @Operation(summary = "Get book by ISBN")
+    @GetMapping("/isbn/{isbn}")
+    public ResponseEntity<?> getBookByIsbn(@PathVariable Long isbn) {
+        BookDTO bookDTO = bookService.getBookByIsbn(isbn);
         if (bookDTO != null) {
             return new ResponseEntity<>(bookDTO, HttpStatus.OK);
         } else {
-            String errorMessage = "Book not found for ID: " + bookId;
+            String errorMessage = "Book not found for ISBN: " + isbn;
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(errorMessage);
         }
     }
@@ -74,11 +237,12 @@ public class BookApplicationController {
 
 
     @Operation(summary = "Get categories")
+    @ApiResponse(responseCode = "200", content = @Content(array = @ArraySchema(schema = @Schema(implementation = CategoryDTO.class))))
     @GetMapping("/categories")
-    public ResponseEntity<List<CategoryDTO>> getAllCategoriesWithBooks() {
-        List<CategoryDTO> categories = bookService.getAllCategoriesWithBooks();
-        if (categories != null && !categories.isEmpty()) {
-            return new ResponseEntity<>(categories, HttpStatus.OK);
+    public ResponseEntity<byte[]> getAllCategoriesWithBooks() {
+        byte[] json = bookService.getAllCategoriesWithBooksJson();
+        if (json != null) {
+            return jsonResponse(json);
         } else {
             return new ResponseEntity<>(HttpStatus.NOT_FOUND);
         }
@@ -86,20 +250,104 @@ public class BookApplicationController {
 
 
     @Operation(summary = "Get books by category name")
+    @ApiResponse(responseCode = "200", content = @Content(array = @ArraySchema(schema = @Schema(implementation = BookDTO.class))))
     @GetMapping("/categories/{categoryName}")
     public ResponseEntity<?> getBooksByCategory(
             @Parameter(description = "Category name", in = ParameterIn.PATH, required = true,
                     schema = @Schema(type = "string", allowableValues = {"COOKING", "FUN", "HORROR", "SCIENCE FICTION", "SPIRITUAL"}))
             @PathVariable String categoryName) {
-        List<BookDTO> books = bookService.getBooksByCategory(categoryName);
-        if (books != null && !books.isEmpty()) {
-            return new ResponseEntity<>(books, HttpStatus.OK);
+        byte[] json = bookService.getBooksByCategoryJson(categoryName);
+        if (json != null) {
+            return jsonResponse(json);
         } else {
             String errorMessage = "Books are not available for category name: " + categoryName;
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(errorMessage);
         }
     }
 
+    // JSON the service already encoded, copied to the response as is
+    private static ResponseEntity<byte[]> jsonResponse(byte[] json) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(json);
+    }
+
+    @Operation(summary = "Search books by title and author name")
+    @GetMapping("/search")
+    public ResponseEntity<List<BookDTO>> searchBooks(
+            @Parameter(description = "Search terms, matched as words or word prefixes")
+            @RequestParam("q") String query,
+            @Parameter(description = "Maximum number of results, capped at " + MAX_SEARCH_LIMIT)
+            @RequestParam(defaultValue = "" + DEFAULT_SEARCH_LIMIT) int limit) {
+        int resultLimit = Math.min(Math.max(limit, 1), MAX_SEARCH_LIMIT);
+        return ResponseEntity.ok(bookService.searchBooks(query, resultLimit));
+    }
+
+    @Operation(summary = "Filter books on category, author and publication year range, with counts of the matches per category, author and year")
+    @GetMapping("/filter")
+    public ResponseEntity<BookFilterDTO> filterBooks(
+            @Parameter(description = "Category name, ignoring case")
+            @RequestParam(required = false) String category,
+            @Parameter(description = "Author name, ignoring case")
+            @RequestParam(required = false) String author,
+            @Parameter(description = "Earliest publication year, inclusive")
+            @RequestParam(required = false) Integer yearFrom,
+            @Parameter(description = "Latest publication year, inclusive")
+            @RequestParam(required = false) Integer yearTo,
+            @Parameter(description = "Return books with an ID greater than this cursor")
+            @RequestParam(required = false) Long after,
+            @Parameter(description = "Page size, capped at " + MAX_PAGE_LIMIT)
+            @RequestParam(required = false) Integer limit) {
+        if (yearFrom != null && yearTo != null && yearFrom > yearTo) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "yearFrom " + yearFrom + " is after yearTo " + yearTo);
+        }
+        int pageSize = (limit != null) ? Math.min(Math.max(limit, 1), MAX_PAGE_LIMIT) : DEFAULT_PAGE_LIMIT;
+        BookFilterDTO filtered = bookService.filterBooks(blankToNull(category), blankToNull(author),
+                yearFrom, yearTo, after, pageSize);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (filtered.isMore() && !filtered.getBooks().isEmpty()) {
+            response.header(NEXT_CURSOR_HEADER,
+                    String.valueOf(filtered.getBooks().get(filtered.getBooks().size() - 1).getBookId()));
+        }
+        return response.body(filtered);
+    }
+
+    private static String blankToNull(String value) {
+        return (value == null || value.isBlank()) ? null : value.trim();
+    }
+
+    @Operation(summary = "Get the number of books per category and publication year, and of the authors with the most books")
+    @GetMapping("/stats")
+    public ResponseEntity<CatalogStatsDTO> getCatalogStats(
+            @Parameter(description = "How many authors to list, capped at " + MAX_TOP_AUTHORS)
+            @RequestParam(defaultValue = "" + DEFAULT_TOP_AUTHORS) int topAuthors) {
+        return ResponseEntity.ok(bookService.getCatalogStats(Math.min(Math.max(topAuthors, 1), MAX_TOP_AUTHORS)));
+    }
+
+    @Operation(summary = "Get the latest change of each book changed after a catalog version, or just the current version")
+    @GetMapping("/changes")
+    public ResponseEntity<BookChangesDTO> getChanges(@RequestParam(required = false) Long since,
+                                                     @RequestParam(required = false) Integer limit) {
+        int changesLimit = limit == null ? DEFAULT_CHANGES_LIMIT : Math.min(Math.max(limit, 1), MAX_CHANGES_LIMIT);
+        return ResponseEntity.ok(bookChangeLog.getChangesSince(since, changesLimit));
+    }
+
+    @Operation(summary = "Push book changes as server-sent events, resuming after since or the Last-Event-ID header")
+    @GetMapping(value = "/changes/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<Object>> streamChanges(
+            @RequestParam(required = false) Long since,
+            @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        // a resync event carries the last version delivered: catch up from there with GET /books/changes
+        return bookChangeLog.subscribe(lastEventId != null ? lastEventId : since)
+                .map(change -> ServerSentEvent.<Object>builder(change)
+                        .id(Long.toString(change.getVersion()))
+                        .event("change")
+                        .build())
+                .onErrorResume(ChangeLogGapException.class, e -> Flux.just(
+                        ServerSentEvent.<Object>builder(e.getVersion()).event("resync").build()));
+    }
+
     @Operation(summary = "save or update book")
     @PostMapping
     public ResponseEntity<List<BookDTO>> saveAndUpdateBooks(@RequestBody List<BookDTO> bookDTOs) {
@@ -107,4 +355,57 @@ public class BookApplicationController {
         return ResponseEntity.ok(savedBooks);
     }
 
+    @Operation(summary = "bulk save or update books in JDBC batches")
+    @PostMapping("/bulk")
+    public ResponseEntity<BulkSaveReportDTO> bulkSaveBooks(@RequestBody List<BookDTO> bookDTOs) {
+        return ResponseEntity.ok(bookService.bulkSaveBooks(bookDTOs));
+    }
+
+    @Operation(summary = "Queue books to be saved or updated in the background, answering 202 with the job to poll")
+    @ApiResponse(responseCode = "202", content = @Content(schema = @Schema(implementation = BookJobDTO.class)))
+    @ApiResponse(responseCode = "429", description = "Too many jobs waiting, retry after the Retry-After seconds")
+    @PostMapping("/jobs")
+    public ResponseEntity<BookJobDTO> submitBookJob(@RequestBody List<BookDTO> bookDTOs) {
+        BookJobDTO job;
+        try {
+            job = bookJobService.submit(bookDTOs);
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS)
+                    .build();
+        }
+        return ResponseEntity.accepted()
+                .location(ServletUriComponentsBuilder.fromCurrentRequest().path("/{jobId}")
+                        .buildAndExpand(job.getJobId()).toUri())
+                .body(job);
+    }
+
+    @Operation(summary = "Get the status, counts and errors of a background save job")
+    @GetMapping("/jobs/{jobId}")
+    public ResponseEntity<?> getBookJob(@PathVariable String jobId) {
+        BookJobDTO job = bookJobService.getJob(jobId);
+        if (job != null) {
+            return ResponseEntity.ok(job);
+        } else {
+            String errorMessage = "Job not found for ID: " + jobId;
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(errorMessage);
+        }
+    }
+
+    @Operation(summary = "Import books from a CSV (with header row) or NDJSON body, parsed and written in batches")
+    @ApiResponse(responseCode = "429", description = "All import writers busy, retry after the Retry-After seconds")
+    @PostMapping(value = "/import", consumes = {"text/csv", MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<ImportReportDTO> importBooks(@RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+                                                       InputStream body) {
+        Charset charset = contentType.getCharset() != null ? contentType.getCharset() : StandardCharsets.UTF_8;
+        BufferedReader reader = new BufferedReader(new InputStreamReader(body, charset));
+        try {
+            return ResponseEntity.ok(bookImportService.importBooks(BookImportFormat.forMediaType(contentType), reader));
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS)
+                    .build();
+        }
+    }
+
 }
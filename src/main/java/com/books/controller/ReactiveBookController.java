@@ -0,0 +1,77 @@
+package com.books.controller;
+
+import com.books.dto.AuthorDTO;
+import com.books.dto.BookDTO;
+import com.books.dto.CategoryDTO;
+import com.books.service.ReactiveBookService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Non-blocking mirror of {@link BookApplicationController}. Listings are streamed as newline-delimited
+ * JSON, one element per line, with demand signalled back to the service as each line is written.
+ */
+@RestController
+@RequestMapping("/reactive/books")
+@Tag(name = "Reactive Books Application Endpoints")
+public class ReactiveBookController {
+
+    @Autowired
+    private ReactiveBookService reactiveBookService;
+
+    @Operation(summary = "Stream all the books")
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<BookDTO> getAllBooks() {
+        return reactiveBookService.getAllBooks();
+    }
+
+    @Operation(summary = "Get book by ID")
+    @GetMapping("/{bookId}")
+    public Mono<ResponseEntity<?>> getBookById(@PathVariable Long bookId) {
+        return reactiveBookService.getBookById(bookId)
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.status(HttpStatus.NOT_FOUND).body("Book not found for ID: " + bookId));
+    }
+
+    @Operation(summary = "Stream all the authors")
+    @GetMapping(value = "/authors", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<AuthorDTO> getAllAuthors() {
+        return reactiveBookService.getAllAuthors();
+    }
+
+    @Operation(summary = "Get author by ID")
+    @GetMapping("/authors/{authorId}")
+    public Mono<ResponseEntity<?>> getAuthorById(@PathVariable Long authorId) {
+        return reactiveBookService.getAuthorById(authorId)
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.status(HttpStatus.NOT_FOUND).body("author not found for ID: " + authorId));
+    }
+
+    @Operation(summary = "Stream categories")
+    @GetMapping(value = "/categories", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<CategoryDTO> getAllCategoriesWithBooks() {
+        return reactiveBookService.getAllCategoriesWithBooks();
+    }
+
+    @Operation(summary = "Stream books by category name")
+    @GetMapping(value = "/categories/{categoryName}", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<BookDTO> getBooksByCategory(@PathVariable String categoryName) {
+        return reactiveBookService.getBooksByCategory(categoryName);
+    }
+
+    @Operation(summary = "save or update book")
+    @PostMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<BookDTO> saveAndUpdateBooks(@RequestBody List<BookDTO> bookDTOs) {
+        return reactiveBookService.saveAndUpdateBooks(bookDTOs);
+    }
+
+}
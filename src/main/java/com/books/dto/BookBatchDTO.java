@@ -0,0 +1,17 @@
+package com.books.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class BookBatchDTO {
+    private List<BookDTO> books;
+    private List<Long> missingIds;
+}
@@ -0,0 +1,16 @@
+package com.books.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class BookChangeDTO {
+    private long version;
+    private Long bookId;
+    private BookDTO book;
+}
@@ -0,0 +1,22 @@
+package com.books.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class BookChangesDTO {
+    private Long since;
+    // pass as since to get the changes after these
+    private long version;
+    // the change log no longer reaches back to since: re-read the catalog, then follow on from version
+    private boolean resync;
+    private boolean more;
+    private List<BookChangeDTO> changes;
+}
@@ -6,11 +6,17 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.util.regex.Pattern;
+
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
 @Builder
 public class BookDTO {
+
+    // the same rule V3__add_published_year.sql backfilled existing rows with
+    private static final Pattern YEAR = Pattern.compile("-?[0-9]{1,5}");
+
     private Long bookId;
     private String title;
     private String authorName;
@@ -30,4 +36,16 @@ public class BookDTO {
         return builder.build();
     }
 
+    /**
+     * @return the publication year as a number, or {@code null} when it is missing or not a plain year:
+     * an optional minus sign and one to five ASCII digits, surrounding whitespace aside
+     */
+    public static Integer parseYear(String publicationYear) {
+        if (publicationYear == null) {
+            return null;
+        }
+        String trimmed = publicationYear.trim();
+        return YEAR.matcher(trimmed).matches() ? Integer.valueOf(trimmed) : null;
+    }
+
 }
@@ -0,0 +1,25 @@
+package com.books.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class BookFilterDTO {
+    // books matching the filter, not just the ones on this page
+    private long total;
+    private List<BookDTO> books;
+    // more books match after the last one on this page
+    private boolean more;
+    // number of matching books per category, per author (the most frequent only) and per year
+    private Map<String, Long> categories;
+    private Map<String, Long> authors;
+    private Map<Integer, Long> years;
+}
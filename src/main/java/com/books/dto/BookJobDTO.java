@@ -0,0 +1,28 @@
+package com.books.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class BookJobDTO {
+    private String jobId;
+    private String status;
+    private boolean recovered;
+    private long totalBooks;
+    private long processedBooks;
+    private long inserted;
+    private long updated;
+    private long skipped;
+    private long failed;
+    private long batches;
+    private long queuedMillis;
+    private long elapsedMillis;
+    private List<String> errors;
+}
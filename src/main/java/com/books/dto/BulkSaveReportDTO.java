@@ -0,0 +1,23 @@
+package com.books.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class BulkSaveReportDTO {
+    private int totalBooks;
+    private int inserted;
+    private int updated;
+    private int skipped;
+    private int authorsCreated;
+    private int categoriesCreated;
+    private long totalMillis;
+    private List<ChunkTimingDTO> chunks;
+}
@@ -0,0 +1,24 @@
+package com.books.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class CatalogStatsDTO {
+    private long totalBooks;
+    // authors and categories with at least one book
+    private int authors;
+    private int categories;
+    private Map<String, Long> booksPerCategory;
+    // the authors with the most books, most first
+    private Map<String, Long> topAuthors;
+    // books with a publication year that isn't a plain number are left out
+    private Map<Integer, Long> booksPerYear;
+}
@@ -0,0 +1,18 @@
+package com.books.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ChunkTimingDTO {
+    private int chunk;
+    private int books;
+    private int inserted;
+    private int updated;
+    private long millis;
+}
@@ -0,0 +1,23 @@
+package com.books.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ExportSnapshotDTO {
+    private String format;
+    private boolean gzip;
+    private String fileName;
+    private String catalogVersion;
+    private long rows;
+    private long bytes;
+    private Instant createdAt;
+    private long writeMillis;
+}
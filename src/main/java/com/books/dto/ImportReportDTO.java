@@ -0,0 +1,29 @@
+package com.books.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ImportReportDTO {
+    private String importId;
+    private String format;
+    private boolean running;
+    private long recordsRead;
+    private long rejected;
+    private long inserted;
+    private long updated;
+    private long skipped;
+    private long authorsCreated;
+    private long categoriesCreated;
+    private long batches;
+    private long elapsedMillis;
+    private double booksPerSecond;
+    private List<String> errors;
+}
@@ -0,0 +1,21 @@
+package com.books.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ReadModelCheckDTO {
+    private int authorsChecked;
+    private int categoriesChecked;
+    private int differences;
+    private List<String> sample;
+    private boolean repaired;
+    private long millis;
+}
@@ -0,0 +1,26 @@
+package com.books.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class SnapshotStatsDTO {
+    private boolean enabled;
+    private boolean serving;
+    private long generation;
+    private Long snapshotGeneration;
+    private int books;
+    private long offHeapBytes;
+    private Instant builtAt;
+    private long buildMillis;
+    private String source;
+    private Long reconciledChanges;
+    private Long timeToFirstWarmResponseMillis;
+}
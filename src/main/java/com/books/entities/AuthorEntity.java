@@ -10,7 +10,7 @@ import java.util.List;
 
 @Entity
 @Data
-@Table(name = "author")
+@Table(name = "author", indexes = @Index(name = "uk_author_name", columnList = "author_name", unique = true))
 @Builder(toBuilder = true)
 @AllArgsConstructor
 @NoArgsConstructor
@@ -9,7 +9,12 @@ import lombok.NoArgsConstructor;
 
 @Entity
 @Data
-@Table(name = "books")
+@Table(name = "books", indexes = {
+        @Index(name = "uk_books_isbn", columnList = "isbn", unique = true),
+        @Index(name = "idx_books_author_id", columnList = "author_id"),
+        @Index(name = "idx_books_category_id", columnList = "category_id"),
+        @Index(name = "idx_books_published_year", columnList = "published_year")
+})
 @Builder(toBuilder = true)
 @AllArgsConstructor
 @NoArgsConstructor
@@ -38,8 +43,14 @@ public class BookEntity {
     @Column(name = "publication_year")
     private String publicationYear;
 
+    // publicationYear as a number for range queries, kept in step on every write
+    @Column(name = "published_year")
+    private Integer publishedYear;
 
-
-
+    @PrePersist
+    @PreUpdate
+    void parsePublishedYear() {
+        publishedYear = BookDTO.parseYear(publicationYear);
+    }
 
 }
@@ -10,7 +10,7 @@ import java.util.List;
 
 @Data
 @Entity
-@Table(name = "category")
+@Table(name = "category", indexes = @Index(name = "uk_category_name", columnList = "category_name", unique = true))
 @Builder(toBuilder = true)
 @AllArgsConstructor
 @NoArgsConstructor
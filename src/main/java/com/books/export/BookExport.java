@@ -0,0 +1,34 @@
+package com.books.export;
+
+import org.springframework.http.MediaType;
+
+import java.util.Locale;
+
+/**
+ * What an export produces: the record format and whether the stream is gzipped.
+ */
+public record BookExport(BookExportFormat format, boolean gzip) {
+
+    public static final MediaType GZIP = new MediaType("application", "gzip");
+
+    /**
+     * @param format {@code csv}, {@code ndjson} or {@code gz} (gzipped NDJSON)
+     */
+    public static BookExport parse(String format, boolean gzip) {
+        return switch (format.toLowerCase(Locale.ROOT)) {
+            case "csv" -> new BookExport(BookExportFormat.CSV, gzip);
+            case "ndjson" -> new BookExport(BookExportFormat.NDJSON, gzip);
+            case "gz" -> new BookExport(BookExportFormat.NDJSON, true);
+            default -> throw new IllegalArgumentException("Unsupported export format: " + format);
+        };
+    }
+
+    public MediaType contentType() {
+        return gzip ? GZIP : format.mediaType();
+    }
+
+    public String fileName(String baseName) {
+        return baseName + "." + format.extension() + (gzip ? ".gz" : "");
+    }
+
+}
@@ -0,0 +1,44 @@
+package com.books.export;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.MediaType;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+public enum BookExportFormat {
+
+    CSV(new MediaType("text", "csv"), "csv") {
+        @Override
+        public BookExportWriter open(OutputStream outputStream, ObjectMapper objectMapper) throws IOException {
+            return new CsvBookExportWriter(outputStream);
+        }
+    },
+
+    NDJSON(MediaType.APPLICATION_NDJSON, "ndjson") {
+        @Override
+        public BookExportWriter open(OutputStream outputStream, ObjectMapper objectMapper) throws IOException {
+            return new NdjsonBookExportWriter(outputStream, objectMapper);
+        }
+    };
+
+    private final MediaType mediaType;
+
+    private final String extension;
+
+    BookExportFormat(MediaType mediaType, String extension) {
+        this.mediaType = mediaType;
+        this.extension = extension;
+    }
+
+    public MediaType mediaType() {
+        return mediaType;
+    }
+
+    public String extension() {
+        return extension;
+    }
+
+    public abstract BookExportWriter open(OutputStream outputStream, ObjectMapper objectMapper) throws IOException;
+
+}
@@ -0,0 +1,15 @@
+package com.books.export;
+
+import com.books.dto.BookDTO;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Writes books one at a time to an export stream; {@link #close()} finishes and closes the stream.
+ */
+public interface BookExportWriter extends Closeable {
+
+    void write(BookDTO book) throws IOException;
+
+}
@@ -0,0 +1,62 @@
+package com.books.export;
+
+import com.books.dto.BookDTO;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * RFC 4180 CSV with a header row, in the column layout {@code POST /books/import} reads back.
+ */
+public class CsvBookExportWriter implements BookExportWriter {
+
+    static final String HEADER = "bookId,title,authorName,categoryName,isbn,publicationYear";
+
+    private final Writer writer;
+
+    public CsvBookExportWriter(OutputStream outputStream) throws IOException {
+        this.writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        writer.write(HEADER);
+        writer.write('\n');
+    }
+
+    @Override
+    public void write(BookDTO book) throws IOException {
+        writeField(book.getBookId());
+        writer.write(',');
+        writeField(book.getTitle());
+        writer.write(',');
+        writeField(book.getAuthorName());
+        writer.write(',');
+        writeField(book.getCategoryName());
+        writer.write(',');
+        writeField(book.getIsbn());
+        writer.write(',');
+        writeField(book.getPublicationYear());
+        writer.write('\n');
+    }
+
+    private void writeField(Object value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        String text = value.toString();
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            writer.write(text);
+            return;
+        }
+        writer.write('"');
+        writer.write(text.replace("\"", "\"\""));
+        writer.write('"');
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.close();
+    }
+
+}
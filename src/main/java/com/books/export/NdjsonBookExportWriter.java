@@ -0,0 +1,31 @@
+package com.books.export;
+
+import com.books.dto.BookDTO;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+public class NdjsonBookExportWriter implements BookExportWriter {
+
+    private final JsonGenerator generator;
+
+    public NdjsonBookExportWriter(OutputStream outputStream, ObjectMapper objectMapper) throws IOException {
+        this.generator = objectMapper.getFactory().createGenerator(outputStream);
+        // records are separated by the newline written after each one, not Jackson's default space
+        generator.setRootValueSeparator(null);
+    }
+
+    @Override
+    public void write(BookDTO book) throws IOException {
+        generator.writeObject(book);
+        generator.writeRaw('\n');
+    }
+
+    @Override
+    public void close() throws IOException {
+        generator.close();
+    }
+
+}
@@ -0,0 +1,42 @@
+package com.books.ingest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.MediaType;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+
+public enum BookImportFormat {
+
+    CSV(new MediaType("text", "csv")) {
+        @Override
+        public BookRecordReader open(BufferedReader reader, ObjectMapper objectMapper) throws IOException {
+            return new CsvBookRecordReader(reader);
+        }
+    },
+
+    NDJSON(MediaType.APPLICATION_NDJSON) {
+        @Override
+        public BookRecordReader open(BufferedReader reader, ObjectMapper objectMapper) {
+            return new NdjsonBookRecordReader(reader, objectMapper);
+        }
+    };
+
+    private final MediaType mediaType;
+
+    BookImportFormat(MediaType mediaType) {
+        this.mediaType = mediaType;
+    }
+
+    public abstract BookRecordReader open(BufferedReader reader, ObjectMapper objectMapper) throws IOException;
+
+    public static BookImportFormat forMediaType(MediaType contentType) {
+        for (BookImportFormat format : values()) {
+            if (format.mediaType.includes(contentType)) {
+                return format;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported import content type: " + contentType);
+    }
+
+}
@@ -0,0 +1,21 @@
+package com.books.ingest;
+
+import com.books.dto.BookDTO;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Pulls one book at a time from an import stream. Implementations hold at most the current record in
+ * memory, so the size of the input does not matter.
+ */
+public interface BookRecordReader extends Closeable {
+
+    /**
+     * @return the next book, or {@code null} once the input is exhausted
+     * @throws MalformedRecordException if the current record can't be mapped; the reader is positioned
+     *                                  after it and the next call continues with the following record
+     */
+    BookDTO read() throws IOException;
+
+}
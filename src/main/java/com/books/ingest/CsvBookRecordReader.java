@@ -0,0 +1,138 @@
+package com.books.ingest;
+
+import com.books.dto.BookDTO;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * RFC 4180 CSV with a header row naming the {@link BookDTO} properties, e.g.
+ * {@code bookId,title,authorName,categoryName,isbn,publicationYear}. Header names are matched ignoring
+ * case and underscores, unknown columns are ignored and empty fields map to {@code null}. Quoted fields
+ * may contain commas, doubled quotes and line breaks.
+ */
+public class CsvBookRecordReader implements BookRecordReader {
+
+    // an unbalanced quote would otherwise pull the rest of the file into a single field
+    static final int MAX_RECORD_CHARS = 1 << 20;
+
+    private final BufferedReader reader;
+
+    private final List<String> columns;
+
+    private long line;
+
+    public CsvBookRecordReader(BufferedReader reader) throws IOException {
+        this.reader = reader;
+        List<String> header = readRow();
+        List<String> columns = new ArrayList<>();
+        if (header != null) {
+            for (String name : header) {
+                columns.add(name.strip().replace("_", "").toLowerCase(Locale.ROOT));
+            }
+        }
+        this.columns = columns;
+    }
+
+    @Override
+    public BookDTO read() throws IOException {
+        List<String> row;
+        do {
+            row = readRow();
+            if (row == null) {
+                return null;
+            }
+        } while (row.size() == 1 && row.get(0).isBlank());
+
+        if (row.size() != columns.size()) {
+            throw new MalformedRecordException(line, "expected " + columns.size() + " fields but found " + row.size());
+        }
+        BookDTO book = new BookDTO();
+        for (int i = 0; i < row.size(); i++) {
+            String value = row.get(i).isEmpty() ? null : row.get(i);
+            switch (columns.get(i)) {
+                case "bookid" -> book.setBookId(parseLong("bookId", value));
+                case "title" -> book.setTitle(value);
+                case "authorname", "author" -> book.setAuthorName(value);
+                case "categoryname", "category" -> book.setCategoryName(value);
+                case "isbn" -> book.setIsbn(parseLong("isbn", value));
+                case "publicationyear" -> book.setPublicationYear(value);
+                default -> {
+                }
+            }
+        }
+        return book;
+    }
+
+    private Long parseLong(String column, String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Long.valueOf(value.strip());
+        } catch (NumberFormatException e) {
+            throw new MalformedRecordException(line, "invalid " + column + " '" + value + "'");
+        }
+    }
+
+    private List<String> readRow() throws IOException {
+        String text = reader.readLine();
+        if (text == null) {
+            return null;
+        }
+        line++;
+        long startLine = line;
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        int length = 0;
+        boolean quoted = false;
+        int i = 0;
+        while (true) {
+            if (i == text.length()) {
+                if (!quoted) {
+                    break;
+                }
+                text = reader.readLine();
+                if (text == null) {
+                    throw new MalformedRecordException(startLine, "unterminated quoted field");
+                }
+                line++;
+                field.append('\n');
+                i = 0;
+                continue;
+            }
+            if (++length > MAX_RECORD_CHARS) {
+                throw new IOException("CSV record at line " + startLine + " exceeds " + MAX_RECORD_CHARS + " characters");
+            }
+            char c = text.charAt(i++);
+            if (quoted) {
+                if (c != '"') {
+                    field.append(c);
+                } else if (i < text.length() && text.charAt(i) == '"') {
+                    field.append('"');
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+}
@@ -0,0 +1,15 @@
+package com.books.ingest;
+
+import lombok.Getter;
+
+@Getter
+public class MalformedRecordException extends RuntimeException {
+
+    private final long line;
+
+    public MalformedRecordException(long line, String message) {
+        super("line " + line + ": " + message);
+        this.line = line;
+    }
+
+}
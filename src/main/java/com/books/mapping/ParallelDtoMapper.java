@@ -0,0 +1,116 @@
+package com.books.mapping;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+
+/**
+ * Maps large listings to DTOs on a dedicated {@link ForkJoinPool} of {@code books.mapping.parallelism}
+ * threads (the available processors by default), so long listings don't share the common pool with
+ * everything else. Listings backed by fewer than {@code books.mapping.parallel-threshold} rows are mapped
+ * on the calling thread, where splitting would cost more than it saves, as is everything when the pool
+ * would only have one thread. Mappers must only read already loaded state: no lazy loading, no session.
+ */
+@Component
+public class ParallelDtoMapper {
+
+    // smallest slice worth handing to another worker
+    private static final int MIN_SLICE = 1024;
+
+    @Value("${books.mapping.parallelism:0}")
+    private int parallelism;
+
+    @Value("${books.mapping.parallel-threshold:20000}")
+    private int parallelThreshold = 20000;
+
+    private ForkJoinPool pool;
+
+    @PostConstruct
+    public void start() {
+        int threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        if (threads > 1) {
+            pool = new ForkJoinPool(threads, forkJoinPool -> {
+                ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(forkJoinPool);
+                thread.setName("books-mapping-" + thread.getPoolIndex());
+                return thread;
+            }, null, false);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (pool != null) {
+            pool.shutdownNow();
+        }
+    }
+
+    public <T, R> List<R> map(List<T> source, Function<? super T, ? extends R> mapper) {
+        return map(source.size(), source.size(), index -> mapper.apply(source.get(index)));
+    }
+
+    /**
+     * @param size number of elements to produce
+     * @param rows number of source rows behind them, which decides whether the listing is split
+     * @param mapper produces the element at an index, called at most once per index from any thread
+     */
+    public <R> List<R> map(int size, long rows, IntFunction<? extends R> mapper) {
+        if (pool == null || rows < parallelThreshold || size < 2) {
+            List<R> result = new ArrayList<>(size);
+            for (int index = 0; index < size; index++) {
+                result.add(mapper.apply(index));
+            }
+            return result;
+        }
+        Object[] result = new Object[size];
+        int slice = Math.max(MIN_SLICE, size / (pool.getParallelism() * 4));
+        pool.invoke(new MapSlice(result, mapper, 0, size, slice));
+        @SuppressWarnings("unchecked")
+        List<R> list = (List<R>) Arrays.asList(result);
+        return list;
+    }
+
+    private static final class MapSlice extends RecursiveAction {
+
+        private final Object[] result;
+
+        private final IntFunction<?> mapper;
+
+        private final int from;
+
+        private final int to;
+
+        private final int slice;
+
+        private MapSlice(Object[] result, IntFunction<?> mapper, int from, int to, int slice) {
+            this.result = result;
+            this.mapper = mapper;
+            this.from = from;
+            this.to = to;
+            this.slice = slice;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= slice) {
+                for (int index = from; index < to; index++) {
+                    result[index] = mapper.apply(index);
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new MapSlice(result, mapper, from, middle, slice),
+                    new MapSlice(result, mapper, middle, to, slice));
+        }
+    }
+
+}
@@ -0,0 +1,111 @@
+package com.books.metrics;
+
+import com.books.dto.AuthorDTO;
+import com.books.dto.BookBatchDTO;
+import com.books.dto.BookDTO;
+import com.books.dto.CategoryDTO;
+import com.books.entities.AuthorEntity;
+import com.books.entities.BookEntity;
+import com.books.entities.CategoryEntity;
+import com.books.repository.projection.AuthorTitleRow;
+import com.books.repository.projection.BookCountRow;
+import com.books.repository.projection.CategoryTitleRow;
+import com.books.repository.projection.YearCountRow;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.aop.framework.AopProxyUtils;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Times every {@link com.books.service.BookService} call and counts the rows each service call maps
+ * and each repository call loads. Only collections, optionals and single entities, DTOs or projection
+ * rows count as rows; calls returning counts, flags, reports or pre-encoded JSON aren't counted at all.
+ * Repository call latency itself is already recorded by Spring Boot as spring.data.repository.invocations.
+ */
+@Aspect
+@Component
+public class BookMetricsAspect {
+
+    private static final List<Class<?>> ROW_TYPES = List.of(BookDTO.class, AuthorDTO.class, CategoryDTO.class,
+            BookEntity.class, AuthorEntity.class, CategoryEntity.class,
+            AuthorTitleRow.class, CategoryTitleRow.class, BookCountRow.class, YearCountRow.class);
+
+    private final MeterRegistry meterRegistry;
+
+    public BookMetricsAspect(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Around("execution(* com.books.service.BookService.*(..))")
+    public Object timeService(ProceedingJoinPoint joinPoint) throws Throwable {
+        String method = joinPoint.getSignature().getName();
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String exception = "none";
+        try {
+            Object result = joinPoint.proceed();
+            count("books.service.rows.mapped", "DTOs produced by service calls", result, "method", method);
+            return result;
+        } catch (Throwable e) {
+            exception = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            sample.stop(Timer.builder("books.service.invocations")
+                    .description("BookService call latency")
+                    .tags("method", method, "exception", exception)
+                    .register(meterRegistry));
+        }
+    }
+
+    @Around("execution(* org.springframework.data.repository.Repository+.*(..))")
+    public Object countRepositoryRows(ProceedingJoinPoint joinPoint) throws Throwable {
+        Object result = joinPoint.proceed();
+        count("books.repository.rows.loaded", "Rows returned by repository calls", result,
+                "repository", repositoryName(joinPoint.getThis()), "method", joinPoint.getSignature().getName());
+        return result;
+    }
+
+    private void count(String name, String description, Object result, String... tags) {
+        long rows = rows(result);
+        if (rows < 0) {
+            return;
+        }
+        Counter.builder(name)
+                .description(description)
+                .tags(tags)
+                .register(meterRegistry)
+                .increment(rows);
+    }
+
+    /**
+     * @return the rows in the result, or -1 when it isn't made of rows
+     */
+    static long rows(Object result) {
+        if (result == null) {
+            return 0;
+        } else if (result instanceof Collection<?> collection) {
+            return collection.size();
+        } else if (result instanceof Optional<?> optional) {
+            return optional.map(BookMetricsAspect::rows).orElse(0L);
+        } else if (result instanceof BookBatchDTO batch) {
+            return (batch.getBooks() != null) ? batch.getBooks().size() : 0;
+        }
+        return ROW_TYPES.stream().anyMatch(type -> type.isInstance(result)) ? 1 : -1;
+    }
+
+    private static String repositoryName(Object proxy) {
+        for (Class<?> type : AopProxyUtils.proxiedUserInterfaces(proxy)) {
+            if (type.getPackageName().startsWith("com.books.repository")) {
+                return type.getSimpleName();
+            }
+        }
+        return "unknown";
+    }
+}
@@ -0,0 +1,39 @@
+package com.books.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.stereotype.Component;
+
+/**
+ * Counts every SQL statement Hibernate prepares, globally and for the current thread so
+ * {@link RequestMetricsFilter} can report statements per request.
+ */
+@Component
+public class SqlStatementCounter implements StatementInspector {
+
+    private static final ThreadLocal<int[]> CURRENT = ThreadLocal.withInitial(() -> new int[1]);
+
+    private final Counter statements;
+
+    public SqlStatementCounter(MeterRegistry meterRegistry) {
+        this.statements = Counter.builder("books.sql.statements")
+                .description("SQL statements prepared by Hibernate")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public String inspect(String sql) {
+        CURRENT.get()[0]++;
+        statements.increment();
+        return sql;
+    }
+
+    static void reset() {
+        CURRENT.get()[0] = 0;
+    }
+
+    static int current() {
+        return CURRENT.get()[0];
+    }
+}
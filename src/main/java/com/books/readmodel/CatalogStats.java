@@ -0,0 +1,310 @@
+package com.books.readmodel;
+
+import com.books.dto.BookDTO;
+import com.books.dto.CatalogStatsDTO;
+import com.books.dto.ReadModelCheckDTO;
+import com.books.repository.BookRepository;
+import com.books.repository.projection.BookCountRow;
+import com.books.repository.projection.YearCountRow;
+import com.books.service.BookChange;
+import com.books.service.BookChangeListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * Books per category, author and publication year, counted from the books table at startup and kept current
+ * from committed book changes: a change takes the book off the counters of its previous version and adds it
+ * to those of its current one. The counters are {@link LongAdder}s, so commits landing at once update them
+ * without waiting on each other. Author and category names are counted ignoring case, as their unique
+ * indexes compare them.
+ * <p>
+ * A change is counted against the previous version it reports, so two concurrent updates of the same book,
+ * or a change committed while the tables are being counted, can leave a counter off; {@link #check} finds
+ * and repairs that. Until the first count completes, {@link #isReady()} is false and stats are counted from
+ * the table.
+ */
+@Component
+public class CatalogStats implements BookChangeListener {
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogStats.class);
+
+    private static final int MAX_REPORTED_DIFFERENCES = 50;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    private volatile boolean ready;
+
+    private volatile Counters counters = new Counters();
+
+    // changes are applied under the read lock, concurrently; replacing the counters takes the write lock
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        long start = System.nanoTime();
+        Counters counted = count();
+        replace(counted);
+        log.info("Catalog stats counted for {} books in {} ms", counted.totalBooks.sum(),
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    @Override
+    public void onBooksChanged(List<BookChange> changes) {
+        // before the first count the table is read directly, and the count will see these commits
+        if (!ready) {
+            return;
+        }
+        lock.readLock().lock();
+        try {
+            Counters current = counters;
+            for (BookChange change : changes) {
+                current.move(change.getPrevious(), change.getCurrent());
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @param topAuthors how many of the authors with the most books to list
+     */
+    public CatalogStatsDTO stats(int topAuthors) {
+        Counters current = ready ? counters : count();
+        Map<String, Long> perCategory = current.categories.values().stream()
+                .map(Counter::snapshot)
+                .filter(counter -> counter.books.sum() > 0)
+                .sorted(Counter.MOST_BOOKS_FIRST)
+                .collect(LinkedHashMap::new, (map, counter) -> map.put(counter.name, counter.books.sum()), Map::putAll);
+        Map<Integer, Long> perYear = new TreeMap<>();
+        current.years.forEach((year, books) -> {
+            if (books.sum() > 0) {
+                perYear.put(year, books.sum());
+            }
+        });
+        int authors = 0;
+        PriorityQueue<Counter> top = new PriorityQueue<>(Counter.MOST_BOOKS_FIRST.reversed());
+        for (Counter counter : current.authors.values()) {
+            Counter snapshot = counter.snapshot();
+            if (snapshot.books.sum() > 0) {
+                authors++;
+                top.offer(snapshot);
+                if (top.size() > topAuthors) {
+                    top.poll();
+                }
+            }
+        }
+        List<Counter> ranked = new ArrayList<>(top);
+        ranked.sort(Counter.MOST_BOOKS_FIRST);
+        Map<String, Long> topAuthorBooks = new LinkedHashMap<>();
+        ranked.forEach(counter -> topAuthorBooks.put(counter.name, counter.books.sum()));
+        return CatalogStatsDTO.builder()
+                .totalBooks(current.totalBooks.sum())
+                .authors(authors)
+                .categories(perCategory.size())
+                .booksPerCategory(perCategory)
+                .topAuthors(topAuthorBooks)
+                .booksPerYear(perYear)
+                .build();
+    }
+
+    /**
+     * Counts the books table again and diffs the result against the live counters.
+     *
+     * @param repair replace the live counters with the new count when they differ
+     */
+    public ReadModelCheckDTO check(boolean repair) {
+        long start = System.nanoTime();
+        Counters source = count();
+        Counters live = counters;
+
+        List<String> sample = new ArrayList<>();
+        AtomicInteger differences = new AtomicInteger();
+        Consumer<String> collector = difference -> {
+            if (differences.getAndIncrement() < MAX_REPORTED_DIFFERENCES) {
+                sample.add(difference);
+            }
+        };
+        if (live.totalBooks.sum() != source.totalBooks.sum()) {
+            collector.accept("books: counted " + live.totalBooks.sum() + ", table has " + source.totalBooks.sum());
+        }
+        diff("author", live.authors, source.authors, collector);
+        diff("category", live.categories, source.categories, collector);
+        diffYears(live.years, source.years, collector);
+
+        boolean repaired = repair && (differences.get() > 0 || !ready);
+        if (repaired) {
+            replace(source);
+        }
+        if (differences.get() > 0) {
+            log.warn("Catalog stats differ from the books table in {} places{}", differences.get(),
+                    repaired ? ", replaced with a new count" : "");
+        }
+        return ReadModelCheckDTO.builder()
+                .authorsChecked(source.authors.size())
+                .categoriesChecked(source.categories.size())
+                .differences(differences.get())
+                .sample(sample)
+                .repaired(repaired)
+                .millis((System.nanoTime() - start) / 1_000_000)
+                .build();
+    }
+
+    private void replace(Counters counted) {
+        lock.writeLock().lock();
+        try {
+            counters = counted;
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private Counters count() {
+        Counters counted = new Counters();
+        counted.totalBooks.add(bookRepository.count());
+        for (BookCountRow row : bookRepository.countBooksByAuthor()) {
+            counted.counter(counted.authors, row.getName()).books.add(row.getBooks());
+        }
+        for (BookCountRow row : bookRepository.countBooksByCategory()) {
+            counted.counter(counted.categories, row.getName()).books.add(row.getBooks());
+        }
+        for (YearCountRow row : bookRepository.countBooksByYear()) {
+            counted.years.computeIfAbsent(row.getYear(), year -> new LongAdder()).add(row.getBooks());
+        }
+        return counted;
+    }
+
+    private static void diff(String kind, Map<String, Counter> live, Map<String, Counter> source,
+                             Consumer<String> collector) {
+        Set<String> keys = new HashSet<>(live.keySet());
+        keys.addAll(source.keySet());
+        for (String key : keys) {
+            Counter counted = live.get(key);
+            Counter actual = source.get(key);
+            long countedBooks = counted != null ? counted.books.sum() : 0;
+            long actualBooks = actual != null ? actual.books.sum() : 0;
+            if (countedBooks != actualBooks) {
+                String name = actual != null ? actual.name : counted.name;
+                collector.accept(kind + " " + name + ": counted " + countedBooks + ", table has " + actualBooks);
+            }
+        }
+    }
+
+    private static void diffYears(Map<Integer, LongAdder> live, Map<Integer, LongAdder> source,
+                                  Consumer<String> collector) {
+        Set<Integer> years = new HashSet<>(live.keySet());
+        years.addAll(source.keySet());
+        for (Integer year : years) {
+            long countedBooks = live.containsKey(year) ? live.get(year).sum() : 0;
+            long actualBooks = source.containsKey(year) ? source.get(year).sum() : 0;
+            if (countedBooks != actualBooks) {
+                collector.accept("year " + year + ": counted " + countedBooks + ", table has " + actualBooks);
+            }
+        }
+    }
+
+    private static final class Counters {
+
+        private final LongAdder totalBooks = new LongAdder();
+
+        // keyed by lower-cased name; counters that drop to zero stay, so no increment is lost to a removal
+        private final ConcurrentMap<String, Counter> authors = new ConcurrentHashMap<>();
+
+        private final ConcurrentMap<String, Counter> categories = new ConcurrentHashMap<>();
+
+        private final ConcurrentMap<Integer, LongAdder> years = new ConcurrentHashMap<>();
+
+        void move(BookDTO previous, BookDTO current) {
+            if (previous == null && current != null) {
+                totalBooks.increment();
+            } else if (previous != null && current == null) {
+                totalBooks.decrement();
+            }
+            move(authors, previous != null ? previous.getAuthorName() : null,
+                    current != null ? current.getAuthorName() : null);
+            move(categories, previous != null ? previous.getCategoryName() : null,
+                    current != null ? current.getCategoryName() : null);
+            Integer from = previous != null ? BookDTO.parseYear(previous.getPublicationYear()) : null;
+            Integer to = current != null ? BookDTO.parseYear(current.getPublicationYear()) : null;
+            if (!Objects.equals(from, to)) {
+                if (from != null) {
+                    years.computeIfAbsent(from, year -> new LongAdder()).decrement();
+                }
+                if (to != null) {
+                    years.computeIfAbsent(to, year -> new LongAdder()).increment();
+                }
+            }
+        }
+
+        private void move(ConcurrentMap<String, Counter> counts, String from, String to) {
+            if (from != null && to != null && key(from).equals(key(to))) {
+                return;
+            }
+            if (from != null) {
+                counter(counts, from).books.decrement();
+            }
+            if (to != null) {
+                counter(counts, to).books.increment();
+            }
+        }
+
+        Counter counter(ConcurrentMap<String, Counter> counts, String name) {
+            return counts.computeIfAbsent(key(name), key -> new Counter(name));
+        }
+
+        private static String key(String name) {
+            return name.toLowerCase(Locale.ROOT);
+        }
+    }
+
+    private static final class Counter {
+
+        static final Comparator<Counter> MOST_BOOKS_FIRST = Comparator
+                .comparingLong((Counter counter) -> counter.books.sum()).reversed()
+                .thenComparing(counter -> counter.name);
+
+        // the name as first counted
+        private final String name;
+
+        private final LongAdder books = new LongAdder();
+
+        private Counter(String name) {
+            this.name = name;
+        }
+
+        // a copy that stays put while it is sorted
+        Counter snapshot() {
+            Counter copy = new Counter(name);
+            copy.books.add(books.sum());
+            return copy;
+        }
+    }
+}
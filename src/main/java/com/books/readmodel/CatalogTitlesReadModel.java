@@ -0,0 +1,308 @@
+package com.books.readmodel;
+
+import com.books.cache.DimensionCache;
+import com.books.dto.AuthorDTO;
+import com.books.dto.BookDTO;
+import com.books.dto.CategoryDTO;
+import com.books.dto.ReadModelCheckDTO;
+import com.books.entities.AuthorEntity;
+import com.books.entities.CategoryEntity;
+import com.books.mapping.ParallelDtoMapper;
+import com.books.repository.AuthorRepository;
+import com.books.repository.CategoryRepository;
+import com.books.repository.projection.AuthorTitleRow;
+import com.books.repository.projection.CategoryTitleRow;
+import com.books.service.BookChange;
+import com.books.service.BookChangeListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Author and category title listings precomputed from the source tables and kept current from committed
+ * book changes, so listing them is a walk over id-ordered maps rather than a join over the books table.
+ * A change moves the book's title out of the author and category it was listed under and into the new
+ * ones.
+ * <p>
+ * Mutations (changes, rebuild swaps) are serialized on a lock held only for the in-memory work. A rebuild
+ * reads the source tables outside it while the changes committed meanwhile are recorded, and replays them on
+ * the rebuilt groups before swapping them in; placing a book is idempotent, so replaying a change the
+ * rebuild already read is harmless.
+ * Until the first build completes, {@link #isReady()} is false and callers read the tables directly.
+ */
+@Component
+public class CatalogTitlesReadModel implements BookChangeListener {
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogTitlesReadModel.class);
+
+    private static final int MAX_REPORTED_DIFFERENCES = 50;
+
+    @Autowired
+    private AuthorRepository authorRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private DimensionCache dimensionCache;
+
+    @Autowired
+    private ParallelDtoMapper parallelDtoMapper;
+
+    @Value("${books.read-model.enabled:true}")
+    private boolean enabled = true;
+
+    private volatile boolean ready;
+
+    private volatile TitleGroups authors = new TitleGroups();
+
+    private volatile TitleGroups categories = new TitleGroups();
+
+    // a lock rather than a monitor, so a change waiting here doesn't pin the carrier of a virtual thread
+    private final ReentrantLock lock = new ReentrantLock();
+
+    // one rebuild or check reads the source tables at a time
+    private final ReentrantLock loading = new ReentrantLock();
+
+    // the placements committed since the running rebuild started reading, null when none runs; under the lock
+    private List<Placement> replay;
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (enabled) {
+            rebuild();
+        }
+    }
+
+    public void rebuild() {
+        long start = System.nanoTime();
+        loading.lock();
+        try {
+            Loaded loaded = readSources();
+            lock.lock();
+            try {
+                replayOnto(loaded);
+                authors = loaded.authors();
+                categories = loaded.categories();
+                ready = true;
+            } finally {
+                lock.unlock();
+            }
+            log.info("Title read models built with {} authors and {} categories in {} ms", loaded.authors().size(),
+                    loaded.categories().size(), (System.nanoTime() - start) / 1_000_000);
+        } finally {
+            loading.unlock();
+        }
+    }
+
+    public List<AuthorDTO> getAllAuthors() {
+        List<TitleGroups.Group> groups = new ArrayList<>(authors.groups());
+        return parallelDtoMapper.map(groups.size(), authors.books(), index -> toAuthorDto(groups.get(index)));
+    }
+
+    public AuthorDTO getAuthorById(Long authorId) {
+        TitleGroups.Group group = authors.get(authorId);
+        return group != null ? toAuthorDto(group) : null;
+    }
+
+    public List<CategoryDTO> getAllCategories() {
+        List<TitleGroups.Group> groups = new ArrayList<>(categories.groups());
+        return parallelDtoMapper.map(groups.size(), categories.books(), index -> CategoryDTO.builder()
+                .categoryName(groups.get(index).name())
+                .titles(groups.get(index).titleList())
+                .build());
+    }
+
+    @Override
+    public void onBooksChanged(List<BookChange> changes) {
+        // ids of authors and categories not listed yet may take a query, so they are looked up before locking
+        List<Placement> placements = new ArrayList<>(changes.size());
+        for (BookChange change : changes) {
+            BookDTO current = change.getCurrent();
+            placements.add(current == null
+                    ? new Placement(change.getBookId(), null, null, null, null, null)
+                    : new Placement(change.getBookId(), current.getTitle(),
+                            authorId(current.getAuthorName()), current.getAuthorName(),
+                            categoryId(current.getCategoryName()), current.getCategoryName()));
+        }
+        lock.lock();
+        try {
+            if (replay != null) {
+                replay.addAll(placements);
+            }
+            // before the first build the tables are read directly, and the build will see these commits
+            if (ready) {
+                placements.forEach(placement -> placement.applyTo(authors, categories));
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Rebuilds both read models from the source tables and diffs them against the live ones.
+     *
+     * @param repair replace the live read models with the rebuilt ones when they differ
+     */
+    public ReadModelCheckDTO check(boolean repair) {
+        long start = System.nanoTime();
+        List<String> sample = new ArrayList<>();
+        AtomicInteger differences = new AtomicInteger();
+        Consumer<String> collector = difference -> {
+            if (differences.getAndIncrement() < MAX_REPORTED_DIFFERENCES) {
+                sample.add(difference);
+            }
+        };
+        boolean repaired;
+        Loaded source;
+        loading.lock();
+        try {
+            source = readSources();
+            lock.lock();
+            try {
+                // brought up to the live read models' commits, so only real drift shows as a difference
+                replayOnto(source);
+                authors.diff("author", source.authors(), collector);
+                categories.diff("category", source.categories(), collector);
+                repaired = repair && (differences.get() > 0 || !ready);
+                if (repaired) {
+                    authors = source.authors();
+                    categories = source.categories();
+                    ready = true;
+                }
+            } finally {
+                lock.unlock();
+            }
+        } finally {
+            loading.unlock();
+        }
+        if (differences.get() > 0) {
+            log.warn("Title read models differ from the source tables in {} places{}", differences.get(),
+                    repaired ? ", replaced with a rebuild" : "");
+        }
+        return ReadModelCheckDTO.builder()
+                .authorsChecked(source.authors().size())
+                .categoriesChecked(source.categories().size())
+                .differences(differences.get())
+                .sample(sample)
+                .repaired(repaired)
+                .millis((System.nanoTime() - start) / 1_000_000)
+                .build();
+    }
+
+    // reads the source tables outside the lock, recording the changes committed meanwhile for replay
+    private Loaded readSources() {
+        lock.lock();
+        try {
+            replay = new ArrayList<>();
+        } finally {
+            lock.unlock();
+        }
+        try {
+            return new Loaded(loadAuthors(), loadCategories());
+        } catch (RuntimeException e) {
+            lock.lock();
+            try {
+                replay = null;
+            } finally {
+                lock.unlock();
+            }
+            throw e;
+        }
+    }
+
+    // called under the lock; applies and stops recording the changes committed while loading
+    private void replayOnto(Loaded loaded) {
+        replay.forEach(placement -> placement.applyTo(loaded.authors(), loaded.categories()));
+        replay = null;
+    }
+
+    private TitleGroups loadAuthors() {
+        TitleGroups groups = new TitleGroups();
+        for (AuthorTitleRow row : authorRepository.findAllAuthorTitles()) {
+            if (row.getBookId() != null) {
+                groups.place(row.getBookId(), row.getAuthorId(), row.getAuthorName(), row.getTitle());
+            } else {
+                groups.addGroup(row.getAuthorId(), row.getAuthorName());
+            }
+        }
+        return groups;
+    }
+
+    private TitleGroups loadCategories() {
+        TitleGroups groups = new TitleGroups();
+        for (CategoryTitleRow row : categoryRepository.findAllCategoryTitles()) {
+            if (row.getBookId() != null) {
+                groups.place(row.getBookId(), row.getCategoryId(), row.getCategoryName(), row.getTitle());
+            } else {
+                groups.addGroup(row.getCategoryId(), row.getCategoryName());
+            }
+        }
+        return groups;
+    }
+
+    private Long authorId(String authorName) {
+        if (authorName == null) {
+            return null;
+        }
+        Long authorId = authors.idOf(authorName);
+        return authorId != null ? authorId : dimensionCache.getAuthorId(authorName, name ->
+                Optional.ofNullable(authorRepository.findByAuthorName(name)).map(AuthorEntity::getAuthorId));
+    }
+
+    private Long categoryId(String categoryName) {
+        if (categoryName == null) {
+            return null;
+        }
+        Long categoryId = categories.idOf(categoryName);
+        return categoryId != null ? categoryId : dimensionCache.getCategoryId(categoryName, name ->
+                Optional.ofNullable(categoryRepository.findByCategoryName(name)).map(CategoryEntity::getCategoryId));
+    }
+
+    /**
+     * The groups a committed change lists a book under; a null id takes the book off that read model.
+     */
+    private record Placement(Long bookId, String title, Long authorId, String authorName,
+                             Long categoryId, String categoryName) {
+
+        void applyTo(TitleGroups authors, TitleGroups categories) {
+            if (authorId != null) {
+                authors.place(bookId, authorId, authorName, title);
+            } else {
+                authors.remove(bookId);
+            }
+            if (categoryId != null) {
+                categories.place(bookId, categoryId, categoryName, title);
+            } else {
+                categories.remove(bookId);
+            }
+        }
+    }
+
+    private record Loaded(TitleGroups authors, TitleGroups categories) {
+    }
+
+    private static AuthorDTO toAuthorDto(TitleGroups.Group group) {
+        return AuthorDTO.builder()
+                .authorId(group.id())
+                .authorName(group.name())
+                .titles(group.titleList())
+                .build();
+    }
+
+}
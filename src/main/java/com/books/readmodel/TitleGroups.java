@@ -0,0 +1,109 @@
+package com.books.readmodel;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Consumer;
+
+/**
+ * Titles grouped by author or category id, both levels kept in id order so a listing is one in-order walk.
+ * Mutations are serialized by the owning read model; readers walk the maps concurrently.
+ */
+class TitleGroups {
+
+    record Group(Long id, String name, ConcurrentSkipListMap<Long, String> titles) {
+
+        List<String> titleList() {
+            return new ArrayList<>(titles.values());
+        }
+    }
+
+    private final ConcurrentSkipListMap<Long, Group> groups = new ConcurrentSkipListMap<>();
+
+    private final Map<String, Long> idsByName = new ConcurrentHashMap<>();
+
+    // the group every book is currently listed under, so a move doesn't depend on the event's previous state
+    private final Map<Long, Long> groupByBook = new ConcurrentHashMap<>();
+
+    Group addGroup(Long id, String name) {
+        Group group = groups.computeIfAbsent(id, key -> new Group(key, name, new ConcurrentSkipListMap<>()));
+        if (name != null) {
+            idsByName.putIfAbsent(name, id);
+        }
+        return group;
+    }
+
+    void place(Long bookId, Long groupId, String name, String title) {
+        Long previous = groupByBook.put(bookId, groupId);
+        if (previous != null && !previous.equals(groupId)) {
+            Group previousGroup = groups.get(previous);
+            if (previousGroup != null) {
+                previousGroup.titles().remove(bookId);
+            }
+        }
+        Group group = addGroup(groupId, name);
+        if (title != null) {
+            group.titles().put(bookId, title);
+        } else {
+            group.titles().remove(bookId);
+        }
+    }
+
+    void remove(Long bookId) {
+        Long previous = groupByBook.remove(bookId);
+        if (previous != null) {
+            Group group = groups.get(previous);
+            if (group != null) {
+                group.titles().remove(bookId);
+            }
+        }
+    }
+
+    Long idOf(String name) {
+        return idsByName.get(name);
+    }
+
+    Group get(Long id) {
+        return groups.get(id);
+    }
+
+    Collection<Group> groups() {
+        return groups.values();
+    }
+
+    int size() {
+        return groups.size();
+    }
+
+    int books() {
+        return groupByBook.size();
+    }
+
+    /**
+     * Reports every group of this read model that differs from the same group rebuilt from {@code source}.
+     */
+    void diff(String kind, TitleGroups source, Consumer<String> differences) {
+        for (Group expected : source.groups.values()) {
+            Group actual = groups.get(expected.id());
+            if (actual == null) {
+                differences.accept(kind + " " + expected.id() + " '" + expected.name() + "' is missing");
+            } else if (!Objects.equals(actual.name(), expected.name())) {
+                differences.accept(kind + " " + expected.id() + " is named '" + actual.name()
+                        + "' instead of '" + expected.name() + "'");
+            } else if (!actual.titles().equals(expected.titles())) {
+                differences.accept(kind + " " + expected.id() + " '" + expected.name() + "' lists "
+                        + actual.titles().size() + " titles that differ from the " + expected.titles().size() + " in the source");
+            }
+        }
+        for (Group actual : groups.values()) {
+            if (!source.groups.containsKey(actual.id())) {
+                differences.accept(kind + " " + actual.id() + " '" + actual.name() + "' does not exist in the source");
+            }
+        }
+    }
+
+}
@@ -1,12 +1,37 @@
 package com.books.repository;
 
 import com.books.entities.AuthorEntity;
+import com.books.repository.projection.AuthorTitleRow;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
-import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
 
 
 @Repository
 public interface AuthorRepository extends JpaRepository<AuthorEntity, Long> {
     AuthorEntity findByAuthorName(String authorName);
-}
\ No newline at end of file
+
+    List<AuthorEntity> findByAuthorNameIn(Collection<String> authorNames);
+
+    // insert-if-absent against the unique name index, committed at once whatever transaction the caller is in:
+    // a name another writer inserted first is left as it is
+    @Modifying
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @Query(value = "insert ignore into author (author_name) values (:authorName)", nativeQuery = true)
+    int insertIfAbsent(@Param("authorName") String authorName);
+
+    @Query("select a.authorId as authorId, a.authorName as authorName, b.bookId as bookId, b.title as title " +
+            "from AuthorEntity a left join a.books b order by a.authorId, b.bookId")
+    List<AuthorTitleRow> findAllAuthorTitles();
+
+    @Query("select a.authorId as authorId, a.authorName as authorName, b.bookId as bookId, b.title as title " +
+            "from AuthorEntity a left join a.books b where a.authorId = :authorId order by b.bookId")
+    List<AuthorTitleRow> findAuthorTitlesById(@Param("authorId") Long authorId);
+}
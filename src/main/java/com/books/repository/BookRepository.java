@@ -1,13 +1,64 @@
 package com.books.repository;
 
 import com.books.entities.BookEntity;
+import com.books.repository.projection.BookCountRow;
+import com.books.repository.projection.YearCountRow;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
-import java.util.Optional;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 @Repository
 public interface BookRepository extends JpaRepository<BookEntity, Long> {
 
+    @Override
+    @EntityGraph(attributePaths = {"authorEntity", "categoryEntity"})
+    List<BookEntity> findAll();
+
+    @Query("select b from BookEntity b join fetch b.categoryEntity c left join fetch b.authorEntity " +
+            "where c.categoryName = :categoryName order by b.bookId")
+    List<BookEntity> findByCategoryName(@Param("categoryName") String categoryName);
+
+    @Query("select b from BookEntity b left join fetch b.authorEntity left join fetch b.categoryEntity " +
+            "where b.isbn = :isbn")
+    BookEntity findByIsbn(@Param("isbn") Long isbn);
+
+    @Query("select b from BookEntity b left join fetch b.authorEntity left join fetch b.categoryEntity " +
+            "where b.bookId > :after order by b.bookId")
+    List<BookEntity> findPageAfter(@Param("after") Long after, Pageable pageable);
+
+    @Query("select b from BookEntity b left join fetch b.authorEntity left join fetch b.categoryEntity " +
+            "where b.bookId in :bookIds")
+    List<BookEntity> findAllByIdIn(@Param("bookIds") Collection<Long> bookIds);
+
+    @Query("select a.authorName as name, count(b) as books from BookEntity b join b.authorEntity a group by a.authorName")
+    List<BookCountRow> countBooksByAuthor();
+
+    @Query("select c.categoryName as name, count(b) as books from BookEntity b join b.categoryEntity c group by c.categoryName")
+    List<BookCountRow> countBooksByCategory();
+
+    @Query("select b.publishedYear as year, count(b) as books from BookEntity b where b.publishedYear is not null " +
+            "group by b.publishedYear")
+    List<YearCountRow> countBooksByYear();
+
+    // MySQL Connector/J only streams row by row when the fetch size is Integer.MIN_VALUE
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    @Query("select b from BookEntity b left join fetch b.authorEntity left join fetch b.categoryEntity order by b.bookId")
+    Stream<BookEntity> streamAllOrderedById();
+
 }
 
@@ -1,13 +1,34 @@
 package com.books.repository;
 
 
-import com.books.entities.AuthorEntity;
 import com.books.entities.CategoryEntity;
+import com.books.repository.projection.CategoryTitleRow;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
 
 
 @Repository
 public interface CategoryRepository extends JpaRepository<CategoryEntity,Long> {
    CategoryEntity findByCategoryName(String categoryName);
-}
\ No newline at end of file
+
+   List<CategoryEntity> findByCategoryNameIn(Collection<String> categoryNames);
+
+   // insert-if-absent against the unique name index, committed at once whatever transaction the caller is in:
+   // a name another writer inserted first is left as it is
+   @Modifying
+   @Transactional(propagation = Propagation.REQUIRES_NEW)
+   @Query(value = "insert ignore into category (category_name) values (:categoryName)", nativeQuery = true)
+   int insertIfAbsent(@Param("categoryName") String categoryName);
+
+   @Query("select c.categoryId as categoryId, c.categoryName as categoryName, b.bookId as bookId, b.title as title " +
+           "from CategoryEntity c left join c.books b order by c.categoryId, b.bookId")
+   List<CategoryTitleRow> findAllCategoryTitles();
+}
@@ -0,0 +1,50 @@
+package com.books.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Multi-row insert-if-absent of author and category names against their unique name indexes, one statement
+ * per call, committed at once whatever transaction the caller is in. Names another writer inserted first are
+ * left as they are. Names are inserted in sorted order, so concurrent writers with overlapping names take
+ * their index locks in the same order.
+ */
+@Repository
+public class DimensionRowRepository {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * @return how many of the names were inserted
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public int insertAuthorsIfAbsent(Collection<String> authorNames) {
+        return insertIfAbsent("author", "author_name", authorNames);
+    }
+
+    /**
+     * @return how many of the names were inserted
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public int insertCategoriesIfAbsent(Collection<String> categoryNames) {
+        return insertIfAbsent("category", "category_name", categoryNames);
+    }
+
+    private int insertIfAbsent(String table, String column, Collection<String> names) {
+        if (names.isEmpty()) {
+            return 0;
+        }
+        List<String> sorted = names.stream().sorted().toList();
+        String sql = "insert ignore into " + table + " (" + column + ") values "
+                + String.join(", ", Collections.nCopies(sorted.size(), "(?)"));
+        return jdbcTemplate.update(sql, sorted.toArray());
+    }
+}
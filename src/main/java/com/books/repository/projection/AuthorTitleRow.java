@@ -0,0 +1,11 @@
+package com.books.repository.projection;
+
+public interface AuthorTitleRow {
+    Long getAuthorId();
+
+    String getAuthorName();
+
+    Long getBookId();
+
+    String getTitle();
+}
@@ -0,0 +1,7 @@
+package com.books.repository.projection;
+
+public interface BookCountRow {
+    String getName();
+
+    Long getBooks();
+}
@@ -0,0 +1,11 @@
+package com.books.repository.projection;
+
+public interface CategoryTitleRow {
+    Long getCategoryId();
+
+    String getCategoryName();
+
+    Long getBookId();
+
+    String getTitle();
+}
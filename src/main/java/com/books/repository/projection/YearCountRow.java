@@ -0,0 +1,7 @@
+package com.books.repository.projection;
+
+public interface YearCountRow {
+    Integer getYear();
+
+    Long getBooks();
+}
@@ -0,0 +1,293 @@
+package com.books.search;
+
+import com.books.dto.BookDTO;
+import com.books.service.BookChange;
+import com.books.service.BookChangeListener;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory bitmap index of books by category, author and publication year. Each book keeps one dense
+ * int document id for as long as the application runs; every category, author and year has a
+ * {@link DocSet} of its documents, which a write moves the book between. A filter intersects the sets
+ * of the values asked for, and the facet counts are tallied over the documents that match.
+ * Category and author names match ignoring case, as the unique indexes on them do.
+ */
+@Component
+public class BookFacetIndex implements BookChangeListener {
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<Long, Integer> docsByBookId = new HashMap<>();
+
+    private long[] bookIds = new long[1024];
+
+    private final BitSet live = new BitSet();
+
+    private final Facet<String> categories = new Facet<>(new TreeMap<>(String.CASE_INSENSITIVE_ORDER));
+
+    private final Facet<String> authors = new Facet<>(new TreeMap<>(String.CASE_INSENSITIVE_ORDER));
+
+    private final Facet<Integer> years = new Facet<>(new TreeMap<>());
+
+    @Value("${books.filter.author-facet-limit:20}")
+    private int authorFacetLimit = 20;
+
+    /**
+     * Indexes the book only if it isn't indexed yet, so a bulk build racing with live updates never
+     * overwrites a newer version of a book with the row it read earlier.
+     */
+    public void indexIfAbsent(List<BookDTO> books) {
+        lock.writeLock().lock();
+        try {
+            for (BookDTO book : books) {
+                if (!docsByBookId.containsKey(book.getBookId())) {
+                    index(book.getBookId(), book);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void onBooksChanged(List<BookChange> changes) {
+        lock.writeLock().lock();
+        try {
+            for (BookChange change : changes) {
+                index(change.getBookId(), change.getCurrent());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Finds the books in {@code category} by {@code author} published from {@code yearFrom} to
+     * {@code yearTo}, each bound inclusive; a null criterion matches every book. Books with an id no
+     * greater than {@code after} are left out of the page but not of the total and the counts.
+     */
+    public FacetResult filter(String category, String author, Integer yearFrom, Integer yearTo,
+                              Long after, int limit) {
+        lock.readLock().lock();
+        try {
+            BitSet matches = null;
+            if (category != null) {
+                matches = intersect(matches, categories.docs(category));
+            }
+            if (author != null) {
+                matches = intersect(matches, authors.docs(author));
+            }
+            if (yearFrom != null || yearTo != null) {
+                BitSet inRange = new BitSet();
+                if (yearFrom == null || yearTo == null || yearFrom <= yearTo) {
+                    years.orRange(yearFrom, yearTo, inRange);
+                }
+                if (matches == null) {
+                    matches = inRange;
+                } else {
+                    matches.and(inRange);
+                }
+            }
+            boolean filtered = matches != null;
+            if (!filtered) {
+                matches = live;
+            }
+            List<Long> page = page(matches, after, limit);
+            long total = matches.cardinality();
+            return new FacetResult(
+                    total,
+                    page.size() > limit ? page.subList(0, limit) : page,
+                    page.size() > limit,
+                    categories.counts(filtered ? matches : null, true, Integer.MAX_VALUE),
+                    authors.counts(filtered ? matches : null, true, authorFacetLimit),
+                    years.counts(filtered ? matches : null, false, Integer.MAX_VALUE));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return live.cardinality();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static BitSet intersect(BitSet matches, DocSet docs) {
+        if (docs == null) {
+            return new BitSet();
+        }
+        if (matches == null) {
+            return docs.toBitSet();
+        }
+        docs.andInto(matches);
+        return matches;
+    }
+
+    // the limit + 1 smallest book ids after the cursor, ascending, so the caller can tell if there are more
+    private List<Long> page(BitSet matches, Long after, int limit) {
+        long cursor = (after != null) ? after : Long.MIN_VALUE;
+        PriorityQueue<Long> smallest = new PriorityQueue<>(Comparator.reverseOrder());
+        for (int doc = matches.nextSetBit(0); doc >= 0; doc = matches.nextSetBit(doc + 1)) {
+            long bookId = bookIds[doc];
+            if (bookId > cursor) {
+                smallest.offer(bookId);
+                if (smallest.size() > limit + 1) {
+                    smallest.poll();
+                }
+            }
+        }
+        Long[] page = new Long[smallest.size()];
+        for (int i = page.length - 1; i >= 0; i--) {
+            page[i] = smallest.poll();
+        }
+        return Arrays.asList(page);
+    }
+
+    private void index(Long bookId, BookDTO book) {
+        if (bookId == null) {
+            return;
+        }
+        Integer existing = docsByBookId.get(bookId);
+        if (book == null) {
+            if (existing != null) {
+                live.clear(existing);
+                categories.set(existing, null);
+                authors.set(existing, null);
+                years.set(existing, null);
+            }
+            return;
+        }
+        int doc;
+        if (existing != null) {
+            doc = existing;
+        } else {
+            doc = docsByBookId.size();
+            if (doc == bookIds.length) {
+                bookIds = Arrays.copyOf(bookIds, doc + (doc >> 1));
+            }
+            bookIds[doc] = bookId;
+            docsByBookId.put(bookId, doc);
+        }
+        live.set(doc);
+        categories.set(doc, book.getCategoryName());
+        authors.set(doc, book.getAuthorName());
+        years.set(doc, BookDTO.parseYear(book.getPublicationYear()));
+    }
+
+    /**
+     * The documents of each value of one field, and the value of each document.
+     */
+    private static final class Facet<K> {
+
+        private static final int NONE = -1;
+
+        private final NavigableMap<K, Integer> ids;
+
+        private final List<K> values = new ArrayList<>();
+
+        private final List<DocSet> docs = new ArrayList<>();
+
+        private int[] valueOf = new int[0];
+
+        private Facet(NavigableMap<K, Integer> ids) {
+            this.ids = ids;
+        }
+
+        void set(int doc, K value) {
+            if (doc >= valueOf.length) {
+                int length = valueOf.length;
+                valueOf = Arrays.copyOf(valueOf, Math.max(doc + 1, length + (length >> 1) + 1024));
+                Arrays.fill(valueOf, length, valueOf.length, NONE);
+            }
+            int previous = valueOf[doc];
+            int current = (value != null) ? ids.computeIfAbsent(value, this::addValue) : NONE;
+            if (previous == current) {
+                return;
+            }
+            if (previous != NONE) {
+                docs.get(previous).remove(doc);
+            }
+            if (current != NONE) {
+                docs.get(current).add(doc);
+            }
+            valueOf[doc] = current;
+        }
+
+        private int addValue(K value) {
+            values.add(value);
+            docs.add(new DocSet());
+            return values.size() - 1;
+        }
+
+        DocSet docs(K value) {
+            Integer id = ids.get(value);
+            return (id != null) ? docs.get(id) : null;
+        }
+
+        void orRange(K from, K to, BitSet target) {
+            NavigableMap<K, Integer> range = ids;
+            if (from != null) {
+                range = range.tailMap(from, true);
+            }
+            if (to != null) {
+                range = range.headMap(to, true);
+            }
+            for (Integer id : range.values()) {
+                docs.get(id).orInto(target);
+            }
+        }
+
+        /**
+         * Counts the documents of each value among {@code matches}, or among all documents when null,
+         * leaving out values with none. Values come in their natural order, or by descending count when
+         * {@code byCount}, and at most {@code limit} of them.
+         */
+        Map<K, Long> counts(BitSet matches, boolean byCount, int limit) {
+            long[] counts = new long[values.size()];
+            if (matches == null) {
+                for (int id = 0; id < counts.length; id++) {
+                    counts[id] = docs.get(id).size();
+                }
+            } else {
+                for (int doc = matches.nextSetBit(0); doc >= 0; doc = matches.nextSetBit(doc + 1)) {
+                    if (valueOf[doc] != NONE) {
+                        counts[valueOf[doc]]++;
+                    }
+                }
+            }
+            List<Integer> counted = new ArrayList<>();
+            for (Integer id : ids.values()) {
+                if (counts[id] > 0) {
+                    counted.add(id);
+                }
+            }
+            if (byCount) {
+                // stable, so equal counts keep the natural order
+                counted.sort(Comparator.comparingLong((Integer id) -> counts[id]).reversed());
+            }
+            Map<K, Long> result = new LinkedHashMap<>();
+            for (Integer id : counted.subList(0, Math.min(counted.size(), Math.max(limit, 0)))) {
+                result.put(values.get(id), counts[id]);
+            }
+            return result;
+        }
+    }
+}
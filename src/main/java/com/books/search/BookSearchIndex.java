@@ -0,0 +1,356 @@
+package com.books.search;
+
+import com.books.dto.BookDTO;
+import com.books.service.BookChange;
+import com.books.service.BookChangeListener;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory inverted index over book titles and author names. Each book is a dense int document id;
+ * postings are sorted int arrays. Re-indexing a book gives it a new document id and tombstones the old
+ * one, and tombstones are compacted away once they make up a quarter of the index.
+ */
+@Component
+public class BookSearchIndex implements BookChangeListener {
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private static final float TITLE_WEIGHT = 2f;
+
+    private static final float AUTHOR_WEIGHT = 1f;
+
+    private static final float EXACT_BOOST = 1.5f;
+
+    private static final int MIN_PREFIX_LENGTH = 2;
+
+    private static final int MIN_COMPACTION_DOCS = 1024;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final NavigableMap<String, Postings> titleTerms = new TreeMap<>();
+
+    private final NavigableMap<String, Postings> authorTerms = new TreeMap<>();
+
+    private final LongIntMap docsByBookId = new LongIntMap();
+
+    private long[] bookIds = new long[1024];
+
+    private final BitSet deleted = new BitSet();
+
+    private int docCount;
+
+    /**
+     * Indexes the book only if it isn't indexed yet, so a bulk build racing with live updates never
+     * overwrites a newer version of a book with the row it read earlier.
+     */
+    public void indexIfAbsent(List<BookDTO> books) {
+        lock.writeLock().lock();
+        try {
+            for (BookDTO book : books) {
+                if (!docsByBookId.containsKey(book.getBookId())) {
+                    addDocument(book);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void onBooksChanged(List<BookChange> changes) {
+        lock.writeLock().lock();
+        try {
+            for (BookChange change : changes) {
+                if (change.getCurrent() != null) {
+                    addDocument(change.getCurrent());
+                }
+            }
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the ids of the best {@code limit} books containing every query token in their title or
+     * author name. Tokens of two or more characters also match as prefixes; exact and title matches rank higher.
+     */
+    public List<Long> search(String query, int limit) {
+        List<String> tokens = tokenize(query);
+        if (tokens.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            Matches matches = null;
+            for (String token : tokens) {
+                Matches tokenMatches = match(token);
+                if (matches == null) {
+                    matches = tokenMatches;
+                } else {
+                    matches.retainAndAdd(tokenMatches);
+                }
+                if (matches.size == 0) {
+                    return List.of();
+                }
+            }
+            return topK(matches, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return docsByBookId.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        String normalized = DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        List<String> tokens = new ArrayList<>();
+        for (String token : SEPARATORS.split(normalized.toLowerCase(Locale.ROOT))) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * The live documents matching the token through any title or author term, ascending, each with its best
+     * score. Every posting is packed into a long, document in the high half and score bits in the low half,
+     * so one sort orders them by document and, within a document, by score (scores are positive, and the
+     * bits of positive floats order as the floats do).
+     */
+    private Matches match(String token) {
+        Map<String, Postings> titleMatches = matchingTerms(titleTerms, token);
+        Map<String, Postings> authorMatches = matchingTerms(authorTerms, token);
+        long[] pairs = new long[postingCount(titleMatches) + postingCount(authorMatches)];
+        int size = pack(titleMatches, token, TITLE_WEIGHT, pairs, 0);
+        size = pack(authorMatches, token, AUTHOR_WEIGHT, pairs, size);
+        Arrays.sort(pairs, 0, size);
+        Matches matches = new Matches(size);
+        for (int i = 0; i < size; i++) {
+            int doc = (int) (pairs[i] >>> 32);
+            // a document's last pair holds its best score
+            if (i + 1 == size || (int) (pairs[i + 1] >>> 32) != doc) {
+                matches.docs[matches.size] = doc;
+                matches.scores[matches.size++] = Float.intBitsToFloat((int) pairs[i]);
+            }
+        }
+        return matches;
+    }
+
+    private static Map<String, Postings> matchingTerms(NavigableMap<String, Postings> terms, String token) {
+        return (token.length() >= MIN_PREFIX_LENGTH)
+                ? terms.subMap(token, true, token + Character.MAX_VALUE, false)
+                : terms.subMap(token, true, token, true);
+    }
+
+    private static int postingCount(Map<String, Postings> terms) {
+        int count = 0;
+        for (Postings postings : terms.values()) {
+            count += postings.size();
+        }
+        return count;
+    }
+
+    private int pack(Map<String, Postings> terms, String token, float weight, long[] pairs, int size) {
+        for (Map.Entry<String, Postings> term : terms.entrySet()) {
+            float score = term.getKey().length() == token.length() ? weight * EXACT_BOOST : weight;
+            long scoreBits = Float.floatToIntBits(score);
+            Postings postings = term.getValue();
+            for (int i = 0; i < postings.size(); i++) {
+                int doc = postings.get(i);
+                if (!deleted.get(doc)) {
+                    pairs[size++] = ((long) doc << 32) | scoreBits;
+                }
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Ranks the matches with a bounded binary heap of their indexes, worst at the root. Higher scores rank
+     * first and ties go to the lower book id.
+     */
+    private List<Long> topK(Matches matches, int limit) {
+        int[] heap = new int[Math.min(limit, matches.size)];
+        int size = 0;
+        for (int i = 0; i < matches.size; i++) {
+            if (size < heap.length) {
+                heap[size] = i;
+                siftUp(heap, size++, matches);
+            } else if (worse(matches, heap[0], i)) {
+                heap[0] = i;
+                siftDown(heap, size, matches);
+            }
+        }
+        Long[] ranked = new Long[size];
+        for (int i = size - 1; i >= 0; i--) {
+            ranked[i] = bookIds[matches.docs[heap[0]]];
+            heap[0] = heap[i];
+            siftDown(heap, i, matches);
+        }
+        return Arrays.asList(ranked);
+    }
+
+    private boolean worse(Matches matches, int a, int b) {
+        float scoreA = matches.scores[a];
+        float scoreB = matches.scores[b];
+        return scoreA != scoreB ? scoreA < scoreB : bookIds[matches.docs[a]] > bookIds[matches.docs[b]];
+    }
+
+    private void siftUp(int[] heap, int index, Matches matches) {
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (!worse(matches, heap[index], heap[parent])) {
+                return;
+            }
+            swap(heap, index, parent);
+            index = parent;
+        }
+    }
+
+    private void siftDown(int[] heap, int size, Matches matches) {
+        int index = 0;
+        while (true) {
+            int child = 2 * index + 1;
+            if (child >= size) {
+                return;
+            }
+            if (child + 1 < size && worse(matches, heap[child + 1], heap[child])) {
+                child++;
+            }
+            if (!worse(matches, heap[child], heap[index])) {
+                return;
+            }
+            swap(heap, index, child);
+            index = child;
+        }
+    }
+
+    private static void swap(int[] heap, int i, int j) {
+        int swapped = heap[i];
+        heap[i] = heap[j];
+        heap[j] = swapped;
+    }
+
+    private void addDocument(BookDTO book) {
+        int previous = docsByBookId.get(book.getBookId());
+        if (previous != LongIntMap.ABSENT) {
+            deleted.set(previous);
+        }
+        int doc = docCount++;
+        if (doc == bookIds.length) {
+            bookIds = Arrays.copyOf(bookIds, doc + (doc >> 1));
+        }
+        bookIds[doc] = book.getBookId();
+        docsByBookId.put(book.getBookId(), doc);
+        for (String token : tokenize(book.getTitle())) {
+            titleTerms.computeIfAbsent(token, term -> new Postings()).add(doc);
+        }
+        for (String token : tokenize(book.getAuthorName())) {
+            authorTerms.computeIfAbsent(token, term -> new Postings()).add(doc);
+        }
+    }
+
+    private void compactIfNeeded() {
+        int deletedDocs = deleted.cardinality();
+        if (docCount < MIN_COMPACTION_DOCS || deletedDocs * 4 < docCount) {
+            return;
+        }
+        int[] remap = new int[docCount];
+        long[] compactedBookIds = new long[Math.max(docCount - deletedDocs, 1024)];
+        int live = 0;
+        for (int doc = 0; doc < docCount; doc++) {
+            if (deleted.get(doc)) {
+                remap[doc] = -1;
+            } else {
+                remap[doc] = live;
+                compactedBookIds[live] = bookIds[doc];
+                docsByBookId.put(bookIds[doc], live);
+                live++;
+            }
+        }
+        compact(titleTerms, remap);
+        compact(authorTerms, remap);
+        bookIds = compactedBookIds;
+        docCount = live;
+        deleted.clear();
+    }
+
+    private static void compact(NavigableMap<String, Postings> terms, int[] remap) {
+        terms.replaceAll((term, postings) -> {
+            Postings compacted = new Postings();
+            for (int i = 0; i < postings.size(); i++) {
+                int doc = remap[postings.get(i)];
+                if (doc >= 0) {
+                    compacted.add(doc);
+                }
+            }
+            compacted.trimToSize();
+            return compacted;
+        });
+        terms.values().removeIf(postings -> postings.size() == 0);
+    }
+
+    /**
+     * Documents in ascending order with their scores so far.
+     */
+    private static final class Matches {
+
+        private final int[] docs;
+
+        private final float[] scores;
+
+        private int size;
+
+        private Matches(int capacity) {
+            docs = new int[capacity];
+            scores = new float[capacity];
+        }
+
+        /**
+         * Keeps only the documents also in {@code other}, adding its score to theirs; a merge of two
+         * ascending lists.
+         */
+        private void retainAndAdd(Matches other) {
+            int kept = 0;
+            int j = 0;
+            for (int i = 0; i < size && j < other.size; i++) {
+                int doc = docs[i];
+                while (j < other.size && other.docs[j] < doc) {
+                    j++;
+                }
+                if (j < other.size && other.docs[j] == doc) {
+                    docs[kept] = doc;
+                    scores[kept++] = scores[i] + other.scores[j];
+                }
+            }
+            size = kept;
+        }
+    }
+}
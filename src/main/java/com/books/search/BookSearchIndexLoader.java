@@ -0,0 +1,62 @@
+package com.books.search;
+
+import com.books.dto.BookDTO;
+import com.books.entities.BookEntity;
+import com.books.repository.BookRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Fills the search and facet indexes once the application is ready, walking the catalog in keyset pages so
+ * memory stays bounded. Live writes are indexed concurrently through {@link BookSearchIndex#onBooksChanged}
+ * and {@link BookFacetIndex#onBooksChanged}.
+ */
+@Component
+public class BookSearchIndexLoader {
+
+    private static final Logger log = LoggerFactory.getLogger(BookSearchIndexLoader.class);
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private BookSearchIndex bookSearchIndex;
+
+    @Autowired
+    private BookFacetIndex bookFacetIndex;
+
+    @Value("${books.search.build-page-size:5000}")
+    private int pageSize;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildIndex() {
+        long start = System.nanoTime();
+        long cursor = Long.MIN_VALUE;
+        while (true) {
+            List<BookEntity> page = bookRepository.findPageAfter(cursor, PageRequest.of(0, pageSize));
+            if (page == null || page.isEmpty()) {
+                break;
+            }
+            List<BookDTO> books = page.stream()
+                    .map(BookDTO::toBookDto)
+                    .collect(Collectors.toList());
+            bookSearchIndex.indexIfAbsent(books);
+            bookFacetIndex.indexIfAbsent(books);
+            cursor = page.get(page.size() - 1).getBookId();
+            if (page.size() < pageSize) {
+                break;
+            }
+        }
+        log.info("Search and facet indexes built with {} and {} books in {} ms", bookSearchIndex.size(),
+                bookFacetIndex.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+}
@@ -0,0 +1,108 @@
+package com.books.search;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Set of document ids, held as a sorted int array while sparse and as a bitmap once the array would
+ * take more memory than the bitmap does, the way compressed bitmaps pick a container. A set that has
+ * turned into a bitmap stays one.
+ */
+final class DocSet {
+
+    // below this size an array is always kept, however small the ids
+    private static final int MIN_BITMAP_SIZE = 64;
+
+    private int[] docs = new int[4];
+
+    private BitSet bits;
+
+    private int size;
+
+    void add(int doc) {
+        if (bits != null) {
+            if (!bits.get(doc)) {
+                bits.set(doc);
+                size++;
+            }
+            return;
+        }
+        int index = Arrays.binarySearch(docs, 0, size, doc);
+        if (index >= 0) {
+            return;
+        }
+        if (size == docs.length) {
+            // an int per id against a bit per id up to the largest one
+            if (size >= MIN_BITMAP_SIZE && (long) size * Integer.SIZE >= Math.max(doc, docs[size - 1])) {
+                bits = new BitSet();
+                for (int i = 0; i < size; i++) {
+                    bits.set(docs[i]);
+                }
+                docs = null;
+                bits.set(doc);
+                size++;
+                return;
+            }
+            docs = Arrays.copyOf(docs, size + (size >> 1) + 1);
+        }
+        int insertAt = -index - 1;
+        System.arraycopy(docs, insertAt, docs, insertAt + 1, size - insertAt);
+        docs[insertAt] = doc;
+        size++;
+    }
+
+    void remove(int doc) {
+        if (bits != null) {
+            if (bits.get(doc)) {
+                bits.clear(doc);
+                size--;
+            }
+            return;
+        }
+        int index = Arrays.binarySearch(docs, 0, size, doc);
+        if (index >= 0) {
+            System.arraycopy(docs, index + 1, docs, index, size - index - 1);
+            size--;
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Adds every id of this set to {@code target}.
+     */
+    void orInto(BitSet target) {
+        if (bits != null) {
+            target.or(bits);
+        } else {
+            for (int i = 0; i < size; i++) {
+                target.set(docs[i]);
+            }
+        }
+    }
+
+    /**
+     * Removes from {@code target} every id not in this set.
+     */
+    void andInto(BitSet target) {
+        if (bits != null) {
+            target.and(bits);
+            return;
+        }
+        BitSet kept = new BitSet();
+        for (int i = 0; i < size; i++) {
+            if (target.get(docs[i])) {
+                kept.set(docs[i]);
+            }
+        }
+        target.and(kept);
+    }
+
+    BitSet toBitSet() {
+        BitSet copy = new BitSet();
+        orInto(copy);
+        return copy;
+    }
+}
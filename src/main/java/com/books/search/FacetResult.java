@@ -0,0 +1,16 @@
+package com.books.search;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Books matching a filter: how many, one page of their ids in ascending order, and how the matches
+ * spread over categories, authors and publication years.
+ */
+public record FacetResult(long total,
+                          List<Long> bookIds,
+                          boolean more,
+                          Map<String, Long> categories,
+                          Map<String, Long> authors,
+                          Map<Integer, Long> years) {
+}
@@ -0,0 +1,76 @@
+package com.books.search;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing map from long keys to non-negative int values, with neither side boxed. Entries are
+ * only ever added or overwritten, never removed, which keeps linear probing free of tombstones.
+ */
+final class LongIntMap {
+
+    static final int ABSENT = -1;
+
+    private long[] keys = new long[16];
+
+    // ABSENT marks a free slot, so every long is usable as a key
+    private int[] values = emptyValues(16);
+
+    private int size;
+
+    /**
+     * @return the value of the key, or {@link #ABSENT}
+     */
+    int get(long key) {
+        return values[slot(key)];
+    }
+
+    boolean containsKey(long key) {
+        return get(key) != ABSENT;
+    }
+
+    void put(long key, int value) {
+        int slot = slot(key);
+        if (values[slot] == ABSENT) {
+            keys[slot] = key;
+            size++;
+        }
+        values[slot] = value;
+        if (size * 2 > keys.length) {
+            grow();
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    private int slot(long key) {
+        int mask = keys.length - 1;
+        long hash = key * 0x9E3779B97F4A7C15L;
+        int slot = (int) (hash ^ (hash >>> 32)) & mask;
+        while (values[slot] != ABSENT && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void grow() {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        keys = new long[oldKeys.length * 2];
+        values = emptyValues(oldKeys.length * 2);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldValues[i] != ABSENT) {
+                int slot = slot(oldKeys[i]);
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    private static int[] emptyValues(int capacity) {
+        int[] empty = new int[capacity];
+        Arrays.fill(empty, ABSENT);
+        return empty;
+    }
+}
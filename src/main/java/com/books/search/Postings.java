@@ -0,0 +1,38 @@
+package com.books.search;
+
+import java.util.Arrays;
+
+/**
+ * Growable, ascending array of document ids. Ids are handed out in increasing order, so appending
+ * keeps the array sorted.
+ */
+final class Postings {
+
+    private int[] docs = new int[4];
+
+    private int size;
+
+    void add(int doc) {
+        if (size > 0 && docs[size - 1] == doc) {
+            return;
+        }
+        if (size == docs.length) {
+            docs = Arrays.copyOf(docs, size + (size >> 1) + 1);
+        }
+        docs[size++] = doc;
+    }
+
+    int size() {
+        return size;
+    }
+
+    int get(int index) {
+        return docs[index];
+    }
+
+    void trimToSize() {
+        if (docs.length != size) {
+            docs = Arrays.copyOf(docs, Math.max(size, 1));
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.books.service;
+
+import com.books.dto.BookDTO;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class BookChange {
+    private Long bookId;
+    // null when the book was inserted
+    private BookDTO previous;
+    private BookDTO current;
+}
@@ -0,0 +1,19 @@
+package com.books.service;
+
+import org.springframework.core.Ordered;
+
+import java.util.List;
+
+/**
+ * Notified with every batch of books written through {@link BookService}, once the write has committed.
+ * Listeners are called in {@link #getOrder() order}; one that reloads from what other listeners maintain
+ * runs after them, so a reload after its invalidation can't read their state from before the write.
+ */
+public interface BookChangeListener extends Ordered {
+    void onBooksChanged(List<BookChange> changes);
+
+    @Override
+    default int getOrder() {
+        return 0;
+    }
+}
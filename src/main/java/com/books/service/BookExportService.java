@@ -0,0 +1,20 @@
+package com.books.service;
+
+import com.books.dto.ExportSnapshotDTO;
+import com.books.export.BookExport;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Path;
+
+public interface BookExportService {
+
+    long exportBooks(BookExport export, OutputStream outputStream) throws IOException;
+
+    ExportSnapshotDTO writeSnapshot(BookExport export);
+
+    ExportSnapshotDTO getSnapshot(BookExport export);
+
+    Path snapshotFile(ExportSnapshotDTO snapshot);
+
+}
@@ -0,0 +1,15 @@
+package com.books.service;
+
+import com.books.dto.ImportReportDTO;
+import com.books.ingest.BookImportFormat;
+
+import java.io.BufferedReader;
+import java.util.List;
+
+public interface BookImportService {
+
+    ImportReportDTO importBooks(BookImportFormat format, BufferedReader input);
+
+    List<ImportReportDTO> getRunningImports();
+
+}
@@ -0,0 +1,17 @@
+package com.books.service;
+
+import com.books.dto.BookDTO;
+import com.books.dto.BookJobDTO;
+
+import java.util.List;
+
+public interface BookJobService {
+
+    /**
+     * @throws java.util.concurrent.RejectedExecutionException if the job queue is full
+     */
+    BookJobDTO submit(List<BookDTO> bookDTOs);
+
+    BookJobDTO getJob(String jobId);
+
+}
@@ -1,24 +1,74 @@
 package com.books.service;
 
 import com.books.dto.AuthorDTO;
+import com.books.dto.BookBatchDTO;
 import com.books.dto.BookDTO;
+import com.books.dto.BookFilterDTO;
+import com.books.dto.BulkSaveReportDTO;
+import com.books.dto.CatalogStatsDTO;
 import com.books.dto.CategoryDTO;
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface BookService {
     List<BookDTO> getAllBooks();
 
+    List<BookDTO> getBooksAfter(Long after, int limit);
+
+    void streamAllBooks(Consumer<BookDTO> consumer);
+
     BookDTO getBookById(Long bookId);
 
+    /**
+     * @return the book as UTF-8 JSON, or {@code null} if there is no such book
+     */
+    byte[] getBookJsonById(Long bookId);
+
+    BookDTO getBookByIsbn(Long isbn);
+
+    /**
+     * Looks up every id at once; duplicates and nulls are dropped.
+     *
+     * @return the books found and the ids that weren't, both in request order
+     */
+    BookBatchDTO getBooksByIds(List<Long> bookIds);
+
     List<AuthorDTO> getAllAuthors();
 
     AuthorDTO getAuthorById(Long authorId);
 
     List<CategoryDTO> getAllCategoriesWithBooks();
 
+    /**
+     * @return the category listing as a UTF-8 JSON array, or {@code null} if there are no categories
+     */
+    byte[] getAllCategoriesWithBooksJson();
+
     List<BookDTO> getBooksByCategory(String categoryName);
 
+    /**
+     * @return the books of the category as a UTF-8 JSON array, or {@code null} if it has none
+     */
+    byte[] getBooksByCategoryJson(String categoryName);
+
+    List<BookDTO> searchBooks(String query, int limit);
+
+    /**
+     * Filters on any of category, author and inclusive publication year range, null meaning any.
+     *
+     * @return up to {@code limit} matching books with an id greater than {@code after}, in id order, with the
+     * total and facet counts of all matching books
+     */
+    BookFilterDTO filterBooks(String category, String author, Integer yearFrom, Integer yearTo, Long after, int limit);
+
+    /**
+     * @return book counts per category and year, and of the {@code topAuthors} authors with the most books
+     */
+    CatalogStatsDTO getCatalogStats(int topAuthors);
+
     List<BookDTO> saveAndUpdateBooks(List<BookDTO> bookDTOs);
 
+    BulkSaveReportDTO bulkSaveBooks(List<BookDTO> bookDTOs);
+
 }
 
@@ -0,0 +1,26 @@
+package com.books.service;
+
+import com.books.dto.AuthorDTO;
+import com.books.dto.BookDTO;
+import com.books.dto.CategoryDTO;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+public interface ReactiveBookService {
+    Flux<BookDTO> getAllBooks();
+
+    Mono<BookDTO> getBookById(Long bookId);
+
+    Flux<AuthorDTO> getAllAuthors();
+
+    Mono<AuthorDTO> getAuthorById(Long authorId);
+
+    Flux<CategoryDTO> getAllCategoriesWithBooks();
+
+    Flux<BookDTO> getBooksByCategory(String categoryName);
+
+    Flux<BookDTO> saveAndUpdateBooks(List<BookDTO> bookDTOs);
+
+}
@@ -1,24 +1,63 @@
 package com.books.service.impl;
 
+import com.books.cache.BookResponseCache;
+import com.books.cache.DimensionCache;
+import com.books.cache.JsonResponseCache;
 import com.books.dto.AuthorDTO;
+import com.books.dto.BookBatchDTO;
 import com.books.dto.BookDTO;
+import com.books.dto.BookFilterDTO;
+import com.books.dto.BulkSaveReportDTO;
+import com.books.dto.ChunkTimingDTO;
+import com.books.dto.CatalogStatsDTO;
 import com.books.dto.CategoryDTO;
 import com.books.entities.AuthorEntity;
 import com.books.entities.BookEntity;
 import com.books.entities.CategoryEntity;
+import com.books.mapping.ParallelDtoMapper;
+import com.books.readmodel.CatalogStats;
+import com.books.readmodel.CatalogTitlesReadModel;
 import com.books.repository.AuthorRepository;
 import com.books.repository.BookRepository;
 import com.books.repository.CategoryRepository;
+import com.books.repository.DimensionRowRepository;
+import com.books.repository.projection.AuthorTitleRow;
+import com.books.repository.projection.CategoryTitleRow;
+import com.books.search.BookFacetIndex;
+import com.books.search.BookSearchIndex;
+import com.books.search.FacetResult;
+import com.books.snapshot.CatalogSnapshot;
+import com.books.snapshot.CatalogSnapshotService;
+import com.books.service.BookChange;
 import com.books.service.BookService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
-
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class BookApplicationService implements BookService {
@@ -32,52 +71,177 @@ public class BookApplicationService implements BookService {
     @Autowired
     private CategoryRepository categoryRepository;
 
+    @Autowired
+    private DimensionRowRepository dimensionRowRepository;
+
+    @Autowired
+    private DimensionCache dimensionCache;
+
+    @Autowired
+    private BookResponseCache bookResponseCache;
+
+    @Autowired
+    private BookChangePublisher bookChangePublisher;
+
+    @Autowired
+    private BookSearchIndex bookSearchIndex;
+
+    @Autowired
+    private BookFacetIndex bookFacetIndex;
+
+    @Autowired
+    private CatalogTitlesReadModel catalogTitlesReadModel;
+
+    @Autowired
+    private CatalogStats catalogStats;
+
+    @Autowired
+    private CatalogSnapshotService catalogSnapshotService;
+
+    @Autowired
+    private ParallelDtoMapper parallelDtoMapper;
+
+    @Autowired
+    private JsonResponseCache jsonResponseCache;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${books.bulk.chunk-size:500}")
+    private int bulkChunkSize = 500;
+
+    @Value("${books.batch-get.chunk-size:1000}")
+    private int batchGetChunkSize = 1000;
+
     public List<BookDTO> getAllBooks() {
-        return bookRepository.findAll().stream()
+        CatalogSnapshot snapshot = catalogSnapshotService.current();
+        if (snapshot != null) {
+            return parallelDtoMapper.map(snapshot.size(), snapshot.size(), snapshot::getBookAt);
+        }
+        return parallelDtoMapper.map(bookRepository.findAll(), BookDTO::toBookDto);
+    }
+
+    public List<BookDTO> getBooksAfter(Long after, int limit) {
+        Long cursor = (after != null) ? after : Long.MIN_VALUE;
+        return bookRepository.findPageAfter(cursor, PageRequest.of(0, limit)).stream()
                 .map(BookDTO::toBookDto)
                 .collect(Collectors.toList());
     }
 
+    @Transactional(readOnly = true)
+    public void streamAllBooks(Consumer<BookDTO> consumer) {
+        try (Stream<BookEntity> books = bookRepository.streamAllOrderedById()) {
+            books.forEach(bookEntity -> {
+                consumer.accept(BookDTO.toBookDto(bookEntity));
+                // keep the persistence context from growing with the result set
+                entityManager.detach(bookEntity);
+            });
+        }
+    }
+
     public BookDTO getBookById(Long bookId) {
-        return bookRepository.findById(bookId)
-                .map(BookDTO::toBookDto)
-                .orElse(null);
+        CatalogSnapshot snapshot = catalogSnapshotService.current();
+        if (snapshot != null) {
+            return snapshot.getBookById(bookId);
+        }
+        return bookResponseCache.getBook(bookId, id -> bookRepository.findById(id)
+                .map(BookDTO::toBookDto));
     }
 
-    public List<AuthorDTO> getAllAuthors() {
-        return authorRepository.findAll().stream()
-                .map(authorEntity -> {
-                    List<String> titles = authorEntity.getBooks().stream()
-                            .map(BookEntity::getTitle)
-                            .collect(Collectors.toList());
-                    return AuthorDTO.builder()
-                            .authorId(authorEntity.getAuthorId())
-                            .authorName(authorEntity.getAuthorName())
-                            .titles(titles)
-                            .build();
-                })
+    public byte[] getBookJsonById(Long bookId) {
+        return jsonResponseCache.getBook(bookId, id -> Optional.ofNullable(getBookById(id)).map(this::toJson));
+    }
+
+    public BookBatchDTO getBooksByIds(List<Long> bookIds) {
+        List<Long> ids = bookIds.stream()
+                .filter(Objects::nonNull)
+                .distinct()
                 .collect(Collectors.toList());
+        Map<Long, BookDTO> books = new HashMap<>();
+        CatalogSnapshot snapshot = catalogSnapshotService.current();
+        if (snapshot != null) {
+            for (Long id : ids) {
+                BookDTO bookDTO = snapshot.getBookById(id);
+                if (bookDTO != null) {
+                    books.put(id, bookDTO);
+                }
+            }
+        } else {
+            // cached entries, absent ones included, are answered as is; the rest are queried chunk by chunk
+            Map<Long, Optional<BookDTO>> cached = bookResponseCache.getPresentBooks(ids);
+            List<Long> uncached = new ArrayList<>();
+            for (Long id : ids) {
+                Optional<BookDTO> bookDTO = cached.get(id);
+                if (bookDTO == null) {
+                    uncached.add(id);
+                } else {
+                    bookDTO.ifPresent(book -> books.put(id, book));
+                }
+            }
+            int chunkSize = Math.max(batchGetChunkSize, 1);
+            for (int from = 0; from < uncached.size(); from += chunkSize) {
+                bookRepository.findAllByIdIn(uncached.subList(from, Math.min(from + chunkSize, uncached.size())))
+                        .forEach(bookEntity -> books.put(bookEntity.getBookId(), BookDTO.toBookDto(bookEntity)));
+            }
+        }
+
+        List<BookDTO> found = new ArrayList<>(books.size());
+        List<Long> missingIds = new ArrayList<>();
+        for (Long id : ids) {
+            BookDTO bookDTO = books.get(id);
+            if (bookDTO != null) {
+                found.add(bookDTO);
+            } else {
+                missingIds.add(id);
+            }
+        }
+        return BookBatchDTO.builder()
+                .books(found)
+                .missingIds(missingIds)
+                .build();
+    }
+
+    public BookDTO getBookByIsbn(Long isbn) {
+        BookEntity bookEntity = bookRepository.findByIsbn(isbn);
+        return bookEntity != null ? BookDTO.toBookDto(bookEntity) : null;
+    }
+
+    public List<AuthorDTO> getAllAuthors() {
+        if (catalogTitlesReadModel.isReady()) {
+            return catalogTitlesReadModel.getAllAuthors();
+        }
+        return toAuthorDtos(authorRepository.findAllAuthorTitles());
     }
 
     public AuthorDTO getAuthorById(Long authorId) {
-        return authorRepository.findById(authorId)
-                .map(authorEntity -> {
-                    List<String> titles = authorEntity.getBooks().stream()
-                            .map(BookEntity::getTitle)
-                            .collect(Collectors.toList());
-                    return AuthorDTO.builder()
-                            .authorId(authorEntity.getAuthorId())
-                            .authorName(authorEntity.getAuthorName())
-                            .titles(titles)
-                            .build();
-                })
-                .orElse(null);
+        if (catalogTitlesReadModel.isReady()) {
+            return catalogTitlesReadModel.getAuthorById(authorId);
+        }
+        List<AuthorDTO> authors = toAuthorDtos(authorRepository.findAuthorTitlesById(authorId));
+        return authors.isEmpty() ? null : authors.get(0);
     }
 
     public List<CategoryDTO> getAllCategoriesWithBooks() {
-        return categoryRepository.findAll().stream()
-                .map(this::convertCategoryEntityToDtoWithBooks)
-                .collect(Collectors.toList());
+        if (catalogTitlesReadModel.isReady()) {
+            return catalogTitlesReadModel.getAllCategories();
+        }
+        // rows arrive ordered by category, one per title (title is null for categories without books)
+        List<CategoryTitleRow> rows = categoryRepository.findAllCategoryTitles();
+        int[] starts = runStarts(rows, CategoryTitleRow::getCategoryId);
+        return parallelDtoMapper.map(starts.length - 1, rows.size(), run -> CategoryDTO.builder()
+                .categoryName(rows.get(starts[run]).getCategoryName())
+                .titles(titles(rows, starts[run], starts[run + 1], CategoryTitleRow::getTitle))
+                .build());
+    }
+
+    public byte[] getAllCategoriesWithBooksJson() {
+        return jsonResponseCache.getCategories(() -> toJsonUnlessEmpty(getAllCategoriesWithBooks()));
     }
 
     public CategoryDTO convertCategoryEntityToDtoWithBooks(CategoryEntity categoryEntity) {
@@ -94,45 +258,160 @@ public class BookApplicationService implements BookService {
     }
 
     public List<BookDTO> getBooksByCategory(String categoryName) {
-        CategoryEntity category = categoryRepository.findByCategoryName(categoryName);
-        if (category != null) {
-            return category.getBooks().stream()
-                    .map(BookDTO::toBookDto)
-                    .collect(Collectors.toList());
-        } else {
+        CatalogSnapshot snapshot = catalogSnapshotService.current();
+        if (snapshot != null) {
+            return snapshot.getBooksByCategory(categoryName);
+        }
+        return bookResponseCache.getBooksByCategory(categoryName, name -> bookRepository.findByCategoryName(name).stream()
+                .map(BookDTO::toBookDto)
+                .collect(Collectors.toList()));
+    }
+
+    public byte[] getBooksByCategoryJson(String categoryName) {
+        return jsonResponseCache.getBooksByCategory(categoryName,
+                name -> toJsonUnlessEmpty(getBooksByCategory(name)));
+    }
+
+    public List<BookDTO> searchBooks(String query, int limit) {
+        List<Long> bookIds = bookSearchIndex.search(query, limit);
+        if (bookIds.isEmpty()) {
             return Collections.emptyList();
         }
+        Map<Long, BookDTO> books = bookRepository.findAllByIdIn(bookIds).stream()
+                .map(BookDTO::toBookDto)
+                .collect(Collectors.toMap(BookDTO::getBookId, bookDTO -> bookDTO));
+        return bookIds.stream()
+                .map(books::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    public BookFilterDTO filterBooks(String category, String author, Integer yearFrom, Integer yearTo,
+                                     Long after, int limit) {
+        FacetResult result = bookFacetIndex.filter(category, author, yearFrom, yearTo, after, limit);
+        List<BookDTO> books = result.bookIds().isEmpty()
+                ? Collections.emptyList()
+                : getBooksByIds(result.bookIds()).getBooks();
+        return BookFilterDTO.builder()
+                .total(result.total())
+                .books(books)
+                .more(result.more())
+                .categories(result.categories())
+                .authors(result.authors())
+                .years(result.years())
+                .build();
+    }
+
+    public CatalogStatsDTO getCatalogStats(int topAuthors) {
+        return catalogStats.stats(topAuthors);
+    }
+
+    private Optional<byte[]> toJsonUnlessEmpty(List<?> values) {
+        return (values == null || values.isEmpty()) ? Optional.empty() : Optional.of(toJson(values));
+    }
+
+    private byte[] toJson(Object value) {
+        try {
+            return objectMapper.writeValueAsBytes(value);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // rows arrive ordered by author, one per title (title is null for authors without books)
+    private List<AuthorDTO> toAuthorDtos(List<AuthorTitleRow> rows) {
+        int[] starts = runStarts(rows, AuthorTitleRow::getAuthorId);
+        return parallelDtoMapper.map(starts.length - 1, rows.size(), run -> AuthorDTO.builder()
+                .authorId(rows.get(starts[run]).getAuthorId())
+                .authorName(rows.get(starts[run]).getAuthorName())
+                .titles(titles(rows, starts[run], starts[run + 1], AuthorTitleRow::getTitle))
+                .build());
+    }
+
+    // first row of every run of equal keys, then rows.size() to close the last run
+    private static <T> int[] runStarts(List<T> rows, Function<T, Long> key) {
+        int[] starts = new int[rows.size() + 1];
+        int runs = 0;
+        Long previous = null;
+        for (int index = 0; index < rows.size(); index++) {
+            Long current = key.apply(rows.get(index));
+            if (index == 0 || !current.equals(previous)) {
+                starts[runs++] = index;
+            }
+            previous = current;
+        }
+        starts[runs] = rows.size();
+        return Arrays.copyOf(starts, runs + 1);
+    }
+
+    private static <T> List<String> titles(List<T> rows, int from, int to, Function<T, String> title) {
+        List<String> titles = new ArrayList<>(to - from);
+        for (int index = from; index < to; index++) {
+            String value = title.apply(rows.get(index));
+            if (value != null) {
+                titles.add(value);
+            }
+        }
+        return titles;
     }
 
 
     private AuthorEntity getOrCreateAuthor(String authorName) {
-        return Optional.ofNullable(authorRepository.findByAuthorName(authorName))
-                .orElseGet(() -> authorRepository.save(AuthorEntity.builder()
-                        .authorName(authorName)
-                        .build()));
+        if (authorName == null) {
+            return null;
+        }
+        Long authorId = dimensionCache.getOrCreateAuthorId(authorName, name -> {
+            AuthorEntity authorEntity = authorRepository.findByAuthorName(name);
+            return (authorEntity != null) ? authorEntity.getAuthorId() : createAuthorId(name);
+        });
+        return AuthorEntity.builder().authorId(authorId).authorName(authorName).build();
     }
 
     private CategoryEntity getOrCreateCategory(String categoryName) {
-        return Optional.ofNullable(categoryRepository.findByCategoryName(categoryName))
-                .orElseGet(() -> categoryRepository.save(CategoryEntity.builder()
-                        .categoryName(categoryName)
-                        .build()));
+        if (categoryName == null) {
+            return null;
+        }
+        Long categoryId = dimensionCache.getOrCreateCategoryId(categoryName, name -> {
+            CategoryEntity categoryEntity = categoryRepository.findByCategoryName(name);
+            return (categoryEntity != null) ? categoryEntity.getCategoryId() : createCategoryId(name);
+        });
+        return CategoryEntity.builder().categoryId(categoryId).categoryName(categoryName).build();
+    }
+
+    // the insert commits on its own, so whichever writer inserted the name, its id is visible here
+    private Long createAuthorId(String authorName) {
+        authorRepository.insertIfAbsent(authorName);
+        AuthorEntity authorEntity = authorRepository.findByAuthorName(authorName);
+        if (authorEntity == null) {
+            throw new IllegalStateException("Author " + authorName + " could not be created");
+        }
+        return authorEntity.getAuthorId();
+    }
+
+    private Long createCategoryId(String categoryName) {
+        categoryRepository.insertIfAbsent(categoryName);
+        CategoryEntity categoryEntity = categoryRepository.findByCategoryName(categoryName);
+        if (categoryEntity == null) {
+            throw new IllegalStateException("Category " + categoryName + " could not be created");
+        }
+        return categoryEntity.getCategoryId();
     }
 
 
     public List<BookDTO> saveAndUpdateBooks(List<BookDTO> bookDTOs) {
-        return bookDTOs.stream()
-                .map(bookDto -> {
-                    Long bookId = bookDto.getBookId();
-                    BookEntity bookEntity = (bookId != null) ?
-                            bookRepository.findById(bookId).orElse(BookEntity.builder().bookId(bookId).build()) :
-                            BookEntity.builder().build();
-
-                    AuthorEntity authorEntity = getOrCreateAuthor(bookDto.getAuthorName());
-                    CategoryEntity categoryEntity = getOrCreateCategory(bookDto.getCategoryName());
-
-                    //  null check on bookEntity before accessing its methods
-                    if (bookEntity != null) {
+        List<BookChange> changes = new ArrayList<>();
+        // each save commits on its own, so the books saved before a failing one are published all the same
+        try {
+            List<BookDTO> savedBooks = bookDTOs.stream()
+                    .map(bookDto -> {
+                        Long bookId = bookDto.getBookId();
+                        Optional<BookEntity> existing = (bookId != null) ? bookRepository.findById(bookId) : Optional.empty();
+                        BookDTO previous = existing.map(BookDTO::toBookDto).orElse(null);
+                        BookEntity bookEntity = existing.orElse(BookEntity.builder().bookId(bookId).build());
+
+                        AuthorEntity authorEntity = getOrCreateAuthor(bookDto.getAuthorName());
+                        CategoryEntity categoryEntity = getOrCreateCategory(bookDto.getCategoryName());
+
                         bookEntity = bookEntity.toBuilder()
                                 .isbn(bookDto.getIsbn())
                                 .publicationYear(bookDto.getPublicationYear())
@@ -141,19 +420,217 @@ public class BookApplicationService implements BookService {
                                 .categoryEntity(categoryEntity)
                                 .build();
 
-                        return bookRepository.save(bookEntity);
-                    } else {
-                        return null;
-                    }
-                })
-                .filter(Objects::nonNull)
-                .map(BookDTO::toBookDto)
+                        BookEntity savedBook = bookRepository.save(bookEntity);
+                        if (savedBook != null) {
+                            changes.add(BookChange.builder()
+                                    .bookId(savedBook.getBookId())
+                                    .previous(previous)
+                                    .current(BookDTO.toBookDto(savedBook))
+                                    .build());
+                        }
+                        return savedBook;
+                    })
+                    .filter(Objects::nonNull)
+                    .map(BookDTO::toBookDto)
+                    .collect(Collectors.toList());
+            return savedBooks;
+        } finally {
+            bookChangePublisher.publish(changes);
+        }
+    }
+
+    public BulkSaveReportDTO bulkSaveBooks(List<BookDTO> bookDTOs) {
+        long start = System.nanoTime();
+        List<BookDTO> books = bookDTOs.stream()
+                .filter(bookDto -> bookDto.getBookId() != null)
                 .collect(Collectors.toList());
+
+        // authors and categories commit ahead of the books, so concurrent batches never wait on each other's
+        // uncommitted dimension rows
+        Map<String, Long> authorIds = resolveAuthorIds(books);
+        int authorsCreated = createMissingAuthors(authorIds);
+        Map<String, Long> categoryIds = resolveCategoryIds(books);
+        int categoriesCreated = createMissingCategories(categoryIds);
+
+        // every chunk commits on its own and its changes are published after that commit, so a large feed
+        // neither holds its row locks until the end nor keeps a change per book in memory; a failing chunk
+        // leaves the chunks before it saved
+        List<ChunkTimingDTO> chunks = new ArrayList<>();
+        int chunkSize = Math.max(bulkChunkSize, 1);
+        for (int from = 0; from < books.size(); from += chunkSize) {
+            List<BookDTO> chunk = books.subList(from, Math.min(from + chunkSize, books.size()));
+            int index = chunks.size();
+            chunks.add(transactionTemplate.execute(status -> {
+                List<BookChange> changes = new ArrayList<>(chunk.size());
+                ChunkTimingDTO written = writeChunk(index, chunk, authorIds, categoryIds, changes);
+                bookChangePublisher.publish(changes);
+                return written;
+            }));
+        }
+
+        return BulkSaveReportDTO.builder()
+                .totalBooks(bookDTOs.size())
+                .inserted(chunks.stream().mapToInt(ChunkTimingDTO::getInserted).sum())
+                .updated(chunks.stream().mapToInt(ChunkTimingDTO::getUpdated).sum())
+                .skipped(bookDTOs.size() - books.size())
+                .authorsCreated(authorsCreated)
+                .categoriesCreated(categoriesCreated)
+                .totalMillis((System.nanoTime() - start) / 1_000_000)
+                .chunks(chunks)
+                .build();
     }
 
-}
+    private ChunkTimingDTO writeChunk(int index, List<BookDTO> chunk, Map<String, Long> authorIds,
+                                      Map<String, Long> categoryIds, List<BookChange> changes) {
+        long start = System.nanoTime();
+        Set<Long> bookIds = chunk.stream().map(BookDTO::getBookId).collect(Collectors.toSet());
+        Map<Long, BookEntity> books = new HashMap<>();
+        bookRepository.findAllByIdIn(bookIds).forEach(bookEntity -> books.put(bookEntity.getBookId(), bookEntity));
+
+        int inserted = 0;
+        int updated = 0;
+        for (BookDTO bookDto : chunk) {
+            BookEntity bookEntity = books.get(bookDto.getBookId());
+            boolean isNew = bookEntity == null;
+            BookDTO previous = isNew ? null : BookDTO.toBookDto(bookEntity);
+            if (isNew) {
+                bookEntity = BookEntity.builder().bookId(bookDto.getBookId()).build();
+            }
+            bookEntity.setTitle(bookDto.getTitle());
+            bookEntity.setIsbn(bookDto.getIsbn());
+            bookEntity.setPublicationYear(bookDto.getPublicationYear());
+            bookEntity.setAuthorEntity(reference(AuthorEntity.class, authorIds.get(bookDto.getAuthorName())));
+            bookEntity.setCategoryEntity(reference(CategoryEntity.class, categoryIds.get(bookDto.getCategoryName())));
+            if (isNew) {
+                entityManager.persist(bookEntity);
+                books.put(bookEntity.getBookId(), bookEntity);
+                inserted++;
+            } else {
+                updated++;
+            }
+            changes.add(BookChange.builder()
+                    .bookId(bookDto.getBookId())
+                    .previous(previous)
+                    .current(bookDto)
+                    .build());
+        }
+        // inserts and dirty-checked updates go out as JDBC batches, then the chunk is released
+        entityManager.flush();
+        entityManager.clear();
+
+        return ChunkTimingDTO.builder()
+                .chunk(index)
+                .books(chunk.size())
+                .inserted(inserted)
+                .updated(updated)
+                .millis((System.nanoTime() - start) / 1_000_000)
+                .build();
+    }
+
+    private <T> T reference(Class<T> entityClass, Long id) {
+        return (id != null) ? entityManager.getReference(entityClass, id) : null;
+    }
+
+    private Map<String, Long> resolveAuthorIds(List<BookDTO> books) {
+        Map<String, Long> authorIds = new HashMap<>();
+        books.stream().map(BookDTO::getAuthorName).filter(Objects::nonNull)
+                .forEach(name -> authorIds.put(name, null));
+        dimensionCache.getPresentAuthorIds(authorIds.keySet())
+                .forEach((name, authorId) -> authorIds.put(name, authorId.orElse(null)));
+        findAuthorIds(authorIds);
+        return authorIds;
+    }
+
+    private Map<String, Long> resolveCategoryIds(List<BookDTO> books) {
+        Map<String, Long> categoryIds = new HashMap<>();
+        books.stream().map(BookDTO::getCategoryName).filter(Objects::nonNull)
+                .forEach(name -> categoryIds.put(name, null));
+        dimensionCache.getPresentCategoryIds(categoryIds.keySet())
+                .forEach((name, categoryId) -> categoryIds.put(name, categoryId.orElse(null)));
+        findCategoryIds(categoryIds);
+        return categoryIds;
+    }
+
+    private void findAuthorIds(Map<String, Long> authorIds) {
+        Map<String, Long> found = new HashMap<>();
+        forEachChunk(unresolvedNames(authorIds), batchGetChunkSize, names ->
+                authorRepository.findByAuthorNameIn(names)
+                        .forEach(author -> found.put(author.getAuthorName(), author.getAuthorId())));
+        assignIds(authorIds, found);
+    }
 
+    private void findCategoryIds(Map<String, Long> categoryIds) {
+        Map<String, Long> found = new HashMap<>();
+        forEachChunk(unresolvedNames(categoryIds), batchGetChunkSize, names ->
+                categoryRepository.findByCategoryNameIn(names)
+                        .forEach(category -> found.put(category.getCategoryName(), category.getCategoryId())));
+        assignIds(categoryIds, found);
+    }
 
+    // the name indexes may compare names ignoring case, so a row can come back spelled differently from the feed
+    private static void assignIds(Map<String, Long> ids, Map<String, Long> found) {
+        Map<String, Long> foundIgnoringCase = new HashMap<>();
+        found.forEach((name, id) -> foundIgnoringCase.putIfAbsent(name.toLowerCase(Locale.ROOT), id));
+        for (String name : unresolvedNames(ids)) {
+            Long id = found.get(name);
+            ids.put(name, id != null ? id : foundIgnoringCase.get(name.toLowerCase(Locale.ROOT)));
+        }
+    }
 
+    // a feed can name more authors than one statement should carry, so names go a chunk at a time
+    private static void forEachChunk(Collection<String> names, int chunkSize, Consumer<List<String>> action) {
+        List<String> remaining = new ArrayList<>(names);
+        int size = Math.max(chunkSize, 1);
+        for (int from = 0; from < remaining.size(); from += size) {
+            action.accept(remaining.subList(from, Math.min(from + size, remaining.size())));
+        }
+    }
 
+    private static Set<String> unresolvedNames(Map<String, Long> ids) {
+        return ids.entrySet().stream()
+                .filter(entry -> entry.getValue() == null)
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toSet());
+    }
 
+    // one multi-row insert per chunk of missing names, each committed on its own; names another writer
+    // inserted meanwhile are skipped by the insert and found by the re-read all the same
+    private int createMissingAuthors(Map<String, Long> authorIds) {
+        Set<String> missing = unresolvedNames(authorIds);
+        if (missing.isEmpty()) {
+            return 0;
+        }
+        AtomicInteger created = new AtomicInteger();
+        forEachChunk(missing, bulkChunkSize,
+                names -> created.addAndGet(dimensionRowRepository.insertAuthorsIfAbsent(names)));
+        findAuthorIds(authorIds);
+        dimensionCache.putAuthorIds(createdIds("Author", authorIds, missing));
+        return created.get();
+    }
+
+    private int createMissingCategories(Map<String, Long> categoryIds) {
+        Set<String> missing = unresolvedNames(categoryIds);
+        if (missing.isEmpty()) {
+            return 0;
+        }
+        AtomicInteger created = new AtomicInteger();
+        forEachChunk(missing, bulkChunkSize,
+                names -> created.addAndGet(dimensionRowRepository.insertCategoriesIfAbsent(names)));
+        findCategoryIds(categoryIds);
+        dimensionCache.putCategoryIds(createdIds("Category", categoryIds, missing));
+        return created.get();
+    }
+
+    private static Map<String, Long> createdIds(String kind, Map<String, Long> ids, Set<String> created) {
+        Map<String, Long> createdIds = new HashMap<>();
+        for (String name : created) {
+            Long id = ids.get(name);
+            if (id == null) {
+                throw new IllegalStateException(kind + " " + name + " could not be created");
+            }
+            createdIds.put(name, id);
+        }
+        return createdIds;
+    }
+
+}
@@ -0,0 +1,47 @@
+package com.books.service.impl;
+
+import com.books.service.BookChange;
+import com.books.service.BookChangeListener;
+import org.springframework.core.annotation.AnnotationAwareOrderComparator;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Component
+public class BookChangePublisher {
+
+    private final List<BookChangeListener> listeners;
+
+    public BookChangePublisher(List<BookChangeListener> listeners) {
+        List<BookChangeListener> ordered = new ArrayList<>(listeners);
+        AnnotationAwareOrderComparator.sort(ordered);
+        this.listeners = List.copyOf(ordered);
+    }
+
+    List<BookChangeListener> listeners() {
+        return listeners;
+    }
+
+    public void publish(List<BookChange> changes) {
+        if (changes.isEmpty()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            notifyListeners(changes);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                notifyListeners(changes);
+            }
+        });
+    }
+
+    private void notifyListeners(List<BookChange> changes) {
+        listeners.forEach(listener -> listener.onBooksChanged(changes));
+    }
+}
@@ -0,0 +1,154 @@
+package com.books.service.impl;
+
+import com.books.cache.CatalogVersion;
+import com.books.dto.ExportSnapshotDTO;
+import com.books.export.BookExport;
+import com.books.export.BookExportWriter;
+import com.books.service.BookExportService;
+import com.books.service.BookService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Exports stream from the forward-only cursor behind {@link BookService#streamAllBooks}, so only the
+ * current row is held in memory. Snapshots are the same export written once to a file named after the
+ * catalog version: asking again while the catalog is unchanged returns the existing file, and serving it
+ * touches neither the database nor the serializers.
+ */
+@Service
+public class BookExportApplicationService implements BookExportService {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final String SNAPSHOT_PREFIX = "catalog-";
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private CatalogVersion catalogVersion;
+
+    @Value("${books.export.snapshot-dir:${java.io.tmpdir}/bookshop-exports}")
+    private Path snapshotDir;
+
+    private final Map<BookExport, ExportSnapshotDTO> snapshots = new ConcurrentHashMap<>();
+
+    // a lock rather than a monitor, so a writer streaming the catalog doesn't pin the carrier of a virtual thread
+    private final ReentrantLock snapshotLock = new ReentrantLock();
+
+    public long exportBooks(BookExport export, OutputStream outputStream) throws IOException {
+        OutputStream target = export.gzip() ? new GZIPOutputStream(outputStream, BUFFER_SIZE) : outputStream;
+        AtomicLong rows = new AtomicLong();
+        try (BookExportWriter writer = export.format().open(target, objectMapper)) {
+            bookService.streamAllBooks(bookDTO -> {
+                try {
+                    writer.write(bookDTO);
+                    rows.incrementAndGet();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+        return rows.get();
+    }
+
+    public ExportSnapshotDTO writeSnapshot(BookExport export) {
+        snapshotLock.lock();
+        try {
+            return writeSnapshotIfStale(export);
+        } finally {
+            snapshotLock.unlock();
+        }
+    }
+
+    // called under the snapshot lock
+    private ExportSnapshotDTO writeSnapshotIfStale(BookExport export) {
+        String version = catalogVersion.tag();
+        ExportSnapshotDTO previous = snapshots.get(export);
+        if (previous != null && previous.getCatalogVersion().equals(version) && Files.exists(snapshotFile(previous))) {
+            return previous;
+        }
+
+        long start = System.nanoTime();
+        String fileName = export.fileName(SNAPSHOT_PREFIX + version);
+        try {
+            Files.createDirectories(snapshotDir);
+            Path tempFile = Files.createTempFile(snapshotDir, SNAPSHOT_PREFIX, ".tmp");
+            long rows;
+            try {
+                try (FileChannel channel = FileChannel.open(tempFile, StandardOpenOption.WRITE)) {
+                    rows = exportBooks(export, new BufferedOutputStream(Channels.newOutputStream(channel), BUFFER_SIZE));
+                }
+                Files.move(tempFile, snapshotDir.resolve(fileName),
+                        StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } finally {
+                Files.deleteIfExists(tempFile);
+            }
+
+            ExportSnapshotDTO snapshot = ExportSnapshotDTO.builder()
+                    .format(export.format().extension())
+                    .gzip(export.gzip())
+                    .fileName(fileName)
+                    .catalogVersion(version)
+                    .rows(rows)
+                    .bytes(Files.size(snapshotDir.resolve(fileName)))
+                    .createdAt(Instant.now())
+                    .writeMillis((System.nanoTime() - start) / 1_000_000)
+                    .build();
+            snapshots.put(export, snapshot);
+            deleteOlderSnapshots(export, fileName, previous);
+            return snapshot;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public ExportSnapshotDTO getSnapshot(BookExport export) {
+        ExportSnapshotDTO snapshot = snapshots.get(export);
+        if (snapshot == null || !Files.exists(snapshotFile(snapshot))) {
+            return null;
+        }
+        return snapshot;
+    }
+
+    public Path snapshotFile(ExportSnapshotDTO snapshot) {
+        return snapshotDir.resolve(snapshot.getFileName());
+    }
+
+    // the snapshot just replaced is kept for downloads that are still sending it
+    private void deleteOlderSnapshots(BookExport export, String current, ExportSnapshotDTO previous) throws IOException {
+        String suffix = export.fileName("");
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(snapshotDir, SNAPSHOT_PREFIX + "*" + suffix)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                if (!name.equals(current) && (previous == null || !name.equals(previous.getFileName()))) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        }
+    }
+
+}
@@ -0,0 +1,239 @@
+package com.books.service.impl;
+
+import com.books.dto.BookDTO;
+import com.books.dto.ImportReportDTO;
+import com.books.ingest.BookImportFormat;
+import com.books.ingest.BookRecordReader;
+import com.books.ingest.MalformedRecordException;
+import com.books.service.BookImportService;
+import com.books.service.BookService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs an import as a two-stage pipeline. The calling thread parses records into batches and hands them
+ * over bounded queues to {@code writers} writer threads, which save each batch with
+ * {@link BookService#bulkSaveBooks} (author/category resolution, then chunked JDBC batches). Records are
+ * partitioned by book id, so every update of a book goes to the same writer and is applied in input order.
+ * Parsing blocks while a queue is full, so at most {@code writers * (queue-capacity + 2)} batches are in
+ * memory whatever the size of the input.
+ * <p>
+ * Writers run on one pool of {@code books.import.writer-threads} threads shared by all imports, which also
+ * caps the writers of a single import. An import takes all its writer threads before it starts reading, so
+ * imports beyond the pool's capacity wait for a running one to finish rather than starting threads of
+ * their own or holding part of the pool while waiting for the rest. An import that has waited
+ * {@code books.import.writer-wait} without getting them is rejected with a {@link RejectedExecutionException}.
+ * <p>
+ * Every batch commits on its own: a failed import keeps the batches written before the failure.
+ */
+@Service
+public class BookImportApplicationService implements BookImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(BookImportApplicationService.class);
+
+    private static final List<BookDTO> END_OF_INPUT = List.of();
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${books.import.batch-size:500}")
+    private int batchSize = 500;
+
+    @Value("${books.import.queue-capacity:4}")
+    private int queueCapacity = 4;
+
+    @Value("${books.import.writers:4}")
+    private int writerCount = 4;
+
+    @Value("${books.import.writer-threads:4}")
+    private int writerPoolSize = 4;
+
+    @Value("${books.import.writer-wait:5s}")
+    private Duration writerWait = Duration.ofSeconds(5);
+
+    @Value("${books.import.progress-log-interval:100000}")
+    private long progressLogInterval = 100_000;
+
+    private final Map<String, ImportProgress> runningImports = new ConcurrentHashMap<>();
+
+    private final AtomicInteger writerThreads = new AtomicInteger();
+
+    private ThreadPoolExecutor writers;
+
+    // one permit per pool thread; an import holds one for each of its writers
+    private Semaphore writerSlots;
+
+    @PostConstruct
+    public void start() {
+        int threads = Math.max(writerPoolSize, 1);
+        // every queued task holds a permit, so the queue never fills; it only covers a cancelled writer
+        // that is still finishing its batch when its permit is taken again
+        writers = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(threads),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "books-import-writer-" + writerThreads.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        writerSlots = new Semaphore(threads, true);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        writers.shutdownNow();
+    }
+
+    public ImportReportDTO importBooks(BookImportFormat format, BufferedReader input) {
+        int partitions = Math.min(Math.max(writerCount, 1), writers.getMaximumPoolSize());
+        try {
+            if (!writerSlots.tryAcquire(partitions, writerWait.toMillis(), TimeUnit.MILLISECONDS)) {
+                throw new RejectedExecutionException("No " + partitions + " import writer threads came free within "
+                        + writerWait.toMillis() + " ms");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Import was interrupted while waiting for writer threads", e);
+        }
+        ImportProgress progress = new ImportProgress(UUID.randomUUID().toString(), format);
+        List<BlockingQueue<List<BookDTO>>> queues = new ArrayList<>(partitions);
+        List<Future<?>> writerTasks = new ArrayList<>(partitions);
+        runningImports.put(progress.importId(), progress);
+        try (BookRecordReader reader = format.open(input, objectMapper)) {
+            for (int partition = 0; partition < partitions; partition++) {
+                BlockingQueue<List<BookDTO>> queue = new ArrayBlockingQueue<>(Math.max(queueCapacity, 1));
+                queues.add(queue);
+                writerTasks.add(writers.submit(() -> writeBatches(queue, progress)));
+            }
+            int size = Math.max(batchSize, 1);
+            List<List<BookDTO>> batches = new ArrayList<>(partitions);
+            for (int partition = 0; partition < partitions; partition++) {
+                batches.add(new ArrayList<>(size));
+            }
+            BookDTO book;
+            while ((book = next(reader, progress)) != null) {
+                int partition = partition(book, partitions);
+                List<BookDTO> batch = batches.get(partition);
+                batch.add(book);
+                if (batch.size() == size) {
+                    handOver(queues, partition, batch, writerTasks);
+                    batches.set(partition, new ArrayList<>(size));
+                }
+            }
+            for (int partition = 0; partition < partitions; partition++) {
+                if (!batches.get(partition).isEmpty()) {
+                    handOver(queues, partition, batches.get(partition), writerTasks);
+                }
+                handOver(queues, partition, END_OF_INPUT, writerTasks);
+            }
+            for (Future<?> writer : writerTasks) {
+                writer.get();
+            }
+
+            ImportReportDTO report = progress.toReport(false);
+            log.info("Import {} finished: {} records read, {} inserted, {} updated, {} rejected in {} ms ({} books/s)",
+                    report.getImportId(), report.getRecordsRead(), report.getInserted(), report.getUpdated(),
+                    report.getRejected(), report.getElapsedMillis(), Math.round(report.getBooksPerSecond()));
+            return report;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Import " + progress.importId() + " was interrupted", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Import " + progress.importId() + " failed", e.getCause());
+        } finally {
+            writerTasks.forEach(writer -> writer.cancel(true));
+            writerSlots.release(partitions);
+            runningImports.remove(progress.importId());
+        }
+    }
+
+    public List<ImportReportDTO> getRunningImports() {
+        return runningImports.values().stream()
+                .map(progress -> progress.toReport(true))
+                .toList();
+    }
+
+    private BookDTO next(BookRecordReader reader, ImportProgress progress) throws IOException {
+        while (true) {
+            try {
+                BookDTO book = reader.read();
+                if (book != null) {
+                    progress.recordRead();
+                }
+                return book;
+            } catch (MalformedRecordException e) {
+                progress.recordRejected(e.getMessage());
+            }
+        }
+    }
+
+    private static int partition(BookDTO book, int partitions) {
+        return (book.getBookId() != null) ? Math.floorMod(book.getBookId().hashCode(), partitions) : 0;
+    }
+
+    private void handOver(List<BlockingQueue<List<BookDTO>>> queues, int partition, List<BookDTO> batch,
+                          List<Future<?>> writerTasks) throws InterruptedException, ExecutionException {
+        while (true) {
+            // a failure in any writer fails the import; writers given the end of their input are done normally
+            for (Future<?> writer : writerTasks) {
+                if (writer.isDone()) {
+                    writer.get();
+                }
+            }
+            if (writerTasks.get(partition).isDone()) {
+                throw new IllegalStateException("Import writer stopped before the end of the input");
+            }
+            if (queues.get(partition).offer(batch, 100, TimeUnit.MILLISECONDS)) {
+                return;
+            }
+        }
+    }
+
+    private Void writeBatches(BlockingQueue<List<BookDTO>> queue, ImportProgress progress) throws InterruptedException {
+        while (true) {
+            List<BookDTO> batch = queue.take();
+            if (batch == END_OF_INPUT) {
+                return null;
+            }
+            progress.batchWritten(bookService.bulkSaveBooks(batch));
+            if (progressLogInterval > 0 && progress.progressLogDue(progressLogInterval)) {
+                ImportReportDTO report = progress.toReport(true);
+                log.info("Import {}: {} records read, {} written, {} rejected ({} books/s)", report.getImportId(),
+                        report.getRecordsRead(), progress.written(), report.getRejected(),
+                        Math.round(report.getBooksPerSecond()));
+            }
+        }
+    }
+
+}
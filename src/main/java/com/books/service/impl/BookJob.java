@@ -0,0 +1,128 @@
+package com.books.service.impl;
+
+import com.books.dto.BookDTO;
+import com.books.dto.BookJobDTO;
+import com.books.dto.BulkSaveReportDTO;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * State of one write-behind job, written by the worker that runs it and read by status requests.
+ */
+class BookJob {
+
+    enum Status { QUEUED, RUNNING, SUCCEEDED, FAILED }
+
+    private static final int MAX_ERRORS = 20;
+
+    private final String jobId;
+
+    // epoch millis rather than nanos, so a job replayed from the journal keeps its submission time
+    private final long submittedAt;
+
+    private final boolean recovered;
+
+    private final int totalBooks;
+
+    private volatile List<BookDTO> books;
+
+    private volatile Status status = Status.QUEUED;
+
+    private volatile long startedAt;
+
+    private volatile long finishedAt;
+
+    private final AtomicLong inserted = new AtomicLong();
+
+    private final AtomicLong updated = new AtomicLong();
+
+    private final AtomicLong skipped = new AtomicLong();
+
+    private final AtomicLong failed = new AtomicLong();
+
+    private final AtomicLong batches = new AtomicLong();
+
+    private final List<String> errors = new ArrayList<>();
+
+    BookJob(String jobId, List<BookDTO> books, long submittedAt, boolean recovered) {
+        this.jobId = jobId;
+        this.books = books;
+        this.submittedAt = submittedAt;
+        this.recovered = recovered;
+        this.totalBooks = books.size();
+    }
+
+    String jobId() {
+        return jobId;
+    }
+
+    long submittedAt() {
+        return submittedAt;
+    }
+
+    List<BookDTO> books() {
+        return books;
+    }
+
+    void started() {
+        startedAt = System.currentTimeMillis();
+        status = Status.RUNNING;
+    }
+
+    void batchWritten(BulkSaveReportDTO report) {
+        inserted.addAndGet(report.getInserted());
+        updated.addAndGet(report.getUpdated());
+        skipped.addAndGet(report.getSkipped());
+        batches.incrementAndGet();
+    }
+
+    void batchFailed(int size, String error) {
+        failed.addAndGet(size);
+        batches.incrementAndGet();
+        synchronized (errors) {
+            if (errors.size() < MAX_ERRORS) {
+                errors.add(error);
+            }
+        }
+    }
+
+    void finished() {
+        // the payload is only needed until the job has run
+        books = List.of();
+        finishedAt = System.currentTimeMillis();
+        status = failed.get() > 0 ? Status.FAILED : Status.SUCCEEDED;
+    }
+
+    boolean finishedBefore(long millis) {
+        long finished = finishedAt;
+        return finished > 0 && finished < millis;
+    }
+
+    BookJobDTO toDTO() {
+        long now = System.currentTimeMillis();
+        long started = startedAt;
+        long finished = finishedAt;
+        List<String> errorsSoFar;
+        synchronized (errors) {
+            errorsSoFar = List.copyOf(errors);
+        }
+        return BookJobDTO.builder()
+                .jobId(jobId)
+                .status(status.name())
+                .recovered(recovered)
+                .totalBooks(totalBooks)
+                .processedBooks(inserted.get() + updated.get() + skipped.get() + failed.get())
+                .inserted(inserted.get())
+                .updated(updated.get())
+                .skipped(skipped.get())
+                .failed(failed.get())
+                .batches(batches.get())
+                .queuedMillis((started > 0 ? started : now) - submittedAt)
+                .elapsedMillis(started > 0 ? (finished > 0 ? finished : now) - started : 0)
+                .errors(errorsSoFar)
+                .build();
+    }
+
+}
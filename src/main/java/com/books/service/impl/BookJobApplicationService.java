@@ -0,0 +1,252 @@
+package com.books.service.impl;
+
+import com.books.dto.BookDTO;
+import com.books.dto.BookJobDTO;
+import com.books.service.BookJobService;
+import com.books.service.BookService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Write-behind saves for submissions too large to wait for. {@link #submit} queues the books and returns at
+ * once; {@code books.jobs.workers} worker threads take jobs in submission order and save each in batches of
+ * {@code books.jobs.batch-size} with {@link BookService#bulkSaveBooks}, recording the failure of a batch and
+ * going on with the next. At most {@code books.jobs.queue-capacity} jobs wait for a worker, further
+ * submissions are rejected until the workers catch up. Jobs on different workers run concurrently, so two
+ * jobs saving the same book may be applied in either order.
+ * <p>
+ * With {@code books.jobs.journal-dir} set, a job is written to that directory before it is accepted and
+ * deleted once it has run, and jobs a previous run left there are queued again at startup. Books are saved
+ * by id, so replaying a job that was cut off part-way just writes its first batches again.
+ */
+@Service
+public class BookJobApplicationService implements BookJobService {
+
+    private static final Logger log = LoggerFactory.getLogger(BookJobApplicationService.class);
+
+    private static final String JOURNAL_SUFFIX = ".json";
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${books.jobs.workers:2}")
+    private int workerCount = 2;
+
+    @Value("${books.jobs.queue-capacity:100}")
+    private int queueCapacity = 100;
+
+    @Value("${books.jobs.batch-size:500}")
+    private int batchSize = 500;
+
+    @Value("${books.jobs.retention:1h}")
+    private Duration retention = Duration.ofHours(1);
+
+    @Value("${books.jobs.journal-dir:}")
+    private String journalDir = "";
+
+    private final Map<String, BookJob> jobs = new ConcurrentHashMap<>();
+
+    private final BlockingQueue<BookJob> queue = new LinkedBlockingQueue<>();
+
+    // jobs waiting for a worker; counted apart from the queue so a full queue rejects instead of blocking
+    private final AtomicInteger queued = new AtomicInteger();
+
+    private final AtomicInteger workerThreads = new AtomicInteger();
+
+    private final ExecutorService workers = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "books-job-worker-" + workerThreads.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        Gauge.builder("books.jobs.queued", queued, AtomicInteger::get)
+                .description("Write-behind jobs waiting for a worker")
+                .register(meterRegistry);
+        recoverJournal();
+        for (int worker = 0; worker < Math.max(workerCount, 1); worker++) {
+            workers.submit(this::work);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdownNow();
+    }
+
+    public BookJobDTO submit(List<BookDTO> bookDTOs) {
+        if (queued.incrementAndGet() > Math.max(queueCapacity, 1)) {
+            queued.decrementAndGet();
+            throw new RejectedExecutionException("Job queue is full with " + queueCapacity + " jobs waiting");
+        }
+        BookJob job = new BookJob(UUID.randomUUID().toString(), bookDTOs, System.currentTimeMillis(), false);
+        try {
+            writeJournal(job);
+        } catch (IOException e) {
+            queued.decrementAndGet();
+            throw new UncheckedIOException("Could not journal job " + job.jobId(), e);
+        }
+        jobs.put(job.jobId(), job);
+        queue.add(job);
+        return job.toDTO();
+    }
+
+    public BookJobDTO getJob(String jobId) {
+        BookJob job = jobs.get(jobId);
+        return (job != null) ? job.toDTO() : null;
+    }
+
+    private void work() {
+        try {
+            while (true) {
+                BookJob job = queue.take();
+                queued.decrementAndGet();
+                run(job);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void run(BookJob job) {
+        job.started();
+        List<BookDTO> books = job.books();
+        int size = Math.max(batchSize, 1);
+        for (int from = 0; from < books.size(); from += size) {
+            if (Thread.currentThread().isInterrupted()) {
+                // shutting down: the journal still holds the job, so the next start replays it
+                log.info("Job {} stopped after {} of {} books", job.jobId(), from, books.size());
+                return;
+            }
+            List<BookDTO> batch = books.subList(from, Math.min(from + size, books.size()));
+            try {
+                job.batchWritten(bookService.bulkSaveBooks(batch));
+            } catch (RuntimeException e) {
+                log.warn("Job {}: saving books {} to {} failed", job.jobId(), from, from + batch.size() - 1, e);
+                job.batchFailed(batch.size(), "Books " + from + " to " + (from + batch.size() - 1) + ": "
+                        + NestedExceptionUtils.getMostSpecificCause(e).getMessage());
+            }
+        }
+        job.finished();
+        deleteJournal(job);
+
+        BookJobDTO report = job.toDTO();
+        log.info("Job {} {}: {} inserted, {} updated, {} skipped, {} failed in {} ms after {} ms queued",
+                report.getJobId(), report.getStatus(), report.getInserted(), report.getUpdated(),
+                report.getSkipped(), report.getFailed(), report.getElapsedMillis(), report.getQueuedMillis());
+        long expired = System.currentTimeMillis() - retention.toMillis();
+        jobs.values().removeIf(finished -> finished.finishedBefore(expired));
+    }
+
+    private Path journalFile(String jobId) {
+        return Path.of(journalDir).resolve(jobId + JOURNAL_SUFFIX);
+    }
+
+    private void writeJournal(BookJob job) throws IOException {
+        if (journalDir.isBlank()) {
+            return;
+        }
+        byte[] json = objectMapper.writeValueAsBytes(new JournalEntry(job.jobId(), job.submittedAt(), job.books()));
+        Path dir = Path.of(journalDir);
+        Files.createDirectories(dir);
+        Path tempFile = Files.createTempFile(dir, job.jobId(), ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(tempFile, StandardOpenOption.WRITE)) {
+                ByteBuffer buffer = ByteBuffer.wrap(json);
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                channel.force(false);
+            }
+            // the job is accepted only once its complete file is in place
+            Files.move(tempFile, journalFile(job.jobId()), StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+
+    private void deleteJournal(BookJob job) {
+        if (journalDir.isBlank()) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(journalFile(job.jobId()));
+        } catch (IOException e) {
+            log.warn("Could not delete the journal file of job {}, it runs again on the next start", job.jobId(), e);
+        }
+    }
+
+    private void recoverJournal() {
+        if (journalDir.isBlank() || !Files.isDirectory(Path.of(journalDir))) {
+            return;
+        }
+        List<JournalEntry> entries = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(Path.of(journalDir), "*" + JOURNAL_SUFFIX)) {
+            for (Path file : files) {
+                try {
+                    entries.add(objectMapper.readValue(file.toFile(), JournalEntry.class));
+                } catch (IOException e) {
+                    log.warn("Ignoring unreadable job journal file {}", file, e);
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Could not read the job journal in {}", journalDir, e);
+            return;
+        }
+        entries.sort(Comparator.comparingLong(JournalEntry::submittedAt));
+        for (JournalEntry entry : entries) {
+            BookJob job = new BookJob(entry.jobId(), entry.books(), entry.submittedAt(), true);
+            jobs.put(job.jobId(), job);
+            // replayed jobs may overfill the queue; new submissions are rejected until it drains
+            queued.incrementAndGet();
+            queue.add(job);
+        }
+        if (!entries.isEmpty()) {
+            log.info("Queued {} jobs left in the journal {}", entries.size(), journalDir);
+        }
+    }
+
+    record JournalEntry(String jobId, long submittedAt, List<BookDTO> books) {
+    }
+
+}
@@ -0,0 +1,110 @@
+package com.books.service.impl;
+
+import com.books.dto.BulkSaveReportDTO;
+import com.books.dto.ImportReportDTO;
+import com.books.ingest.BookImportFormat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counters of one running import, written by the parser and writer threads and read by progress reports.
+ */
+class ImportProgress {
+
+    private static final int MAX_ERRORS = 20;
+
+    private final String importId;
+
+    private final BookImportFormat format;
+
+    private final long startNanos = System.nanoTime();
+
+    private final AtomicLong recordsRead = new AtomicLong();
+
+    private final AtomicLong rejected = new AtomicLong();
+
+    private final AtomicLong inserted = new AtomicLong();
+
+    private final AtomicLong updated = new AtomicLong();
+
+    private final AtomicLong skipped = new AtomicLong();
+
+    private final AtomicLong authorsCreated = new AtomicLong();
+
+    private final AtomicLong categoriesCreated = new AtomicLong();
+
+    private final AtomicLong batches = new AtomicLong();
+
+    private final AtomicLong nextProgressLog = new AtomicLong();
+
+    private final List<String> errors = new ArrayList<>();
+
+    ImportProgress(String importId, BookImportFormat format) {
+        this.importId = importId;
+        this.format = format;
+    }
+
+    String importId() {
+        return importId;
+    }
+
+    void recordRead() {
+        recordsRead.incrementAndGet();
+    }
+
+    void recordRejected(String error) {
+        rejected.incrementAndGet();
+        synchronized (errors) {
+            if (errors.size() < MAX_ERRORS) {
+                errors.add(error);
+            }
+        }
+    }
+
+    void batchWritten(BulkSaveReportDTO report) {
+        inserted.addAndGet(report.getInserted());
+        updated.addAndGet(report.getUpdated());
+        skipped.addAndGet(report.getSkipped());
+        authorsCreated.addAndGet(report.getAuthorsCreated());
+        categoriesCreated.addAndGet(report.getCategoriesCreated());
+        batches.incrementAndGet();
+    }
+
+    long written() {
+        return inserted.get() + updated.get();
+    }
+
+    // true for exactly one of the writers each time another interval of books has been written
+    boolean progressLogDue(long interval) {
+        long due = nextProgressLog.get();
+        long written = written();
+        return written >= Math.max(due, interval) && nextProgressLog.compareAndSet(due, written + interval);
+    }
+
+    ImportReportDTO toReport(boolean running) {
+        long elapsedMillis = (System.nanoTime() - startNanos) / 1_000_000;
+        List<String> errorsSoFar;
+        synchronized (errors) {
+            errorsSoFar = List.copyOf(errors);
+        }
+        return ImportReportDTO.builder()
+                .importId(importId)
+                .format(format.name())
+                .running(running)
+                .recordsRead(recordsRead.get())
+                .rejected(rejected.get())
+                .inserted(inserted.get())
+                .updated(updated.get())
+                .skipped(skipped.get())
+                .authorsCreated(authorsCreated.get())
+                .categoriesCreated(categoriesCreated.get())
+                .batches(batches.get())
+                .elapsedMillis(elapsedMillis)
+                .booksPerSecond(elapsedMillis > 0 ? written() * 1000.0 / elapsedMillis : 0)
+                .errors(errorsSoFar)
+                .build();
+    }
+
+}
@@ -0,0 +1,83 @@
+package com.books.service.impl;
+
+import com.books.dto.AuthorDTO;
+import com.books.dto.BookDTO;
+import com.books.dto.CategoryDTO;
+import com.books.service.BookService;
+import com.books.service.ReactiveBookService;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+
+/**
+ * Reactive facade over {@link BookService}. Blocking JDBC work runs on a bounded scheduler sized like
+ * the connection pool, and the full book listing is pulled one keyset page at a time as subscribers
+ * request more, so a slow consumer holds at most a page or two in memory.
+ */
+@Service
+public class ReactiveBookApplicationService implements ReactiveBookService {
+
+    @Autowired
+    private BookService bookService;
+
+    @Value("${books.reactive.page-size:500}")
+    private int pageSize;
+
+    private final Scheduler jdbcScheduler;
+
+    public ReactiveBookApplicationService(@Value("${books.reactive.jdbc-threads:10}") int jdbcThreads,
+                                          @Value("${books.reactive.queued-tasks:10000}") int queuedTasks) {
+        this.jdbcScheduler = Schedulers.newBoundedElastic(jdbcThreads, queuedTasks, "books-jdbc");
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        jdbcScheduler.dispose();
+    }
+
+    public Flux<BookDTO> getAllBooks() {
+        return fetchPage(null)
+                .expand(page -> page.size() < pageSize ? Mono.empty() : fetchPage(page.get(page.size() - 1).getBookId()))
+                .concatMapIterable(page -> page, 1);
+    }
+
+    public Mono<BookDTO> getBookById(Long bookId) {
+        return blocking(() -> bookService.getBookById(bookId));
+    }
+
+    public Flux<AuthorDTO> getAllAuthors() {
+        return blocking(() -> bookService.getAllAuthors()).flatMapIterable(authors -> authors);
+    }
+
+    public Mono<AuthorDTO> getAuthorById(Long authorId) {
+        return blocking(() -> bookService.getAuthorById(authorId));
+    }
+
+    public Flux<CategoryDTO> getAllCategoriesWithBooks() {
+        return blocking(() -> bookService.getAllCategoriesWithBooks()).flatMapIterable(categories -> categories);
+    }
+
+    public Flux<BookDTO> getBooksByCategory(String categoryName) {
+        return blocking(() -> bookService.getBooksByCategory(categoryName)).flatMapIterable(books -> books);
+    }
+
+    public Flux<BookDTO> saveAndUpdateBooks(List<BookDTO> bookDTOs) {
+        return blocking(() -> bookService.saveAndUpdateBooks(bookDTOs)).flatMapIterable(books -> books);
+    }
+
+    private Mono<List<BookDTO>> fetchPage(Long after) {
+        return blocking(() -> bookService.getBooksAfter(after, pageSize));
+    }
+
+    private <T> Mono<T> blocking(Callable<T> call) {
+        return Mono.fromCallable(call).subscribeOn(jdbcScheduler);
+    }
+}
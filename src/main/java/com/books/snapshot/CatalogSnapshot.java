@@ -0,0 +1,299 @@
+package com.books.snapshot;
+
+import com.books.dto.BookDTO;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable columnar copy of the catalog held in direct buffers, one row per book in bookId order.
+ * Ids and ISBNs are primitive longs, strings are codes into {@link StringDictionary dictionaries} and the
+ * books of every category are a contiguous run of row numbers, so the whole snapshot is a handful of
+ * objects for the garbage collector however many books it holds; only the category names stay on heap
+ * to resolve {@link #getBooksByCategory} lookups. The buffers are either freshly built or views of a
+ * {@link CatalogSnapshotFile mapped snapshot file}. Reads only use absolute buffer access
+ * and are safe from any number of threads.
+ */
+public final class CatalogSnapshot {
+
+    private static final long NULL_LONG = Long.MIN_VALUE;
+
+    private final long generation;
+
+    private final Instant builtAt;
+
+    private final int size;
+
+    private final LongBuffer bookIds;
+
+    private final LongBuffer isbns;
+
+    private final IntBuffer titles;
+
+    private final IntBuffer authors;
+
+    private final IntBuffer categories;
+
+    private final IntBuffer publicationYears;
+
+    private final StringDictionary titleDictionary;
+
+    private final StringDictionary authorDictionary;
+
+    private final StringDictionary categoryDictionary;
+
+    private final StringDictionary yearDictionary;
+
+    // rows of category c are categoryRows[categoryOffsets[c] .. categoryOffsets[c + 1])
+    private final IntBuffer categoryRows;
+
+    private final IntBuffer categoryOffsets;
+
+    private final Map<String, Integer> categoryCodes;
+
+    private CatalogSnapshot(Builder builder) {
+        this.generation = builder.generation;
+        this.builtAt = Instant.now();
+        this.size = builder.size;
+        this.bookIds = directLongs(builder.bookIds, size);
+        this.isbns = directLongs(builder.isbns, size);
+        this.titles = directInts(builder.titles, size);
+        this.authors = directInts(builder.authors, size);
+        this.categories = directInts(builder.categories, size);
+        this.publicationYears = directInts(builder.publicationYears, size);
+        this.titleDictionary = builder.titleDictionary.build();
+        this.authorDictionary = builder.authorDictionary.build();
+        this.categoryDictionary = builder.categoryDictionary.build();
+        this.yearDictionary = builder.yearDictionary.build();
+        this.categoryCodes = Map.copyOf(builder.categoryDictionary.codes());
+
+        // counting sort of the rows by category keeps each run in bookId order
+        int codes = categoryDictionary.size();
+        int[] offsets = new int[codes + 1];
+        for (int row = 0; row < size; row++) {
+            int category = builder.categories[row];
+            if (category != StringDictionary.NULL) {
+                offsets[category + 1]++;
+            }
+        }
+        for (int code = 0; code < codes; code++) {
+            offsets[code + 1] += offsets[code];
+        }
+        int[] next = Arrays.copyOf(offsets, codes);
+        int[] rows = new int[offsets[codes]];
+        for (int row = 0; row < size; row++) {
+            int category = builder.categories[row];
+            if (category != StringDictionary.NULL) {
+                rows[next[category]++] = row;
+            }
+        }
+        this.categoryRows = directInts(rows, rows.length);
+        this.categoryOffsets = directInts(offsets, offsets.length);
+    }
+
+    // the sections in the order writeTo lays them out
+    private CatalogSnapshot(CatalogSnapshotFile.Input in, long generation) {
+        this.generation = generation;
+        this.builtAt = Instant.ofEpochMilli(in.readLong());
+        this.size = in.readInt();
+        int categoryRowCount = in.readInt();
+        this.bookIds = in.readLongs(size);
+        this.isbns = in.readLongs(size);
+        this.titles = in.readInts(size);
+        this.authors = in.readInts(size);
+        this.categories = in.readInts(size);
+        this.publicationYears = in.readInts(size);
+        this.titleDictionary = StringDictionary.read(in);
+        this.authorDictionary = StringDictionary.read(in);
+        this.categoryDictionary = StringDictionary.read(in);
+        this.yearDictionary = StringDictionary.read(in);
+        this.categoryRows = in.readInts(categoryRowCount);
+        this.categoryOffsets = in.readInts(categoryDictionary.size() + 1);
+        Map<String, Integer> codes = new HashMap<>();
+        for (int code = 0; code < categoryDictionary.size(); code++) {
+            codes.put(categoryDictionary.decode(code), code);
+        }
+        this.categoryCodes = Map.copyOf(codes);
+    }
+
+    static CatalogSnapshot read(CatalogSnapshotFile.Input in, long generation) {
+        return new CatalogSnapshot(in, generation);
+    }
+
+    void writeTo(CatalogSnapshotFile.Output out) throws IOException {
+        out.writeLong(builtAt.toEpochMilli());
+        out.writeInt(size);
+        out.writeInt(categoryRows.capacity());
+        out.writeLongs(bookIds);
+        out.writeLongs(isbns);
+        out.writeInts(titles);
+        out.writeInts(authors);
+        out.writeInts(categories);
+        out.writeInts(publicationYears);
+        titleDictionary.writeTo(out);
+        authorDictionary.writeTo(out);
+        categoryDictionary.writeTo(out);
+        yearDictionary.writeTo(out);
+        out.writeInts(categoryRows);
+        out.writeInts(categoryOffsets);
+    }
+
+    public long generation() {
+        return generation;
+    }
+
+    public Instant builtAt() {
+        return builtAt;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public long offHeapBytes() {
+        return (long) size * (2 * Long.BYTES + 4 * Integer.BYTES)
+                + (long) (categoryRows.capacity() + categoryOffsets.capacity()) * Integer.BYTES
+                + titleDictionary.offHeapBytes() + authorDictionary.offHeapBytes()
+                + categoryDictionary.offHeapBytes() + yearDictionary.offHeapBytes();
+    }
+
+    public BookDTO getBookById(Long bookId) {
+        int low = 0;
+        int high = size - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            long midId = bookIds.get(mid);
+            if (midId < bookId) {
+                low = mid + 1;
+            } else if (midId > bookId) {
+                high = mid - 1;
+            } else {
+                return getBookAt(mid);
+            }
+        }
+        return null;
+    }
+
+    public List<BookDTO> getBooksByCategory(String categoryName) {
+        Integer code = categoryName != null ? categoryCodes.get(categoryName) : null;
+        if (code == null) {
+            return Collections.emptyList();
+        }
+        int from = categoryOffsets.get(code);
+        int to = categoryOffsets.get(code + 1);
+        List<BookDTO> books = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            books.add(getBookAt(categoryRows.get(i)));
+        }
+        return books;
+    }
+
+    public List<BookDTO> getAllBooks() {
+        List<BookDTO> books = new ArrayList<>(size);
+        for (int row = 0; row < size; row++) {
+            books.add(getBookAt(row));
+        }
+        return books;
+    }
+
+    /**
+     * @param row position in bookId order, {@code 0 <= row < size()}
+     */
+    public BookDTO getBookAt(int row) {
+        long isbn = isbns.get(row);
+        return BookDTO.builder()
+                .bookId(bookIds.get(row))
+                .title(titleDictionary.decode(titles.get(row)))
+                .authorName(authorDictionary.decode(authors.get(row)))
+                .categoryName(categoryDictionary.decode(categories.get(row)))
+                .isbn(isbn != NULL_LONG ? isbn : null)
+                .publicationYear(yearDictionary.decode(publicationYears.get(row)))
+                .build();
+    }
+
+    static IntBuffer directInts(int capacity) {
+        return ByteBuffer.allocateDirect(capacity * Integer.BYTES).order(ByteOrder.nativeOrder()).asIntBuffer();
+    }
+
+    private static IntBuffer directInts(int[] values, int length) {
+        return directInts(length).put(values, 0, length).clear();
+    }
+
+    private static LongBuffer directLongs(long[] values, int length) {
+        return ByteBuffer.allocateDirect(length * Long.BYTES).order(ByteOrder.nativeOrder()).asLongBuffer()
+                .put(values, 0, length).clear();
+    }
+
+    /**
+     * Collects books in ascending bookId order, as the keyset scan returns them.
+     */
+    public static final class Builder {
+
+        private final long generation;
+
+        private int size;
+
+        private long[] bookIds = new long[1024];
+
+        private long[] isbns = new long[1024];
+
+        private int[] titles = new int[1024];
+
+        private int[] authors = new int[1024];
+
+        private int[] categories = new int[1024];
+
+        private int[] publicationYears = new int[1024];
+
+        private final StringDictionary.Builder titleDictionary = new StringDictionary.Builder();
+
+        private final StringDictionary.Builder authorDictionary = new StringDictionary.Builder();
+
+        private final StringDictionary.Builder categoryDictionary = new StringDictionary.Builder();
+
+        private final StringDictionary.Builder yearDictionary = new StringDictionary.Builder();
+
+        public Builder(long generation) {
+            this.generation = generation;
+        }
+
+        public Builder add(BookDTO book) {
+            if (size > 0 && book.getBookId() <= bookIds[size - 1]) {
+                throw new IllegalArgumentException("Books must be added in ascending bookId order, got "
+                        + book.getBookId() + " after " + bookIds[size - 1]);
+            }
+            if (size == bookIds.length) {
+                int capacity = size * 2;
+                bookIds = Arrays.copyOf(bookIds, capacity);
+                isbns = Arrays.copyOf(isbns, capacity);
+                titles = Arrays.copyOf(titles, capacity);
+                authors = Arrays.copyOf(authors, capacity);
+                categories = Arrays.copyOf(categories, capacity);
+                publicationYears = Arrays.copyOf(publicationYears, capacity);
+            }
+            bookIds[size] = book.getBookId();
+            isbns[size] = book.getIsbn() != null ? book.getIsbn() : NULL_LONG;
+            titles[size] = titleDictionary.encode(book.getTitle());
+            authors[size] = authorDictionary.encode(book.getAuthorName());
+            categories[size] = categoryDictionary.encode(book.getCategoryName());
+            publicationYears[size] = yearDictionary.encode(book.getPublicationYear());
+            size++;
+            return this;
+        }
+
+        public CatalogSnapshot build() {
+            return new CatalogSnapshot(this);
+        }
+    }
+
+}
@@ -0,0 +1,190 @@
+package com.books.snapshot;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * On-disk form of a {@link CatalogSnapshot}: a small header followed by the columns and dictionaries exactly
+ * as they sit in memory, little-endian and 8-byte aligned. {@link #map} hands the sections of the mapped
+ * file to the snapshot as buffer views, so loading costs a header check however large the catalog is and
+ * the pages are faulted in by the reads that need them.
+ */
+final class CatalogSnapshotFile {
+
+    private static final int MAGIC = 0x424b534e;
+
+    private static final int VERSION = 1;
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private CatalogSnapshotFile() {
+    }
+
+    static void write(CatalogSnapshot snapshot, Path file) throws IOException {
+        Path dir = file.toAbsolutePath().getParent();
+        Files.createDirectories(dir);
+        Path tempFile = Files.createTempFile(dir, file.getFileName().toString(), ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(tempFile, StandardOpenOption.WRITE)) {
+                Output out = new Output(channel);
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                snapshot.writeTo(out);
+                out.flush();
+                channel.force(false);
+            }
+            // readers that still have the previous file mapped keep its pages until they unmap it
+            Files.move(tempFile, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+
+    static CatalogSnapshot map(Path file, long generation) throws IOException {
+        ByteBuffer mapped;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Catalog snapshot file too large to map: " + file);
+            }
+            mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        Input in = new Input(mapped.order(ByteOrder.LITTLE_ENDIAN));
+        try {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                throw new IOException("Not a catalog snapshot file of version " + VERSION + ": " + file);
+            }
+            return CatalogSnapshot.read(in, generation);
+        } catch (BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException e) {
+            throw new IOException("Truncated catalog snapshot file: " + file, e);
+        }
+    }
+
+    static final class Output {
+
+        private final FileChannel channel;
+
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+
+        private long position;
+
+        private Output(FileChannel channel) {
+            this.channel = channel;
+        }
+
+        void writeInt(int value) throws IOException {
+            ensure(Integer.BYTES);
+            buffer.putInt(value);
+            position += Integer.BYTES;
+        }
+
+        void writeLong(long value) throws IOException {
+            ensure(Long.BYTES);
+            buffer.putLong(value);
+            position += Long.BYTES;
+        }
+
+        void writeInts(IntBuffer values) throws IOException {
+            align();
+            int length = values.capacity();
+            for (int from = 0; from < length; ) {
+                ensure(Integer.BYTES);
+                int chunk = Math.min(length - from, buffer.remaining() / Integer.BYTES);
+                buffer.asIntBuffer().put(0, values, from, chunk);
+                buffer.position(buffer.position() + chunk * Integer.BYTES);
+                from += chunk;
+            }
+            position += (long) length * Integer.BYTES;
+        }
+
+        void writeLongs(LongBuffer values) throws IOException {
+            align();
+            int length = values.capacity();
+            for (int from = 0; from < length; ) {
+                ensure(Long.BYTES);
+                int chunk = Math.min(length - from, buffer.remaining() / Long.BYTES);
+                buffer.asLongBuffer().put(0, values, from, chunk);
+                buffer.position(buffer.position() + chunk * Long.BYTES);
+                from += chunk;
+            }
+            position += (long) length * Long.BYTES;
+        }
+
+        void writeBytes(ByteBuffer values) throws IOException {
+            align();
+            flush();
+            ByteBuffer source = values.duplicate().clear();
+            while (source.hasRemaining()) {
+                channel.write(source);
+            }
+            position += values.capacity();
+        }
+
+        private void align() throws IOException {
+            while (position % Long.BYTES != 0) {
+                ensure(1);
+                buffer.put((byte) 0);
+                position++;
+            }
+        }
+
+        private void ensure(int bytes) throws IOException {
+            if (buffer.remaining() < bytes) {
+                flush();
+            }
+        }
+
+        private void flush() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+    }
+
+    static final class Input {
+
+        private final ByteBuffer file;
+
+        private Input(ByteBuffer file) {
+            this.file = file;
+        }
+
+        int readInt() {
+            return file.getInt();
+        }
+
+        long readLong() {
+            return file.getLong();
+        }
+
+        IntBuffer readInts(int length) {
+            return section(length * Integer.BYTES).asIntBuffer();
+        }
+
+        LongBuffer readLongs(int length) {
+            return section(length * Long.BYTES).asLongBuffer();
+        }
+
+        ByteBuffer readBytes(int length) {
+            return section(length);
+        }
+
+        private ByteBuffer section(int bytes) {
+            file.position((file.position() + Long.BYTES - 1) & -Long.BYTES);
+            ByteBuffer section = file.slice(file.position(), bytes).order(ByteOrder.LITTLE_ENDIAN);
+            file.position(file.position() + bytes);
+            return section;
+        }
+    }
+
+}
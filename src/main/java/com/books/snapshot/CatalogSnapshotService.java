@@ -0,0 +1,282 @@
+package com.books.snapshot;
+
+import com.books.dto.BookDTO;
+import com.books.dto.SnapshotStatsDTO;
+import com.books.entities.BookEntity;
+import com.books.repository.BookRepository;
+import com.books.service.BookChange;
+import com.books.service.BookChangeListener;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Snapshot serving mode ({@code books.snapshot.enabled}). Every committed write bumps the catalog
+ * generation and schedules a rebuild on a background thread, coalescing the writes of the next
+ * {@code books.snapshot.rebuild-delay}; the new snapshot replaces the old one in a single volatile write.
+ * {@link #current()} only hands out a snapshot built at the latest generation, so reads go back to JPA
+ * while a rebuild is pending and never see data older than their own writes.
+ * <p>
+ * With {@code books.snapshot.file} set, every rebuild is also written to that file and a restarted node maps
+ * it before it takes traffic, serving the catalog as of its last rebuild right away. The first rebuild then
+ * reconciles it with the database in the background after {@code books.snapshot.rebuild-delay}; until then
+ * reads may miss writes other nodes made while this one was down, but never its own.
+ */
+@Component
+public class CatalogSnapshotService implements BookChangeListener {
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogSnapshotService.class);
+
+    private static final String SOURCE_FILE = "file";
+
+    private static final String SOURCE_DATABASE = "database";
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${books.snapshot.enabled:false}")
+    private boolean enabled;
+
+    @Value("${books.snapshot.build-page-size:5000}")
+    private int pageSize = 5000;
+
+    @Value("${books.snapshot.rebuild-delay:500ms}")
+    private Duration rebuildDelay = Duration.ofMillis(500);
+
+    @Value("${books.snapshot.file:}")
+    private String file = "";
+
+    private final AtomicLong generation = new AtomicLong();
+
+    private final AtomicBoolean rebuildScheduled = new AtomicBoolean();
+
+    // a lock rather than a monitor, so a rebuild paging through the catalog doesn't pin the carrier of a virtual thread
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+
+    private final ScheduledExecutorService rebuilder = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "books-snapshot");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile CatalogSnapshot snapshot;
+
+    private volatile long lastBuildMillis;
+
+    private volatile String source;
+
+    private volatile Long reconciledChanges;
+
+    // since JVM start, -1 until a read is answered from a snapshot
+    private final AtomicLong firstWarmResponseMillis = new AtomicLong(-1);
+
+    @PostConstruct
+    public void load() {
+        if (!enabled || file.isBlank() || !Files.isRegularFile(Path.of(file))) {
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            CatalogSnapshot loaded = CatalogSnapshotFile.map(Path.of(file), generation.get());
+            snapshot = loaded;
+            source = SOURCE_FILE;
+            lastBuildMillis = (System.nanoTime() - start) / 1_000_000;
+            log.info("Mapped catalog snapshot of {} books built at {} from {} in {} ms", loaded.size(),
+                    loaded.builtAt(), file, lastBuildMillis);
+        } catch (IOException e) {
+            log.warn("Ignoring unreadable catalog snapshot file {}, building from the database", file, e);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (enabled) {
+            TimeGauge.builder("books.snapshot.first-warm-response", firstWarmResponseMillis, TimeUnit.MILLISECONDS,
+                            millis -> millis.get() < 0 ? Double.NaN : millis.get())
+                    .description("Time from JVM start to the first read answered from the catalog snapshot")
+                    .register(meterRegistry);
+            scheduleRebuild(SOURCE_FILE.equals(source) ? rebuildDelay : Duration.ZERO);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        rebuilder.shutdownNow();
+    }
+
+    /**
+     * @return the snapshot if it reflects every committed write, otherwise {@code null}
+     */
+    public CatalogSnapshot current() {
+        CatalogSnapshot current = snapshot;
+        if (!isCurrent(current)) {
+            return null;
+        }
+        if (firstWarmResponseMillis.get() < 0) {
+            recordFirstWarmResponse();
+        }
+        return current;
+    }
+
+    @Override
+    public void onBooksChanged(List<BookChange> changes) {
+        if (!enabled) {
+            return;
+        }
+        generation.incrementAndGet();
+        scheduleRebuild(rebuildDelay);
+    }
+
+    public CatalogSnapshot rebuild() {
+        rebuildLock.lock();
+        try {
+            return buildFromDatabase();
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    // called under the rebuild lock
+    private CatalogSnapshot buildFromDatabase() {
+        rebuildScheduled.set(false);
+        long start = System.nanoTime();
+        long buildGeneration = generation.get();
+        CatalogSnapshot.Builder builder = new CatalogSnapshot.Builder(buildGeneration);
+        long cursor = Long.MIN_VALUE;
+        while (true) {
+            List<BookEntity> page = bookRepository.findPageAfter(cursor, PageRequest.of(0, pageSize));
+            if (page == null || page.isEmpty()) {
+                break;
+            }
+            page.forEach(bookEntity -> builder.add(BookDTO.toBookDto(bookEntity)));
+            cursor = page.get(page.size() - 1).getBookId();
+            if (page.size() < pageSize) {
+                break;
+            }
+        }
+        CatalogSnapshot built = builder.build();
+        boolean reconciling = SOURCE_FILE.equals(source);
+        long changes = reconciling ? countChanges(snapshot, built) : -1;
+        snapshot = built;
+        source = SOURCE_DATABASE;
+        lastBuildMillis = (System.nanoTime() - start) / 1_000_000;
+        log.debug("Catalog snapshot of {} books ({} bytes off heap) built in {} ms", built.size(),
+                built.offHeapBytes(), lastBuildMillis);
+        if (reconciling) {
+            reconciledChanges = changes;
+            log.info("Reconciled the mapped catalog snapshot with the database, {} books differed", changes);
+        }
+        if (!file.isBlank() && changes != 0) {
+            persist(built);
+        }
+        // a write committed while the pages were read makes this snapshot stale already
+        if (enabled && generation.get() != buildGeneration) {
+            scheduleRebuild(rebuildDelay);
+        }
+        return built;
+    }
+
+    public SnapshotStatsDTO stats() {
+        CatalogSnapshot current = snapshot;
+        return SnapshotStatsDTO.builder()
+                .enabled(enabled)
+                .serving(isCurrent(current))
+                .generation(generation.get())
+                .snapshotGeneration(current != null ? current.generation() : null)
+                .books(current != null ? current.size() : 0)
+                .offHeapBytes(current != null ? current.offHeapBytes() : 0)
+                .builtAt(current != null ? current.builtAt() : null)
+                .buildMillis(lastBuildMillis)
+                .source(current != null ? source : null)
+                .reconciledChanges(reconciledChanges)
+                .timeToFirstWarmResponseMillis(firstWarmResponseMillis.get() >= 0 ? firstWarmResponseMillis.get() : null)
+                .build();
+    }
+
+    private boolean isCurrent(CatalogSnapshot current) {
+        return current != null && current.generation() == generation.get();
+    }
+
+    private void recordFirstWarmResponse() {
+        long millis = System.currentTimeMillis() - ManagementFactory.getRuntimeMXBean().getStartTime();
+        if (firstWarmResponseMillis.compareAndSet(-1, millis)) {
+            log.info("First read answered from the {} catalog snapshot {} ms after JVM start", source, millis);
+        }
+    }
+
+    // books added, removed or changed between the two snapshots
+    private static long countChanges(CatalogSnapshot previous, CatalogSnapshot current) {
+        List<BookDTO> before = previous.getAllBooks();
+        List<BookDTO> after = current.getAllBooks();
+        long changes = 0;
+        int i = 0;
+        int j = 0;
+        while (i < before.size() && j < after.size()) {
+            int order = before.get(i).getBookId().compareTo(after.get(j).getBookId());
+            if (order == 0) {
+                if (!before.get(i).equals(after.get(j))) {
+                    changes++;
+                }
+                i++;
+                j++;
+            } else {
+                changes++;
+                if (order < 0) {
+                    i++;
+                } else {
+                    j++;
+                }
+            }
+        }
+        return changes + (before.size() - i) + (after.size() - j);
+    }
+
+    private void persist(CatalogSnapshot built) {
+        long start = System.nanoTime();
+        try {
+            CatalogSnapshotFile.write(built, Path.of(file));
+            log.debug("Wrote catalog snapshot of {} books to {} in {} ms", built.size(), file,
+                    (System.nanoTime() - start) / 1_000_000);
+        } catch (IOException e) {
+            log.warn("Could not write the catalog snapshot to {}, the next restart starts cold", file, e);
+        }
+    }
+
+    private void scheduleRebuild(Duration delay) {
+        if (rebuildScheduled.compareAndSet(false, true)) {
+            rebuilder.schedule(() -> {
+                try {
+                    rebuild();
+                } catch (RuntimeException e) {
+                    log.error("Catalog snapshot rebuild failed, reads stay on JPA until the next write", e);
+                }
+            }, delay.toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+}
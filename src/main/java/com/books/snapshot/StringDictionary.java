@@ -0,0 +1,103 @@
+package com.books.snapshot;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Distinct strings stored once as UTF-8 in a direct buffer; rows refer to them by code, {@code -1} for null.
+ */
+final class StringDictionary {
+
+    static final int NULL = -1;
+
+    private final ByteBuffer bytes;
+
+    // start of every entry plus the end of the last one
+    private final IntBuffer offsets;
+
+    private final int size;
+
+    private StringDictionary(ByteBuffer bytes, IntBuffer offsets, int size) {
+        this.bytes = bytes;
+        this.offsets = offsets;
+        this.size = size;
+    }
+
+    String decode(int code) {
+        if (code == NULL) {
+            return null;
+        }
+        int start = offsets.get(code);
+        byte[] utf8 = new byte[offsets.get(code + 1) - start];
+        bytes.get(start, utf8);
+        return new String(utf8, StandardCharsets.UTF_8);
+    }
+
+    int size() {
+        return size;
+    }
+
+    long offHeapBytes() {
+        return bytes.capacity() + (long) offsets.capacity() * Integer.BYTES;
+    }
+
+    void writeTo(CatalogSnapshotFile.Output out) throws IOException {
+        out.writeInt(size);
+        out.writeInt(bytes.capacity());
+        out.writeInts(offsets);
+        out.writeBytes(bytes);
+    }
+
+    static StringDictionary read(CatalogSnapshotFile.Input in) {
+        int size = in.readInt();
+        int length = in.readInt();
+        IntBuffer offsets = in.readInts(size + 1);
+        return new StringDictionary(in.readBytes(length), offsets, size);
+    }
+
+    static final class Builder {
+
+        private final Map<String, Integer> codes = new HashMap<>();
+
+        private final List<byte[]> values = new ArrayList<>();
+
+        private int totalBytes;
+
+        int encode(String value) {
+            if (value == null) {
+                return NULL;
+            }
+            Integer code = codes.get(value);
+            if (code == null) {
+                byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+                code = values.size();
+                codes.put(value, code);
+                values.add(utf8);
+                totalBytes += utf8.length;
+            }
+            return code;
+        }
+
+        Map<String, Integer> codes() {
+            return codes;
+        }
+
+        StringDictionary build() {
+            ByteBuffer bytes = ByteBuffer.allocateDirect(totalBytes);
+            IntBuffer offsets = CatalogSnapshot.directInts(values.size() + 1);
+            for (byte[] value : values) {
+                offsets.put(bytes.position());
+                bytes.put(value);
+            }
+            offsets.put(bytes.position());
+            return new StringDictionary(bytes.clear(), offsets.clear(), values.size());
+        }
+    }
+
+}
@@ -0,0 +1,24 @@
+-- Tables as Hibernate's ddl-auto=update created them; existing schemas keep their tables untouched.
+CREATE TABLE IF NOT EXISTS author (
+    author_id   BIGINT       NOT NULL AUTO_INCREMENT,
+    author_name VARCHAR(255),
+    PRIMARY KEY (author_id)
+);
+
+CREATE TABLE IF NOT EXISTS category (
+    category_id   BIGINT       NOT NULL AUTO_INCREMENT,
+    category_name VARCHAR(255),
+    PRIMARY KEY (category_id)
+);
+
+CREATE TABLE IF NOT EXISTS books (
+    book_id          BIGINT       NOT NULL,
+    title            VARCHAR(255),
+    author_id        BIGINT,
+    category_id      BIGINT,
+    isbn             BIGINT,
+    publication_year VARCHAR(255),
+    PRIMARY KEY (book_id),
+    CONSTRAINT fk_books_author FOREIGN KEY (author_id) REFERENCES author (author_id),
+    CONSTRAINT fk_books_category FOREIGN KEY (category_id) REFERENCES category (category_id)
+);
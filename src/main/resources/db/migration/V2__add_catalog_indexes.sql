@@ -0,0 +1,32 @@
+-- Merge authors and categories duplicated by concurrent get-or-create before making names unique:
+-- books are repointed to the lowest id of each name and the other rows removed.
+UPDATE books
+SET author_id = (SELECT MIN(a2.author_id)
+                 FROM author a1
+                          JOIN author a2 ON a2.author_name = a1.author_name
+                 WHERE a1.author_id = books.author_id)
+WHERE author_id IN (SELECT author_id FROM author WHERE author_name IS NOT NULL);
+
+DELETE FROM author
+WHERE author_name IS NOT NULL
+  AND author_id NOT IN (SELECT keep_id
+                        FROM (SELECT MIN(author_id) AS keep_id FROM author GROUP BY author_name) kept);
+
+UPDATE books
+SET category_id = (SELECT MIN(c2.category_id)
+                   FROM category c1
+                            JOIN category c2 ON c2.category_name = c1.category_name
+                   WHERE c1.category_id = books.category_id)
+WHERE category_id IN (SELECT category_id FROM category WHERE category_name IS NOT NULL);
+
+DELETE FROM category
+WHERE category_name IS NOT NULL
+  AND category_id NOT IN (SELECT keep_id
+                          FROM (SELECT MIN(category_id) AS keep_id FROM category GROUP BY category_name) kept);
+
+-- Duplicate ISBNs can't be merged automatically; the migration stops here until they are resolved.
+CREATE UNIQUE INDEX uk_author_name ON author (author_name);
+CREATE UNIQUE INDEX uk_category_name ON category (category_name);
+CREATE UNIQUE INDEX uk_books_isbn ON books (isbn);
+CREATE INDEX idx_books_author_id ON books (author_id);
+CREATE INDEX idx_books_category_id ON books (category_id);
@@ -0,0 +1,8 @@
+-- The publication year as a number for range filters; years that aren't plain numbers stay null.
+ALTER TABLE books ADD COLUMN published_year INT;
+
+UPDATE books
+SET published_year = CAST(TRIM(publication_year) AS DECIMAL(6, 0))
+WHERE TRIM(publication_year) REGEXP '^-?[0-9]{1,5}$';
+
+CREATE INDEX idx_books_published_year ON books (published_year);
@@ -0,0 +1,83 @@
+package com.books.cache;
+
+import com.books.dto.BookDTO;
+import com.books.service.BookChange;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BookResponseCacheTest {
+
+    private final BookResponseCache cache = new BookResponseCache(100, Duration.ofMinutes(10));
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    void concurrentMissesLoadOnce() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<BookDTO>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(executor.submit(() -> cache.getBook(1L, id -> {
+                    loads.incrementAndGet();
+                    try {
+                        assertTrue(release.await(5, TimeUnit.SECONDS));
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return Optional.of(BookDTO.builder().bookId(id).title("coalesced").build());
+                })));
+            }
+            Thread.sleep(100);
+            release.countDown();
+            for (Future<BookDTO> result : results) {
+                assertEquals("coalesced", result.get(5, TimeUnit.SECONDS).getTitle());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void changeEvictsBookAndBothCategories() {
+        readAll();
+        readAll();
+        assertEquals(4, loads.get());
+
+        cache.onBooksChanged(List.of(BookChange.builder()
+                .bookId(1L)
+                .previous(BookDTO.builder().bookId(1L).categoryName("FUN").build())
+                .current(BookDTO.builder().bookId(1L).categoryName("HORROR").build())
+                .build()));
+
+        readAll();
+        assertEquals(7, loads.get());
+    }
+
+    private void readAll() {
+        cache.getBook(1L, id -> {
+            loads.incrementAndGet();
+            return Optional.of(BookDTO.builder().bookId(id).build());
+        });
+        for (String category : List.of("FUN", "HORROR", "COOKING")) {
+            cache.getBooksByCategory(category, name -> {
+                loads.incrementAndGet();
+                return List.of();
+            });
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.books.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class JsonResponseCacheTest {
+
+    private final JsonResponseCache cache = new JsonResponseCache(100, Duration.ofMinutes(10));
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    void unknownCategoriesAreNotCached() {
+        for (int i = 0; i < 3; i++) {
+            assertNull(cache.getBooksByCategory("no such category", name -> {
+                loads.incrementAndGet();
+                return Optional.empty();
+            }));
+        }
+        assertEquals(3, loads.get());
+    }
+
+    @Test
+    void knownCategoriesAreCached() {
+        for (int i = 0; i < 3; i++) {
+            cache.getBooksByCategory("HORROR", name -> {
+                loads.incrementAndGet();
+                return Optional.of("[]".getBytes(StandardCharsets.UTF_8));
+            });
+        }
+        assertEquals(1, loads.get());
+    }
+}
@@ -0,0 +1,121 @@
+package com.books.changes;
+
+import com.books.dto.BookChangeDTO;
+import com.books.dto.BookChangesDTO;
+import com.books.dto.BookDTO;
+import com.books.service.BookChange;
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Subscription;
+import reactor.core.publisher.BaseSubscriber;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BookChangeLogTest {
+
+    private static BookChange change(long bookId, String title) {
+        return BookChange.builder()
+                .bookId(bookId)
+                .current(BookDTO.builder().bookId(bookId).title(title).build())
+                .build();
+    }
+
+    private static List<Long> versions(List<BookChangeDTO> changes) {
+        return changes.stream().map(BookChangeDTO::getVersion).toList();
+    }
+
+    @Test
+    void deltaHoldsTheLatestChangeOfEachBook() {
+        BookChangeLog log = new BookChangeLog(10, 10);
+        long start = log.version();
+        log.onBooksChanged(List.of(change(1, "first"), change(2, "second")));
+        log.onBooksChanged(List.of(change(1, "first, revised")));
+
+        BookChangesDTO changes = log.getChangesSince(start, 100);
+        assertEquals(start + 3, changes.getVersion());
+        assertFalse(changes.isResync());
+        assertFalse(changes.isMore());
+        assertEquals(List.of(2L, 1L), changes.getChanges().stream().map(BookChangeDTO::getBookId).toList());
+        assertEquals(List.of(start + 2, start + 3), versions(changes.getChanges()));
+        assertEquals("first, revised", changes.getChanges().get(1).getBook().getTitle());
+
+        BookChangesDTO firstPage = log.getChangesSince(start, 1);
+        assertEquals(start + 1, firstPage.getVersion());
+        assertTrue(firstPage.isMore());
+        assertEquals(List.of(start + 1), versions(firstPage.getChanges()));
+
+        assertTrue(log.getChangesSince(start + 3, 100).getChanges().isEmpty());
+        BookChangesDTO current = log.getChangesSince(null, 100);
+        assertEquals(start + 3, current.getVersion());
+        assertTrue(current.getChanges().isEmpty());
+    }
+
+    @Test
+    void versionsOutOfReachAskForResync() {
+        BookChangeLog log = new BookChangeLog(3, 10);
+        long start = log.version();
+        for (long bookId = 1; bookId <= 5; bookId++) {
+            log.onBooksChanged(List.of(change(bookId, "title" + bookId)));
+        }
+
+        assertTrue(log.getChangesSince(start + 1, 100).isResync());
+        assertEquals(List.of(start + 3, start + 4, start + 5), versions(log.getChangesSince(start + 2, 100).getChanges()));
+        // versions of a previous run are all below the first one of this run
+        assertTrue(log.getChangesSince(start - 1000, 100).isResync());
+        assertTrue(log.getChangesSince(start + 6, 100).isResync());
+    }
+
+    @Test
+    void subscriberGetsTheBacklogThenLiveChanges() throws Exception {
+        BookChangeLog log = new BookChangeLog(10, 10);
+        long start = log.version();
+        log.onBooksChanged(List.of(change(1, "first"), change(2, "second")));
+
+        CompletableFuture<List<BookChangeDTO>> received = log.subscribe(start + 1).take(2).collectList().toFuture();
+        log.onBooksChanged(List.of(change(3, "third")));
+
+        assertEquals(List.of(start + 2, start + 3), versions(received.get(5, TimeUnit.SECONDS)));
+    }
+
+    @Test
+    void slowSubscriberGetsItsBufferThenAGap() {
+        BookChangeLog log = new BookChangeLog(10, 2);
+        long start = log.version();
+        List<Long> received = new ArrayList<>();
+        List<Throwable> errors = new ArrayList<>();
+        BaseSubscriber<BookChangeDTO> slow = new BaseSubscriber<>() {
+            @Override
+            protected void hookOnSubscribe(Subscription subscription) {
+                // no demand until the test asks for it
+            }
+
+            @Override
+            protected void hookOnNext(BookChangeDTO change) {
+                received.add(change.getVersion());
+            }
+
+            @Override
+            protected void hookOnError(Throwable error) {
+                errors.add(error);
+            }
+        };
+        log.subscribe(null).subscribe(slow);
+
+        log.onBooksChanged(Arrays.asList(change(1, "a"), change(2, "b"), change(3, "c")));
+        slow.request(Long.MAX_VALUE);
+
+        assertEquals(List.of(start + 1, start + 2), received);
+        assertEquals(1, errors.size());
+        assertInstanceOf(ChangeLogGapException.class, errors.get(0));
+        assertEquals(start + 2, ((ChangeLogGapException) errors.get(0)).getVersion());
+    }
+
+}
@@ -0,0 +1,122 @@
+package com.books.controller;
+
+import com.books.cache.CatalogVersion;
+import com.books.dto.BookDTO;
+import com.books.dto.ExportSnapshotDTO;
+import com.books.entities.AuthorEntity;
+import com.books.entities.BookEntity;
+import com.books.entities.CategoryEntity;
+import com.books.repository.AuthorRepository;
+import com.books.repository.BookRepository;
+import com.books.repository.CategoryRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class BookAdminControllerTest {
+
+    @TempDir
+    static Path snapshotDir;
+
+    @DynamicPropertySource
+    static void snapshotDir(DynamicPropertyRegistry registry) {
+        registry.add("books.export.snapshot-dir", () -> snapshotDir.toString());
+    }
+
+    @MockBean
+    private BookRepository bookRepository;
+
+    @MockBean
+    private AuthorRepository authorRepository;
+
+    @MockBean
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private CatalogVersion catalogVersion;
+
+    private static BookEntity book(long bookId) {
+        return BookEntity.builder()
+                .bookId(bookId)
+                .title("title" + bookId)
+                .authorEntity(AuthorEntity.builder().authorName("abc").build())
+                .categoryEntity(CategoryEntity.builder().categoryName("Fun").build())
+                .isbn(1000 + bookId)
+                .build();
+    }
+
+    @Test
+    void clearingTheCachesDropsThePreEncodedJson() {
+        Mockito.when(bookRepository.findByCategoryName("Cleared")).thenReturn(List.of(book(7)));
+        restTemplate.getForEntity("/books/categories/Cleared", String.class);
+        restTemplate.getForEntity("/books/categories/Cleared", String.class);
+        Mockito.verify(bookRepository, Mockito.times(1)).findByCategoryName("Cleared");
+
+        restTemplate.delete("/books/admin/caches");
+        ResponseEntity<String> reloaded = restTemplate.getForEntity("/books/categories/Cleared", String.class);
+
+        assertEquals(HttpStatus.OK, reloaded.getStatusCode());
+        Mockito.verify(bookRepository, Mockito.times(2)).findByCategoryName("Cleared");
+    }
+
+    @Test
+    void exportSnapshotIsWrittenOncePerCatalogVersionAndServedFromDisk() throws Exception {
+        Mockito.when(bookRepository.streamAllOrderedById()).thenAnswer(invocation -> Stream.of(book(1), book(2)));
+        assertEquals(HttpStatus.NOT_FOUND,
+                restTemplate.getForEntity("/books/admin/exports?format=csv", String.class).getStatusCode());
+
+        ExportSnapshotDTO first = restTemplate.postForObject("/books/admin/exports?format=ndjson", null, ExportSnapshotDTO.class);
+        ExportSnapshotDTO again = restTemplate.postForObject("/books/admin/exports?format=ndjson", null, ExportSnapshotDTO.class);
+
+        assertEquals(2, first.getRows());
+        assertEquals(first, again);
+        Mockito.verify(bookRepository, Mockito.times(1)).streamAllOrderedById();
+
+        ResponseEntity<byte[]> download = restTemplate.getForEntity("/books/admin/exports?format=ndjson", byte[].class);
+        assertEquals(HttpStatus.OK, download.getStatusCode());
+        byte[] expected = (objectMapper.writeValueAsString(BookDTO.toBookDto(book(1))) + "\n"
+                + objectMapper.writeValueAsString(BookDTO.toBookDto(book(2))) + "\n").getBytes();
+        assertArrayEquals(expected, download.getBody());
+        assertEquals("\"" + first.getCatalogVersion() + "\"", download.getHeaders().getETag());
+        assertArrayEquals(expected, Files.readAllBytes(snapshotDir.resolve(first.getFileName())));
+
+        catalogVersion.onBooksChanged(List.of());
+        ExportSnapshotDTO second = restTemplate.postForObject("/books/admin/exports?format=ndjson", null, ExportSnapshotDTO.class);
+        assertNotEquals(first.getFileName(), second.getFileName());
+        assertTrue(Files.exists(snapshotDir.resolve(first.getFileName())));
+
+        catalogVersion.onBooksChanged(List.of());
+        ExportSnapshotDTO third = restTemplate.postForObject("/books/admin/exports?format=ndjson", null, ExportSnapshotDTO.class);
+        assertFalse(Files.exists(snapshotDir.resolve(first.getFileName())));
+        assertTrue(Files.exists(snapshotDir.resolve(second.getFileName())));
+        assertTrue(Files.exists(snapshotDir.resolve(third.getFileName())));
+    }
+
+}
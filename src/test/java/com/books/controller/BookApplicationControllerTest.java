@@ -1,14 +1,23 @@
 package com.books.controller;
 
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import com.books.cache.BookResponseCache;
+import com.books.cache.JsonResponseCache;
+import com.books.cache.DimensionCache;
+import com.books.changes.BookChangeLog;
 import com.books.dto.AuthorDTO;
+import com.books.dto.BookBatchDTO;
+import com.books.dto.BookChangesDTO;
 import com.books.dto.BookDTO;
+import com.books.dto.BookFilterDTO;
 import com.books.entities.AuthorEntity;
 import com.books.entities.BookEntity;
 import com.books.entities.CategoryEntity;
 import com.books.repository.AuthorRepository;
 import com.books.repository.BookRepository;
 import com.books.repository.CategoryRepository;
+import com.books.search.BookFacetIndex;
+import com.books.service.BookChange;
 import com.books.service.BookService;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -24,6 +33,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
@@ -32,13 +42,19 @@ import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.ResultActions;
 
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
 import java.util.stream.Collectors;
+import java.util.stream.LongStream;
 import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @SpringBootTest
@@ -54,9 +70,34 @@ class BookApplicationControllerTest {
     private CategoryRepository categoryRepository;
     @Autowired
     private MockMvc mockMvc;
+    @Autowired
+    private DimensionCache dimensionCache;
+    @Autowired
+    private BookResponseCache bookResponseCache;
+    @Autowired
+    private JsonResponseCache jsonResponseCache;
+    @Autowired
+    private BookChangeLog bookChangeLog;
+    @Autowired
+    private BookFacetIndex bookFacetIndex;
     @InjectMocks
     private BookApplicationController bookController;
 
+    @BeforeEach
+    void clearCaches() {
+        dimensionCache.invalidateAll();
+        bookResponseCache.invalidateAll();
+        jsonResponseCache.invalidateAll();
+    }
+
+    @BeforeEach
+    void stubDimensions() {
+        Mockito.when(authorRepository.findByAuthorName(Mockito.anyString())).thenAnswer(invocation ->
+                AuthorEntity.builder().authorId(1L).authorName(invocation.getArgument(0)).build());
+        Mockito.when(categoryRepository.findByCategoryName(Mockito.anyString())).thenAnswer(invocation ->
+                CategoryEntity.builder().categoryId(1L).categoryName(invocation.getArgument(0)).build());
+    }
+
     @Test
     void testGetAllBooks() throws Exception {
         List<BookEntity> books = Collections.singletonList(new BookEntity().builder()
@@ -101,6 +142,109 @@ class BookApplicationControllerTest {
         assertEquals("", result.getResponse().getContentAsString());
     }
 
+    @Test
+    void testGetBooksPage() throws Exception {
+        List<BookEntity> books = Stream.of(5L, 6L)
+                .map(id -> BookEntity.builder()
+                        .bookId(id)
+                        .title("title" + id)
+                        .authorEntity(AuthorEntity.builder().authorName("abc").build())
+                        .categoryEntity(CategoryEntity.builder().categoryName("Fun").build())
+                        .isbn(100L + id)
+                        .publicationYear("1990")
+                        .build())
+                .collect(Collectors.toList());
+        Mockito.when(bookRepository.findPageAfter(Mockito.eq(4L), Mockito.any())).thenReturn(books);
+
+        MvcResult result = mockMvc.perform(
+                        get("/books").param("after", "4").param("limit", "2")
+                                .contentType(MediaType.APPLICATION_JSON_VALUE))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        ObjectMapper objectMapper = new ObjectMapper();
+        List<BookDTO> bookDTOs = books.stream().map(BookDTO::toBookDto).collect(Collectors.toList());
+        assertEquals(objectMapper.writeValueAsString(bookDTOs), result.getResponse().getContentAsString());
+        assertEquals("6", result.getResponse().getHeader(BookApplicationController.NEXT_CURSOR_HEADER));
+    }
+
+    @Test
+    void testGetBookByIsbn() throws Exception {
+        BookEntity book = BookEntity.builder()
+                .bookId(7L)
+                .title("isbn")
+                .authorEntity(AuthorEntity.builder().authorName("abc").build())
+                .categoryEntity(CategoryEntity.builder().categoryName("Fun").build())
+                .isbn(9780261103573L)
+                .publicationYear("1954")
+                .build();
+        Mockito.when(bookRepository.findByIsbn(9780261103573L)).thenReturn(book);
+
+        MvcResult result = mockMvc.perform(get("/books/isbn/9780261103573"))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        ObjectMapper objectMapper = new ObjectMapper();
+        assertEquals(objectMapper.writeValueAsString(BookDTO.toBookDto(book)), result.getResponse().getContentAsString());
+
+        mockMvc.perform(get("/books/isbn/1"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void testStreamBooks() throws Exception {
+        BookEntity book = BookEntity.builder()
+                .bookId(1L)
+                .title("streamed")
+                .authorEntity(AuthorEntity.builder().authorName("abc").build())
+                .categoryEntity(CategoryEntity.builder().categoryName("Fun").build())
+                .isbn(1887L)
+                .publicationYear("1980")
+                .build();
+        Mockito.when(bookRepository.streamAllOrderedById()).thenReturn(Stream.of(book));
+
+        MvcResult asyncResult = mockMvc.perform(get("/books").param("stream", "true"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        MvcResult result = mockMvc.perform(asyncDispatch(asyncResult))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        ObjectMapper objectMapper = new ObjectMapper();
+        String expectedResponse = objectMapper.writeValueAsString(Collections.singletonList(BookDTO.toBookDto(book)));
+        assertEquals(expectedResponse, result.getResponse().getContentAsString());
+    }
+
+    @Test
+    void testExportBooksAsGzippedCsv() throws Exception {
+        BookEntity book = BookEntity.builder()
+                .bookId(1L)
+                .title("Eats, Shoots \"and\" Leaves")
+                .authorEntity(AuthorEntity.builder().authorName("abc").build())
+                .isbn(1887L)
+                .publicationYear("2003")
+                .build();
+        Mockito.when(bookRepository.streamAllOrderedById()).thenReturn(Stream.of(book));
+
+        MvcResult asyncResult = mockMvc.perform(get("/books/export").param("format", "csv").param("gzip", "true"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        MvcResult result = mockMvc.perform(asyncDispatch(asyncResult))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        assertEquals("application/gzip", result.getResponse().getContentType());
+        assertEquals("attachment; filename=\"catalog.csv.gz\"", result.getResponse().getHeader(HttpHeaders.CONTENT_DISPOSITION));
+        try (GZIPInputStream csv = new GZIPInputStream(new ByteArrayInputStream(result.getResponse().getContentAsByteArray()))) {
+            assertEquals("bookId,title,authorName,categoryName,isbn,publicationYear\n"
+                            + "1,\"Eats, Shoots \"\"and\"\" Leaves\",abc,,1887,2003\n",
+                    new String(csv.readAllBytes(), StandardCharsets.UTF_8));
+        }
+
+        mockMvc.perform(get("/books/export").param("format", "xml"))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void testGetBookById() throws Exception {
         // Create a sample book entity
@@ -131,6 +275,73 @@ class BookApplicationControllerTest {
         assertEquals(expectedResponse, result.getResponse().getContentAsString());
     }
 
+    @Test
+    void testGetBookByIdNotModified() throws Exception {
+        BookEntity book = BookEntity.builder()
+                .bookId(3L)
+                .title("Cached")
+                .authorEntity(AuthorEntity.builder().authorName("Hamid").build())
+                .categoryEntity(CategoryEntity.builder().categoryName("Fun").build())
+                .build();
+        Mockito.when(bookRepository.findById(3L)).thenReturn(Optional.of(book));
+
+        String etag = mockMvc.perform(get("/books/{bookId}", 3L))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        bookResponseCache.invalidateAll();
+        jsonResponseCache.invalidateAll();
+
+        mockMvc.perform(get("/books/{bookId}", 3L).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+        Mockito.verify(bookRepository, Mockito.times(1)).findById(3L);
+
+        Mockito.when(bookRepository.save(Mockito.any(BookEntity.class))).thenReturn(book);
+        ObjectMapper objectMapper = new ObjectMapper();
+        mockMvc.perform(post("/books")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(Collections.singletonList(BookDTO.toBookDto(book)))))
+                .andExpect(status().isOk());
+
+        MvcResult result = mockMvc.perform(get("/books/{bookId}", 3L).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andReturn();
+        Assertions.assertNotEquals(etag, result.getResponse().getHeader(HttpHeaders.ETAG));
+    }
+
+    @Test
+    void testBatchGetBooks() throws Exception {
+        List<BookEntity> books = Stream.of(7L, 2L)
+                .map(id -> BookEntity.builder()
+                        .bookId(id)
+                        .title("title" + id)
+                        .authorEntity(AuthorEntity.builder().authorName("abc").build())
+                        .categoryEntity(CategoryEntity.builder().categoryName("Fun").build())
+                        .build())
+                .collect(Collectors.toList());
+        Mockito.when(bookRepository.findAllByIdIn(List.of(2L, 9L, 7L))).thenReturn(books);
+        ObjectMapper objectMapper = new ObjectMapper();
+        BookBatchDTO expected = BookBatchDTO.builder()
+                .books(List.of(BookDTO.toBookDto(books.get(1)), BookDTO.toBookDto(books.get(0))))
+                .missingIds(List.of(9L))
+                .build();
+
+        MvcResult posted = mockMvc.perform(post("/books/batch-get")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[2, 9, 7, 2]"))
+                .andExpect(status().isOk())
+                .andReturn();
+        assertEquals(objectMapper.writeValueAsString(expected), posted.getResponse().getContentAsString());
+
+        MvcResult fetched = mockMvc.perform(get("/books/batch-get").param("ids", "2,9,7"))
+                .andExpect(status().isOk())
+                .andReturn();
+        assertEquals(objectMapper.writeValueAsString(expected), fetched.getResponse().getContentAsString());
+
+        String tooMany = LongStream.rangeClosed(1, 10001).mapToObj(String::valueOf).collect(Collectors.joining(",", "[", "]"));
+        mockMvc.perform(post("/books/batch-get").contentType(MediaType.APPLICATION_JSON).content(tooMany))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void testGetBookByIdNotFound() throws Exception {
         Mockito.when(bookRepository.findById(1L)).thenReturn(Optional.empty());
@@ -212,29 +423,69 @@ class BookApplicationControllerTest {
         assertEquals(HttpStatus.OK.value(), result.andReturn().getResponse().getStatus());
     }
 
+    @Test
+    void testFilterBooks() throws Exception {
+        List<BookEntity> westerns = Stream.of(801L, 802L)
+                .map(id -> BookEntity.builder()
+                        .bookId(id)
+                        .title("western" + id)
+                        .authorEntity(AuthorEntity.builder().authorName("Zane Grey").build())
+                        .categoryEntity(CategoryEntity.builder().categoryName("Westerns").build())
+                        .publicationYear(id == 801L ? "1912" : "1925")
+                        .build())
+                .collect(Collectors.toList());
+        bookFacetIndex.indexIfAbsent(westerns.stream().map(BookDTO::toBookDto).collect(Collectors.toList()));
+        Mockito.when(bookRepository.findAllByIdIn(List.of(801L))).thenReturn(westerns.subList(0, 1));
 
+        MvcResult result = mockMvc.perform(get("/books/filter")
+                        .param("category", "WESTERNS")
+                        .param("yearTo", "1920")
+                        .param("limit", "1"))
+                .andExpect(status().isOk())
+                .andReturn();
+        BookFilterDTO filtered = new ObjectMapper().readValue(result.getResponse().getContentAsString(), BookFilterDTO.class);
+        assertEquals(1, filtered.getTotal());
+        assertEquals(List.of(BookDTO.toBookDto(westerns.get(0))), filtered.getBooks());
+        assertEquals(Map.of("Zane Grey", 1L), filtered.getAuthors());
+        assertEquals(Map.of(1912, 1L), filtered.getYears());
 
-}
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
+        MvcResult firstPage = mockMvc.perform(get("/books/filter").param("author", "Zane Grey").param("limit", "1"))
+                .andExpect(status().isOk())
+                .andReturn();
+        assertEquals("801", firstPage.getResponse().getHeader("X-Next-After"));
 
+        mockMvc.perform(get("/books/filter").param("yearFrom", "1990").param("yearTo", "1980"))
+                .andExpect(status().isBadRequest());
+    }
 
+    @Test
+    void testGetChangesSince() throws Exception {
+        long since = bookChangeLog.version();
+        bookChangeLog.onBooksChanged(List.of(BookChange.builder()
+                .bookId(5L)
+                .current(BookDTO.builder().bookId(5L).title("changed").build())
+                .build()));
+
+        MvcResult result = mockMvc.perform(get("/books/changes").param("since", Long.toString(since)))
+                .andExpect(status().isOk())
+                .andReturn();
 
+        BookChangesDTO changes = new ObjectMapper().readValue(result.getResponse().getContentAsString(), BookChangesDTO.class);
+        assertEquals(since + 1, changes.getVersion());
+        assertEquals(1, changes.getChanges().size());
+        assertEquals("changed", changes.getChanges().get(0).getBook().getTitle());
+    }
 
+    @Test
+    void testStreamChangesAsksForResyncWhenOutOfReach() throws Exception {
+        MvcResult asyncResult = mockMvc.perform(get("/books/changes/stream").header("Last-Event-ID", "1"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        MvcResult result = mockMvc.perform(asyncDispatch(asyncResult))
+                .andExpect(status().isOk())
+                .andReturn();
 
+        Assertions.assertTrue(result.getResponse().getContentAsString().contains("event:resync"));
+    }
 
+}
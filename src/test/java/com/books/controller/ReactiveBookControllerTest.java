@@ -0,0 +1,105 @@
+package com.books.controller;
+
+import com.books.cache.BookResponseCache;
+import com.books.dto.BookDTO;
+import com.books.entities.AuthorEntity;
+import com.books.entities.BookEntity;
+import com.books.entities.CategoryEntity;
+import com.books.repository.AuthorRepository;
+import com.books.repository.BookRepository;
+import com.books.repository.CategoryRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class ReactiveBookControllerTest {
+    @MockBean
+    private BookRepository bookRepository;
+    @MockBean
+    private AuthorRepository authorRepository;
+    @MockBean
+    private CategoryRepository categoryRepository;
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private BookResponseCache bookResponseCache;
+
+    @BeforeEach
+    void clearCaches() {
+        bookResponseCache.invalidateAll();
+    }
+
+    private static BookEntity book(long bookId) {
+        return BookEntity.builder()
+                .bookId(bookId)
+                .title("title" + bookId)
+                .authorEntity(AuthorEntity.builder().authorName("abc").build())
+                .categoryEntity(CategoryEntity.builder().categoryName("Fun").build())
+                .isbn(100L + bookId)
+                .publicationYear("1990")
+                .build();
+    }
+
+    @Test
+    void testStreamAllBooksAsNdjson() throws Exception {
+        List<BookEntity> books = LongStream.rangeClosed(1, 3).mapToObj(ReactiveBookControllerTest::book)
+                .collect(Collectors.toList());
+        Mockito.when(bookRepository.findPageAfter(Mockito.eq(Long.MIN_VALUE), Mockito.any(Pageable.class)))
+                .thenReturn(books);
+
+        MvcResult asyncResult = mockMvc.perform(get("/reactive/books").accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        MvcResult result = mockMvc.perform(asyncDispatch(asyncResult))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        ObjectMapper objectMapper = new ObjectMapper();
+        String expected = books.stream()
+                .map(BookDTO::toBookDto)
+                .map(bookDTO -> {
+                    try {
+                        return objectMapper.writeValueAsString(bookDTO) + "\n";
+                    } catch (Exception e) {
+                        throw new IllegalStateException(e);
+                    }
+                })
+                .collect(Collectors.joining());
+        assertEquals(expected, result.getResponse().getContentAsString());
+    }
+
+    @Test
+    void testGetBookByIdNotFound() throws Exception {
+        Mockito.when(bookRepository.findById(1L)).thenReturn(Optional.empty());
+
+        MvcResult asyncResult = mockMvc.perform(get("/reactive/books/{bookId}", 1L))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        MvcResult result = mockMvc.perform(asyncDispatch(asyncResult))
+                .andExpect(status().isNotFound())
+                .andReturn();
+        assertEquals("Book not found for ID: 1", result.getResponse().getContentAsString());
+    }
+}
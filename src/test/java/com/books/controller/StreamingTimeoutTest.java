@@ -0,0 +1,92 @@
+package com.books.controller;
+
+import com.books.dto.BookDTO;
+import com.books.service.BookService;
+import com.books.service.ReactiveBookService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Streams that outlast the default async request timeout, set short here, must still be sent whole.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "spring.mvc.async.request-timeout=200ms")
+class StreamingTimeoutTest {
+
+    private static final int BOOKS = 8;
+
+    private static final long PAUSE_MILLIS = 300;
+
+    @MockBean
+    private BookService bookService;
+
+    @MockBean
+    private ReactiveBookService reactiveBookService;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    void slowCatalog() {
+        Mockito.doAnswer(invocation -> {
+            Consumer<BookDTO> consumer = invocation.getArgument(0);
+            for (long bookId = 1; bookId <= BOOKS; bookId++) {
+                Thread.sleep(PAUSE_MILLIS);
+                consumer.accept(BookDTO.builder().bookId(bookId).title("title" + bookId).build());
+            }
+            return null;
+        }).when(bookService).streamAllBooks(Mockito.any());
+        Mockito.when(reactiveBookService.getAllBooks()).thenReturn(Flux.range(1, BOOKS)
+                .delayElements(Duration.ofMillis(PAUSE_MILLIS))
+                .map(bookId -> BookDTO.builder().bookId((long) bookId).title("title" + bookId).build()));
+    }
+
+    @Test
+    void streamedListingOutlastsTheAsyncTimeout() throws Exception {
+        ResponseEntity<String> response = restTemplate.getForEntity("/books?stream=true", String.class);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(BOOKS, objectMapper.readTree(response.getBody()).size());
+    }
+
+    @Test
+    void exportOutlastsTheAsyncTimeout() {
+        ResponseEntity<String> response = restTemplate.getForEntity("/books/export?format=ndjson", String.class);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(BOOKS, response.getBody().lines().count());
+    }
+
+    @Test
+    void reactiveStreamOutlastsTheAsyncTimeout() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setAccept(List.of(MediaType.APPLICATION_NDJSON));
+        ResponseEntity<String> response = restTemplate.exchange("/reactive/books", HttpMethod.GET,
+                new HttpEntity<>(headers), String.class);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(BOOKS, response.getBody().lines().count());
+    }
+}
@@ -0,0 +1,27 @@
+package com.books.dto;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class BookDTOTest {
+
+    @Test
+    void parseYearAcceptsWhatTheMigrationBackfilled() {
+        assertEquals(1999, BookDTO.parseYear(" 1999 "));
+        assertEquals(-500, BookDTO.parseYear("-500"));
+        assertEquals(12345, BookDTO.parseYear("12345"));
+        assertEquals(7, BookDTO.parseYear("007"));
+    }
+
+    @Test
+    void parseYearRejectsWhatTheMigrationLeftNull() {
+        assertNull(BookDTO.parseYear(null));
+        assertNull(BookDTO.parseYear(" "));
+        assertNull(BookDTO.parseYear("+1999"));
+        assertNull(BookDTO.parseYear("123456"));
+        assertNull(BookDTO.parseYear("1999 BC"));
+        assertNull(BookDTO.parseYear("١٩٩٩"));
+    }
+}
@@ -0,0 +1,51 @@
+package com.books.ingest;
+
+import com.books.dto.BookDTO;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CsvBookRecordReaderTest {
+
+    private static CsvBookRecordReader reader(String csv) throws IOException {
+        return new CsvBookRecordReader(new BufferedReader(new StringReader(csv)));
+    }
+
+    @Test
+    void mapsHeaderColumnsAndQuotedFields() throws IOException {
+        CsvBookRecordReader reader = reader("ISBN,book_id,Title,authorName,categoryName,publicationYear,ignored\n"
+                + "9780261103573,1,\"The Fellowship of the Ring, Part \"\"One\"\"\",J.R.R. Tolkien,FANTASY,1954,x\n"
+                + "\n"
+                + ",2,\"Multi\nline\",,FUN,,y\n");
+
+        assertEquals(BookDTO.builder().bookId(1L).title("The Fellowship of the Ring, Part \"One\"")
+                .authorName("J.R.R. Tolkien").categoryName("FANTASY").isbn(9780261103573L).publicationYear("1954")
+                .build(), reader.read());
+        assertEquals(BookDTO.builder().bookId(2L).title("Multi\nline").categoryName("FUN").build(), reader.read());
+        assertNull(reader.read());
+    }
+
+    @Test
+    void malformedRecordIsReportedAndSkipped() throws IOException {
+        CsvBookRecordReader reader = reader("""
+                bookId,title
+                abc,broken
+                1,one,extra
+                2,two
+                """);
+
+        MalformedRecordException badId = assertThrows(MalformedRecordException.class, reader::read);
+        assertEquals(2, badId.getLine());
+        MalformedRecordException extraField = assertThrows(MalformedRecordException.class, reader::read);
+        assertEquals(3, extraField.getLine());
+        assertEquals(BookDTO.builder().bookId(2L).title("two").build(), reader.read());
+        assertNull(reader.read());
+    }
+
+}
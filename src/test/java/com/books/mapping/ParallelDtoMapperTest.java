@@ -0,0 +1,61 @@
+package com.books.mapping;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ParallelDtoMapperTest {
+
+    private final ParallelDtoMapper parallelDtoMapper = new ParallelDtoMapper();
+
+    @BeforeEach
+    void start() {
+        ReflectionTestUtils.setField(parallelDtoMapper, "parallelism", 4);
+        ReflectionTestUtils.setField(parallelDtoMapper, "parallelThreshold", 5000);
+        parallelDtoMapper.start();
+    }
+
+    @AfterEach
+    void shutdown() {
+        parallelDtoMapper.shutdown();
+    }
+
+    @Test
+    void splitsLargeListingsAcrossThePoolKeepingTheirOrder() {
+        List<Integer> source = IntStream.range(0, 50_000).boxed().collect(Collectors.toList());
+        Set<String> threads = ConcurrentHashMap.newKeySet();
+
+        List<String> mapped = parallelDtoMapper.map(source, value -> {
+            threads.add(Thread.currentThread().getName());
+            return "book " + value;
+        });
+
+        assertEquals(source.stream().map(value -> "book " + value).collect(Collectors.toList()), mapped);
+        assertTrue(threads.stream().allMatch(name -> name.startsWith("books-mapping-")), threads::toString);
+    }
+
+    @Test
+    void mapsSmallListingsOnTheCallingThread() {
+        Set<String> threads = ConcurrentHashMap.newKeySet();
+
+        List<Integer> grouped = parallelDtoMapper.map(100, 4999, index -> {
+            threads.add(Thread.currentThread().getName());
+            return index;
+        });
+
+        assertEquals(IntStream.range(0, 100).boxed().collect(Collectors.toList()), grouped);
+        assertEquals(Set.of(Thread.currentThread().getName()), threads);
+        assertEquals(List.of(), parallelDtoMapper.map(List.of(), value -> value));
+    }
+
+}
@@ -0,0 +1,97 @@
+package com.books.metrics;
+
+import com.books.dto.BookDTO;
+import com.books.entities.AuthorEntity;
+import com.books.entities.BookEntity;
+import com.books.entities.CategoryEntity;
+import com.books.repository.AuthorRepository;
+import com.books.repository.BookRepository;
+import com.books.repository.CategoryRepository;
+import com.books.service.BookService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static org.hamcrest.Matchers.containsString;
+
+@SpringBootTest(properties = {"management.endpoints.web.exposure.include=prometheus", "books.read-model.enabled=false"})
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+class BookMetricsTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private AuthorRepository authorRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Test
+    void authorsRequestIsInstrumented() throws Exception {
+        AuthorEntity author = authorRepository.save(AuthorEntity.builder().authorName("metrics author").build());
+        CategoryEntity category = categoryRepository.save(CategoryEntity.builder().categoryName("METRICS").build());
+        bookRepository.save(BookEntity.builder().bookId(9001L).title("measured").authorEntity(author)
+                .categoryEntity(category).build());
+
+        mockMvc.perform(get("/books/authors")).andExpect(status().isOk());
+
+        assertEquals(1, meterRegistry.get("books.service.invocations").tag("method", "getAllAuthors").timer().count());
+        assertTrue(meterRegistry.get("books.repository.rows.loaded")
+                .tags("repository", "AuthorRepository", "method", "findAllAuthorTitles").counter().count() >= 1);
+        assertEquals(1, meterRegistry.get("books.request.sql.statements").tag("uri", "/books/authors")
+                .summary().totalAmount());
+        assertTrue(meterRegistry.get("books.response.payload").tag("uri", "/books/authors")
+                .summary().totalAmount() > 0);
+
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("books_service_invocations_seconds")));
+
+        bookRepository.deleteById(9001L);
+        authorRepository.delete(author);
+        categoryRepository.delete(category);
+    }
+
+    @Test
+    void onlyRowResultsAreCounted() {
+        bookService.bulkSaveBooks(List.of(
+                BookDTO.builder().bookId(9101L).title("counted").authorName("metrics rows").categoryName("METRICS ROWS").build(),
+                BookDTO.builder().bookId(9102L).title("counted too").authorName("metrics rows").categoryName("METRICS ROWS").build()));
+        bookRepository.count();
+        bookService.getBooksByIds(List.of(9101L, 9102L, 9103L));
+        bookService.getBookJsonById(9101L);
+
+        assertNull(meterRegistry.find("books.service.rows.mapped").tag("method", "bulkSaveBooks").counter());
+        assertNull(meterRegistry.find("books.service.rows.mapped").tag("method", "getBookJsonById").counter());
+        assertNull(meterRegistry.find("books.repository.rows.loaded").tags("repository", "BookRepository", "method", "count")
+                .counter());
+        assertEquals(2, meterRegistry.get("books.service.rows.mapped").tag("method", "getBooksByIds").counter().count());
+
+        bookRepository.deleteAllById(List.of(9101L, 9102L));
+        authorRepository.delete(authorRepository.findByAuthorName("metrics rows"));
+        categoryRepository.delete(categoryRepository.findByCategoryName("METRICS ROWS"));
+    }
+}
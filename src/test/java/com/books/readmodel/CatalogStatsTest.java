@@ -0,0 +1,119 @@
+package com.books.readmodel;
+
+import com.books.cache.BookResponseCache;
+import com.books.cache.DimensionCache;
+import com.books.dto.BookDTO;
+import com.books.dto.CatalogStatsDTO;
+import com.books.dto.ReadModelCheckDTO;
+import com.books.repository.AuthorRepository;
+import com.books.repository.BookRepository;
+import com.books.repository.CategoryRepository;
+import com.books.service.BookService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class CatalogStatsTest {
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private CatalogStats catalogStats;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private AuthorRepository authorRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private DimensionCache dimensionCache;
+
+    @Autowired
+    private BookResponseCache bookResponseCache;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @AfterEach
+    void cleanUp() {
+        bookRepository.deleteAll();
+        authorRepository.deleteAll();
+        categoryRepository.deleteAll();
+        dimensionCache.invalidateAll();
+        bookResponseCache.invalidateAll();
+        catalogStats.check(true);
+    }
+
+    private static BookDTO book(long bookId, String authorName, String categoryName, String year) {
+        return BookDTO.builder().bookId(bookId).title("title" + bookId).authorName(authorName)
+                .categoryName(categoryName).isbn(7000 + bookId).publicationYear(year).build();
+    }
+
+    @Test
+    void countersFollowInsertsAndMoves() {
+        bookService.saveAndUpdateBooks(List.of(
+                book(1, "King", "HORROR", "1986"),
+                book(2, "King", "HORROR", "1977"),
+                book(3, "Jackson", "HORROR", "1959"),
+                book(4, "Pratchett", "FUN", "1983")));
+        // moves book 2 to another author, category and year
+        bookService.saveAndUpdateBooks(List.of(book(2, "Pratchett", "FUN", "1983")));
+        bookService.bulkSaveBooks(List.of(book(5, "Pratchett", "FUN", "n.d."), book(1, "King", "HORROR", "1986")));
+
+        CatalogStatsDTO stats = catalogStats.stats(2);
+        assertEquals(5, stats.getTotalBooks());
+        assertEquals(3, stats.getAuthors());
+        assertEquals(Map.of("FUN", 3L, "HORROR", 2L), stats.getBooksPerCategory());
+        assertEquals(List.of("FUN", "HORROR"), List.copyOf(stats.getBooksPerCategory().keySet()));
+        assertEquals(List.of("Pratchett", "Jackson"), List.copyOf(stats.getTopAuthors().keySet()));
+        assertEquals(3L, stats.getTopAuthors().get("Pratchett"));
+        assertEquals(Map.of(1959, 1L, 1983, 2L, 1986, 1L), stats.getBooksPerYear());
+
+        ReadModelCheckDTO check = catalogStats.check(false);
+        assertEquals(0, check.getDifferences());
+        assertFalse(check.isRepaired());
+    }
+
+    @Test
+    void checkFindsAndRepairsDrift() throws Exception {
+        bookService.saveAndUpdateBooks(List.of(book(1, "King", "HORROR", "1986"), book(2, "King", "FUN", "1990")));
+        // deleted behind the change hook's back
+        bookRepository.deleteById(2L);
+
+        ReadModelCheckDTO check = catalogStats.check(false);
+        assertEquals(4, check.getDifferences());
+        assertTrue(check.getSample().contains("category FUN: counted 1, table has 0"));
+        assertEquals(2, catalogStats.stats(10).getTotalBooks());
+
+        mockMvc.perform(post("/books/admin/stats/check").param("repair", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.repaired").value(true));
+        mockMvc.perform(get("/books/stats"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalBooks").value(1))
+                .andExpect(jsonPath("$.topAuthors.King").value(1))
+                .andExpect(jsonPath("$.booksPerYear.1986").value(1));
+        assertEquals(0, catalogStats.check(false).getDifferences());
+    }
+}
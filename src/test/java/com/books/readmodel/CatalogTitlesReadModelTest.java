@@ -0,0 +1,132 @@
+package com.books.readmodel;
+
+import com.books.cache.BookResponseCache;
+import com.books.cache.DimensionCache;
+import com.books.dto.AuthorDTO;
+import com.books.dto.BookDTO;
+import com.books.dto.CategoryDTO;
+import com.books.dto.ReadModelCheckDTO;
+import com.books.entities.BookEntity;
+import com.books.repository.AuthorRepository;
+import com.books.repository.BookRepository;
+import com.books.repository.CategoryRepository;
+import com.books.service.BookService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class CatalogTitlesReadModelTest {
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private CatalogTitlesReadModel catalogTitlesReadModel;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private AuthorRepository authorRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private DimensionCache dimensionCache;
+
+    @Autowired
+    private BookResponseCache bookResponseCache;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @AfterEach
+    void cleanUp() {
+        bookRepository.deleteAll();
+        authorRepository.deleteAll();
+        categoryRepository.deleteAll();
+        dimensionCache.invalidateAll();
+        bookResponseCache.invalidateAll();
+        catalogTitlesReadModel.rebuild();
+    }
+
+    private static BookDTO book(long bookId, String title, String authorName, String categoryName) {
+        return BookDTO.builder().bookId(bookId).title(title).authorName(authorName).categoryName(categoryName)
+                .isbn(5000 + bookId).build();
+    }
+
+    private Map<String, List<String>> authorTitles() {
+        return bookService.getAllAuthors().stream()
+                .collect(Collectors.toMap(AuthorDTO::getAuthorName, AuthorDTO::getTitles));
+    }
+
+    private Map<String, List<String>> categoryTitles() {
+        return bookService.getAllCategoriesWithBooks().stream()
+                .collect(Collectors.toMap(CategoryDTO::getCategoryName, CategoryDTO::getTitles));
+    }
+
+    @Test
+    void listingsFollowSavedBooksWithoutQueries() {
+        assertTrue(catalogTitlesReadModel.isReady());
+        bookService.saveAndUpdateBooks(List.of(
+                book(1, "Dune", "Herbert", "SCIFI"),
+                book(2, "Emma", "Austen", "CLASSIC"),
+                book(3, "Persuasion", "Austen", "CLASSIC")));
+        bookService.bulkSaveBooks(List.of(book(4, "Children of Dune", "Herbert", "SCIFI")));
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        assertEquals(Map.of("Herbert", List.of("Dune", "Children of Dune"), "Austen", List.of("Emma", "Persuasion")),
+                authorTitles());
+        assertEquals(Map.of("SCIFI", List.of("Dune", "Children of Dune"), "CLASSIC", List.of("Emma", "Persuasion")),
+                categoryTitles());
+        assertEquals(0, statistics.getPrepareStatementCount());
+
+        // moving a book takes its title out of the old author and category, which stay listed
+        bookService.saveAndUpdateBooks(List.of(book(2, "Emma (annotated)", "Herbert", "SCIFI")));
+
+        assertEquals(Map.of("Herbert", List.of("Dune", "Emma (annotated)", "Children of Dune"), "Austen", List.of("Persuasion")),
+                authorTitles());
+        assertEquals(Map.of("SCIFI", List.of("Dune", "Emma (annotated)", "Children of Dune"), "CLASSIC", List.of("Persuasion")),
+                categoryTitles());
+        Long austenId = authorRepository.findByAuthorName("Austen").getAuthorId();
+        assertEquals(List.of("Persuasion"), bookService.getAuthorById(austenId).getTitles());
+
+        ReadModelCheckDTO check = catalogTitlesReadModel.check(false);
+        assertEquals(0, check.getDifferences());
+        assertEquals(2, check.getAuthorsChecked());
+        assertEquals(2, check.getCategoriesChecked());
+    }
+
+    @Test
+    void checkFindsAndRepairsWritesThatBypassedTheService() {
+        bookService.saveAndUpdateBooks(List.of(book(1, "Dune", "Herbert", "SCIFI")));
+        BookEntity dune = bookRepository.findByIsbn(5001L);
+        dune.setTitle("Dune Messiah");
+        bookRepository.save(dune);
+
+        ReadModelCheckDTO check = catalogTitlesReadModel.check(false);
+        assertEquals(2, check.getDifferences());
+        assertFalse(check.isRepaired());
+        assertEquals(List.of("Dune"), authorTitles().get("Herbert"));
+
+        assertTrue(catalogTitlesReadModel.check(true).isRepaired());
+        assertEquals(List.of("Dune Messiah"), authorTitles().get("Herbert"));
+        assertEquals(0, catalogTitlesReadModel.check(false).getDifferences());
+    }
+
+}
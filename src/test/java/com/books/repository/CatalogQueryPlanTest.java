@@ -0,0 +1,37 @@
+package com.books.repository;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class CatalogQueryPlanTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @ParameterizedTest
+    @CsvSource(delimiter = '|', value = {
+            "select author_id from author where author_name = 'Tolkien'      | author_name",
+            "select category_id from category where category_name = 'FUN'   | category_name",
+            "select book_id from books where isbn = 9780261103573            | isbn",
+            "select book_id from books where author_id = 1                   | author_id",
+            "select book_id from books where category_id = 1                 | category_id"
+    })
+    void lookupUsesIndex(String query, String column) {
+        String plan = jdbcTemplate.queryForObject("explain " + query, String.class);
+
+        // H2 names the chosen index as "/* public.<index>: <condition> */"; the FK columns may use
+        // the index backing the constraint rather than idx_books_*, either one avoids the scan
+        assertTrue(Pattern.compile("/\\* public\\.\\w+: " + column + " = ").matcher(plan).find(), plan);
+        assertFalse(plan.contains("tableScan"), plan);
+    }
+
+}
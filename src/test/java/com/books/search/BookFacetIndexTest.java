@@ -0,0 +1,98 @@
+package com.books.search;
+
+import com.books.dto.BookDTO;
+import com.books.service.BookChange;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BookFacetIndexTest {
+
+    private final BookFacetIndex index = new BookFacetIndex();
+
+    private static BookDTO book(long bookId, String category, String author, String year) {
+        return BookDTO.builder()
+                .bookId(bookId)
+                .title("title" + bookId)
+                .categoryName(category)
+                .authorName(author)
+                .publicationYear(year)
+                .build();
+    }
+
+    @Test
+    void filterIntersectsCategoryAuthorAndYearRange() {
+        index.indexIfAbsent(List.of(
+                book(1, "HORROR", "Stephen King", "1986"),
+                book(2, "HORROR", "Stephen King", "1977"),
+                book(3, "HORROR", "Shirley Jackson", "1959"),
+                book(4, "FUN", "Stephen King", "1990"),
+                book(5, "HORROR", "Stephen King", "1999"),
+                book(6, "HORROR", "Stephen King", "unknown")));
+
+        FacetResult kingHorror = index.filter("horror", "stephen king", 1980, 2000, null, 10);
+        assertEquals(2, kingHorror.total());
+        assertEquals(List.of(1L, 5L), kingHorror.bookIds());
+        assertFalse(kingHorror.more());
+        assertEquals(Map.of("HORROR", 2L), kingHorror.categories());
+        assertEquals(List.of(1986, 1999), List.copyOf(kingHorror.years().keySet()));
+
+        FacetResult horror = index.filter("HORROR", null, null, null, null, 2);
+        assertEquals(5, horror.total());
+        assertEquals(List.of(1L, 2L), horror.bookIds());
+        assertTrue(horror.more());
+        assertEquals(List.of("Stephen King", "Shirley Jackson"), List.copyOf(horror.authors().keySet()));
+        assertEquals(List.of(3L, 5L), index.filter("HORROR", null, null, null, 2L, 2).bookIds());
+
+        FacetResult everything = index.filter(null, null, null, null, null, 10);
+        assertEquals(6, everything.total());
+        assertEquals(Map.of("HORROR", 5L, "FUN", 1L), everything.categories());
+        assertEquals(5, everything.years().size());
+
+        assertEquals(0, index.filter("COOKING", null, null, null, null, 10).total());
+        assertEquals(0, index.filter(null, null, 2000, 1990, null, 10).total());
+        assertEquals(List.of(2L, 3L), index.filter(null, null, null, 1980, null, 10).bookIds());
+    }
+
+    @Test
+    void changesMoveBooksBetweenFacets() {
+        index.indexIfAbsent(List.of(book(1, "HORROR", "Stephen King", "1986")));
+        index.onBooksChanged(List.of(
+                BookChange.builder().bookId(1L).current(book(1, "FUN", "Stephen King", "1987")).build(),
+                BookChange.builder().bookId(2L).current(book(2, "HORROR", "Anne Rice", "1976")).build()));
+        index.indexIfAbsent(List.of(book(1, "HORROR", "Stephen King", "1986")));
+
+        assertEquals(List.of(2L), index.filter("HORROR", null, null, null, null, 10).bookIds());
+        assertEquals(List.of(1L), index.filter("FUN", null, 1987, 1987, null, 10).bookIds());
+        assertEquals(0, index.filter(null, null, 1986, 1986, null, 10).total());
+
+        index.onBooksChanged(List.of(BookChange.builder().bookId(2L).build()));
+        assertEquals(0, index.filter("HORROR", null, null, null, null, 10).total());
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    void largeFacetsGiveTheSameMatchesAsBitmaps() {
+        List<BookDTO> books = new ArrayList<>();
+        for (long id = 1; id <= 5000; id++) {
+            books.add(book(id, id % 2 == 0 ? "EVEN" : "ODD", "author" + (id % 7), String.valueOf(1900 + id % 100)));
+        }
+        index.indexIfAbsent(books);
+
+        FacetResult filtered = index.filter("even", "author3", 1950, 1959, null, 1000);
+        List<Long> expected = books.stream()
+                .filter(book -> book.getBookId() % 2 == 0 && book.getBookId() % 7 == 3
+                        && book.getBookId() % 100 >= 50 && book.getBookId() % 100 <= 59)
+                .map(BookDTO::getBookId)
+                .toList();
+        assertEquals(expected, filtered.bookIds());
+        assertEquals(expected.size(), filtered.total());
+        assertEquals(Map.of("author3", (long) expected.size()), filtered.authors());
+    }
+}
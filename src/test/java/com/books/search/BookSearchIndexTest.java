@@ -0,0 +1,85 @@
+package com.books.search;
+
+import com.books.dto.BookDTO;
+import com.books.service.BookChange;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class BookSearchIndexTest {
+
+    private final BookSearchIndex index = new BookSearchIndex();
+
+    private static BookDTO book(long bookId, String title, String authorName) {
+        return BookDTO.builder().bookId(bookId).title(title).authorName(authorName).build();
+    }
+
+    @Test
+    void tokenizeNormalizesCaseAndAccents() {
+        assertEquals(List.of("cafe", "creme", "brulee", "2nd", "ed"),
+                BookSearchIndex.tokenize("Café Crème-Brûlée (2nd ed.)"));
+    }
+
+    @Test
+    void searchMatchesPrefixesAcrossFieldsAndRanksTitlesFirst() {
+        index.indexIfAbsent(List.of(
+                book(1, "The Shining", "Stephen King"),
+                book(2, "King Lear", "William Shakespeare"),
+                book(3, "Kingdom of Ash", "Sarah Maas"),
+                book(4, "Misery", "Stephen King")));
+
+        assertEquals(List.of(2L, 3L, 1L, 4L), index.search("king", 10));
+        assertEquals(List.of(1L, 4L), index.search("stephen ki", 10));
+        assertEquals(List.of(2L, 3L), index.search("king", 2));
+        assertEquals(List.of(), index.search("k", 10));
+    }
+
+    @Test
+    void equalScoresRankByBookId() {
+        index.indexIfAbsent(List.of(
+                book(30, "Dune", "Frank Herbert"),
+                book(1L << 40, "Dune Messiah", "Frank Herbert"),
+                book(10, "Dune", "Frank Herbert"),
+                book(20, "Dune", "Frank Herbert")));
+
+        assertEquals(List.of(10L, 20L), index.search("dune herbert", 2));
+        assertEquals(List.of(10L, 20L, 30L, 1L << 40), index.search("dune herbert", 10));
+        assertEquals(4, index.size());
+    }
+
+    @Test
+    void changesReplacePreviousVersion() {
+        index.indexIfAbsent(List.of(book(1, "Old Title", "Someone")));
+        index.onBooksChanged(List.of(BookChange.builder()
+                .bookId(1L)
+                .current(book(1, "New Title", "Someone"))
+                .build()));
+        index.indexIfAbsent(List.of(book(1, "Old Title", "Someone")));
+
+        assertEquals(List.of(), index.search("old", 10));
+        assertEquals(List.of(1L), index.search("new title", 10));
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    void compactionKeepsLiveDocuments() {
+        List<BookDTO> books = new ArrayList<>();
+        for (long id = 1; id <= 2000; id++) {
+            books.add(book(id, "volume " + id, "author"));
+        }
+        index.indexIfAbsent(books);
+        List<BookChange> changes = new ArrayList<>();
+        for (long id = 1; id <= 1000; id++) {
+            changes.add(BookChange.builder().bookId(id).current(book(id, "edition " + id, "author")).build());
+        }
+        index.onBooksChanged(changes);
+
+        assertEquals(2000, index.size());
+        assertEquals(List.of(500L), index.search("edition 500", 10));
+        assertEquals(List.of(1500L), index.search("volume 1500", 10));
+        assertEquals(List.of(), index.search("volume 500", 10));
+    }
+}
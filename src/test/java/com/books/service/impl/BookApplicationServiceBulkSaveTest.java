@@ -0,0 +1,222 @@
+package com.books.service.impl;
+
+import com.books.cache.DimensionCache;
+import com.books.dto.BookDTO;
+import com.books.dto.BookFilterDTO;
+import com.books.dto.BulkSaveReportDTO;
+import com.books.entities.AuthorEntity;
+import com.books.entities.BookEntity;
+import com.books.entities.CategoryEntity;
+import com.books.repository.AuthorRepository;
+import com.books.repository.BookRepository;
+import com.books.repository.CategoryRepository;
+import com.books.repository.DimensionRowRepository;
+import com.books.search.BookSearchIndex;
+import com.books.service.BookService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.mockito.stubbing.Answer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@TestPropertySource(properties = {"books.bulk.chunk-size=4", "books.batch-get.chunk-size=2"})
+class BookApplicationServiceBulkSaveTest {
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @SpyBean
+    private AuthorRepository authorRepository;
+
+    @SpyBean
+    private CategoryRepository categoryRepository;
+
+    @SpyBean
+    private DimensionRowRepository dimensionRowRepository;
+
+    @Autowired
+    private BookSearchIndex bookSearchIndex;
+
+    @Autowired
+    private DimensionCache dimensionCache;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @AfterEach
+    void cleanUp() {
+        bookRepository.deleteAll();
+        authorRepository.deleteAll();
+        categoryRepository.deleteAll();
+        dimensionCache.invalidateAll();
+    }
+
+    // the spy's default answer, which calls the repository
+    private static Answer<?> delegate(Object spy) {
+        return Mockito.mockingDetails(spy).getMockCreationSettings().getDefaultAnswer();
+    }
+
+    private List<BookDTO> books(long fromId, long toId, String titlePrefix) {
+        return LongStream.rangeClosed(fromId, toId)
+                .mapToObj(id -> BookDTO.builder()
+                        .bookId(id)
+                        .title(titlePrefix + id)
+                        .authorName("author" + (id % 3))
+                        .categoryName(id % 2 == 0 ? "FUN" : "HORROR")
+                        .isbn(9000L + id)
+                        .publicationYear("2001")
+                        .build())
+                .collect(Collectors.toList());
+    }
+
+    @Test
+    void bulkSaveInsertsInChunks() {
+        authorRepository.save(AuthorEntity.builder().authorName("author0").build());
+
+        BulkSaveReportDTO report = bookService.bulkSaveBooks(books(1, 10, "title"));
+
+        assertEquals(10, report.getInserted());
+        assertEquals(0, report.getUpdated());
+        assertEquals(2, report.getAuthorsCreated());
+        assertEquals(2, report.getCategoriesCreated());
+        assertEquals(3, report.getChunks().size());
+        assertEquals(10, bookRepository.count());
+        assertEquals(3, authorRepository.count());
+        assertEquals(2, categoryRepository.count());
+    }
+
+    @Test
+    void bulkSaveUpdatesExistingBooks() {
+        bookService.bulkSaveBooks(books(1, 6, "title"));
+
+        List<BookDTO> updates = books(4, 8, "updated");
+        updates.add(BookDTO.builder().title("no id").build());
+        BulkSaveReportDTO report = bookService.bulkSaveBooks(updates);
+
+        assertEquals(2, report.getInserted());
+        assertEquals(3, report.getUpdated());
+        assertEquals(1, report.getSkipped());
+        entityManager.clear();
+        BookEntity updated = bookRepository.findById(5L).orElseThrow();
+        assertEquals("updated5", updated.getTitle());
+        assertEquals("author2", updated.getAuthorEntity().getAuthorName());
+        assertEquals(8, bookRepository.count());
+    }
+
+    @Test
+    void chunksBeforeAFailingOneStayCommittedAndPublished() {
+        List<BookDTO> books = books(1, 10, "partial");
+        // too long for the title column, so the third chunk fails on flush
+        books.get(8).setTitle("x".repeat(300));
+
+        assertThrows(RuntimeException.class, () -> bookService.bulkSaveBooks(books));
+
+        assertEquals(8, bookRepository.count());
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L),
+                bookSearchIndex.search("partial", 20).stream().sorted().toList());
+    }
+
+    @Test
+    void missingNamesAreCreatedWithOneInsertPerChunk() {
+        List<BookDTO> books = LongStream.rangeClosed(1, 6)
+                .mapToObj(id -> BookDTO.builder().bookId(id).title("title" + id).authorName("writer" + id)
+                        .categoryName("FUN").isbn(9000L + id).build())
+                .collect(Collectors.toList());
+
+        BulkSaveReportDTO report = bookService.bulkSaveBooks(books);
+
+        assertEquals(6, report.getAuthorsCreated());
+        assertEquals(1, report.getCategoriesCreated());
+        assertEquals(6, authorRepository.count());
+        Mockito.verify(dimensionRowRepository, Mockito.times(2)).insertAuthorsIfAbsent(Mockito.anyCollection());
+        Mockito.verify(authorRepository, Mockito.never()).insertIfAbsent(Mockito.anyString());
+        Long writer1 = authorRepository.findByAuthorName("writer1").getAuthorId();
+        assertEquals(writer1, dimensionCache.getPresentAuthorIds(List.of("writer1")).get("writer1").orElseThrow());
+    }
+
+    @Test
+    void knownNamesAreLookedUpInChunks() {
+        authorRepository.saveAll(List.of(AuthorEntity.builder().authorName("author0").build(),
+                AuthorEntity.builder().authorName("author1").build(),
+                AuthorEntity.builder().authorName("author2").build()));
+
+        BulkSaveReportDTO report = bookService.bulkSaveBooks(books(1, 10, "title"));
+
+        assertEquals(0, report.getAuthorsCreated());
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Collection<String>> lookups = ArgumentCaptor.forClass(Collection.class);
+        Mockito.verify(authorRepository, Mockito.times(2)).findByAuthorNameIn(lookups.capture());
+        assertEquals(List.of(2, 1), lookups.getAllValues().stream().map(Collection::size).toList());
+    }
+
+    @Test
+    void namesInsertedByAnotherWriterAreNotCountedAsCreated() {
+        authorRepository.saveAll(List.of(AuthorEntity.builder().authorName("author0").build(),
+                AuthorEntity.builder().authorName("author1").build(),
+                AuthorEntity.builder().authorName("author2").build()));
+        categoryRepository.saveAll(List.of(CategoryEntity.builder().categoryName("FUN").build(),
+                CategoryEntity.builder().categoryName("HORROR").build()));
+        // as if another writer committed the names between this batch's lookup and its inserts
+        // (the lookup chunks the three authors into two queries; the re-read after the inserts goes through)
+        Mockito.doReturn(List.of()).doReturn(List.of()).doAnswer(delegate(authorRepository))
+                .when(authorRepository).findByAuthorNameIn(Mockito.anyCollection());
+        Mockito.doReturn(List.of()).doAnswer(delegate(categoryRepository))
+                .when(categoryRepository).findByCategoryNameIn(Mockito.anyCollection());
+
+        BulkSaveReportDTO report = bookService.bulkSaveBooks(books(1, 6, "title"));
+
+        assertEquals(6, report.getInserted());
+        assertEquals(0, report.getAuthorsCreated());
+        assertEquals(0, report.getCategoriesCreated());
+        assertEquals(3, authorRepository.count());
+    }
+
+    @Test
+    void savedBooksAreFilteredOnNumericYears() {
+        List<BookDTO> mysteries = LongStream.rangeClosed(101, 106)
+                .mapToObj(id -> BookDTO.builder()
+                        .bookId(id)
+                        .title("mystery" + id)
+                        .authorName(id <= 103 ? "Agatha" : "Dorothy")
+                        .categoryName("MYSTERY")
+                        .isbn(9000L + id)
+                        .publicationYear(String.valueOf(1920 + (id - 100) * 5))
+                        .build())
+                .collect(Collectors.toList());
+        bookService.bulkSaveBooks(mysteries);
+        mysteries.get(0).setPublicationYear("n.d.");
+        bookService.bulkSaveBooks(List.of(mysteries.get(0)));
+
+        BookFilterDTO filtered = bookService.filterBooks("mystery", null, 1930, 1945, null, 2);
+        assertEquals(4, filtered.getTotal());
+        assertEquals(List.of(102L, 103L), filtered.getBooks().stream().map(BookDTO::getBookId).toList());
+        assertTrue(filtered.isMore());
+        assertEquals(Map.of("Agatha", 2L, "Dorothy", 2L), filtered.getAuthors());
+        assertEquals(List.of(1930, 1935, 1940, 1945), List.copyOf(filtered.getYears().keySet()));
+
+        entityManager.clear();
+        assertEquals(1930, bookRepository.findById(102L).orElseThrow().getPublishedYear());
+        assertNull(bookRepository.findById(101L).orElseThrow().getPublishedYear());
+    }
+}
@@ -0,0 +1,115 @@
+package com.books.service.impl;
+
+import com.books.cache.BookResponseCache;
+import com.books.dto.AuthorDTO;
+import com.books.dto.BookDTO;
+import com.books.dto.CategoryDTO;
+import com.books.entities.AuthorEntity;
+import com.books.entities.BookEntity;
+import com.books.entities.CategoryEntity;
+import com.books.service.BookService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// measures the SQL path; with the read model enabled the listings run no statements at all
+@SpringBootTest(properties = "books.read-model.enabled=false")
+@Transactional
+class BookApplicationServiceQueryCountTest {
+
+    private static final int AUTHORS = 5;
+
+    private static final int BOOKS_PER_AUTHOR = 3;
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private BookResponseCache bookResponseCache;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        bookResponseCache.invalidateAll();
+        CategoryEntity fun = CategoryEntity.builder().categoryName("FUN").build();
+        CategoryEntity horror = CategoryEntity.builder().categoryName("HORROR").build();
+        entityManager.persist(fun);
+        entityManager.persist(horror);
+        long bookId = 1;
+        for (int a = 0; a < AUTHORS; a++) {
+            AuthorEntity author = AuthorEntity.builder().authorName("author" + a).build();
+            entityManager.persist(author);
+            for (int b = 0; b < BOOKS_PER_AUTHOR; b++) {
+                entityManager.persist(BookEntity.builder()
+                        .bookId(bookId++)
+                        .title("title" + a + "-" + b)
+                        .authorEntity(author)
+                        .categoryEntity(b % 2 == 0 ? fun : horror)
+                        .isbn(1000L + bookId)
+                        .publicationYear("1999")
+                        .build());
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void getAllAuthorsRunsSingleStatement() {
+        List<AuthorDTO> authors = bookService.getAllAuthors();
+        assertEquals(AUTHORS, authors.size());
+        assertEquals(BOOKS_PER_AUTHOR, authors.get(0).getTitles().size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void getAuthorByIdRunsSingleStatement() {
+        Long authorId = bookService.getAllAuthors().get(0).getAuthorId();
+        entityManager.clear();
+        statistics.clear();
+
+        AuthorDTO author = bookService.getAuthorById(authorId);
+        assertEquals(BOOKS_PER_AUTHOR, author.getTitles().size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void getAllCategoriesWithBooksRunsSingleStatement() {
+        List<CategoryDTO> categories = bookService.getAllCategoriesWithBooks();
+        assertEquals(2, categories.size());
+        assertEquals(AUTHORS * BOOKS_PER_AUTHOR,
+                categories.stream().mapToInt(category -> category.getTitles().size()).sum());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void getAllBooksRunsSingleStatement() {
+        List<BookDTO> books = bookService.getAllBooks();
+        assertEquals(AUTHORS * BOOKS_PER_AUTHOR, books.size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void getBooksByCategoryRunsSingleStatement() {
+        List<BookDTO> books = bookService.getBooksByCategory("HORROR");
+        assertEquals(AUTHORS, books.size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+}
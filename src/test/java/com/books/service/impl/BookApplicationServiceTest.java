@@ -2,20 +2,35 @@ package com.books.service.impl;
 
 import java.util.*;
 
+import com.books.cache.BookResponseCache;
+import com.books.cache.DimensionCache;
+import com.books.cache.JsonResponseCache;
+import com.books.dto.BookBatchDTO;
 import com.books.dto.BookDTO;
 import com.books.dto.CategoryDTO;
 import com.books.entities.AuthorEntity;
 import com.books.entities.BookEntity;
 import com.books.entities.CategoryEntity;
+import com.books.mapping.ParallelDtoMapper;
+import com.books.readmodel.CatalogTitlesReadModel;
 import com.books.repository.AuthorRepository;
 import com.books.repository.BookRepository;
 import com.books.repository.CategoryRepository;
+import com.books.search.BookSearchIndex;
 import com.books.service.BookService;
+import com.books.snapshot.CatalogSnapshotService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
+import org.mockito.Spy;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.stream.Collectors;
 
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -33,6 +48,33 @@ class BookApplicationServiceTest {
     @Mock
     private CategoryRepository categoryRepository;
 
+    @Spy
+    private DimensionCache dimensionCache = new DimensionCache(100, Duration.ofSeconds(60));
+
+    @Spy
+    private BookResponseCache bookResponseCache = new BookResponseCache(100, Duration.ofMinutes(10));
+
+    @Spy
+    private BookSearchIndex bookSearchIndex = new BookSearchIndex();
+
+    @Spy
+    private CatalogTitlesReadModel catalogTitlesReadModel = new CatalogTitlesReadModel();
+
+    @Spy
+    private CatalogSnapshotService catalogSnapshotService = new CatalogSnapshotService();
+
+    @Spy
+    private ParallelDtoMapper parallelDtoMapper = new ParallelDtoMapper();
+
+    @Spy
+    private JsonResponseCache jsonResponseCache = new JsonResponseCache(100, Duration.ofMinutes(10));
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @Spy
+    private BookChangePublisher bookChangePublisher = new BookChangePublisher(List.of(bookResponseCache, bookSearchIndex, jsonResponseCache));
+
     @InjectMocks
     private BookApplicationService bookApplicationService;
 
@@ -69,6 +111,107 @@ class BookApplicationServiceTest {
         assertEquals(mockData.getBookId(), bookApplicationService.getBookById(1L).getBookId());
     }
 
+    @Test
+    void getBookByIdIsCachedUntilSaved() {
+        BookEntity mockData = createMockBookData();
+        when(bookRepository.findById(1L)).thenReturn(Optional.of(mockData));
+        when(bookRepository.save(Mockito.any(BookEntity.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(authorRepository.findByAuthorName("abc")).thenReturn(mockData.getAuthorEntity());
+        when(categoryRepository.findByCategoryName("xyz")).thenReturn(mockData.getCategoryEntity());
+
+        bookApplicationService.getBookById(1L);
+        bookApplicationService.getBookById(1L);
+        Mockito.verify(bookRepository, Mockito.times(1)).findById(1L);
+
+        bookApplicationService.saveAndUpdateBooks(Collections.singletonList(BookDTO.toBookDto(mockData)));
+        bookApplicationService.getBookById(1L);
+        // one load for the save itself, one reload after the cached entry was evicted
+        Mockito.verify(bookRepository, Mockito.times(3)).findById(1L);
+    }
+
+    @Test
+    void getBookJsonByIdIsEncodedOnceUntilSaved() throws Exception {
+        BookEntity mockData = createMockBookData();
+        when(bookRepository.findById(1L)).thenReturn(Optional.of(mockData));
+        when(bookRepository.save(Mockito.any(BookEntity.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(authorRepository.findByAuthorName("abc")).thenReturn(mockData.getAuthorEntity());
+        when(categoryRepository.findByCategoryName("xyz")).thenReturn(mockData.getCategoryEntity());
+
+        byte[] json = bookApplicationService.getBookJsonById(1L);
+        assertEquals(new ObjectMapper().writeValueAsString(BookDTO.toBookDto(mockData)), new String(json, StandardCharsets.UTF_8));
+        assertSame(json, bookApplicationService.getBookJsonById(1L));
+        Mockito.verify(objectMapper, Mockito.times(1)).writeValueAsBytes(Mockito.any());
+
+        bookApplicationService.saveAndUpdateBooks(Collections.singletonList(BookDTO.toBookDto(mockData)));
+        assertNotSame(json, bookApplicationService.getBookJsonById(1L));
+        assertNull(bookApplicationService.getBookJsonById(2L));
+    }
+
+    @Test
+    void getBooksByIdsQueriesUncachedIdsInChunks() {
+        ReflectionTestUtils.setField(bookApplicationService, "batchGetChunkSize", 2);
+        when(bookRepository.findById(4L)).thenReturn(Optional.of(createMockBookData().toBuilder().bookId(4L).build()));
+        when(bookRepository.findAllByIdIn(Mockito.anyCollection())).thenAnswer(invocation -> {
+            Collection<Long> ids = invocation.getArgument(0);
+            return ids.stream()
+                    .filter(id -> id % 2 == 0)
+                    .map(id -> createMockBookData().toBuilder().bookId(id).build())
+                    .collect(Collectors.toList());
+        });
+        bookApplicationService.getBookById(4L);
+
+        BookBatchDTO result = bookApplicationService.getBooksByIds(Arrays.asList(8L, 3L, 4L, null, 2L, 8L, 6L, 5L));
+
+        assertEquals(List.of(8L, 4L, 2L, 6L), result.getBooks().stream().map(BookDTO::getBookId).collect(Collectors.toList()));
+        assertEquals(List.of(3L, 5L), result.getMissingIds());
+        Mockito.verify(bookRepository).findAllByIdIn(List.of(8L, 3L));
+        Mockito.verify(bookRepository).findAllByIdIn(List.of(2L, 6L));
+        Mockito.verify(bookRepository).findAllByIdIn(List.of(5L));
+    }
+
+    @Test
+    void searchBooksFollowsSaves() {
+        when(bookRepository.save(Mockito.any(BookEntity.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(authorRepository.findByAuthorName("Robert Cecil Martin")).thenReturn(null, createMockAuthorData());
+        when(categoryRepository.findByCategoryName("Cooking")).thenReturn(null, createMockCategoryData());
+        BookDTO bookDTO = BookDTO.builder()
+                .bookId(5L)
+                .title("Clean Architecture")
+                .authorName("Robert Cecil Martin")
+                .categoryName("Cooking")
+                .build();
+        bookApplicationService.saveAndUpdateBooks(Collections.singletonList(bookDTO));
+        when(bookRepository.findAllByIdIn(List.of(5L))).thenReturn(Collections.singletonList(BookEntity.builder()
+                .bookId(5L)
+                .title("Clean Architecture")
+                .build()));
+
+        List<BookDTO> result = bookApplicationService.searchBooks("clean arch", 10);
+        assertEquals(1, result.size());
+        assertEquals(5L, result.get(0).getBookId());
+        assertTrue(bookApplicationService.searchBooks("dirty", 10).isEmpty());
+    }
+
+    @Test
+    void booksSavedBeforeAFailingOneArePublished() {
+        when(bookRepository.save(Mockito.any(BookEntity.class))).thenAnswer(invocation -> {
+            BookEntity book = invocation.getArgument(0);
+            if (book.getBookId() == 6L) {
+                throw new IllegalStateException("duplicate isbn");
+            }
+            return book;
+        });
+        when(authorRepository.findByAuthorName("Robert Cecil Martin")).thenReturn(createMockAuthorData());
+        when(categoryRepository.findByCategoryName("Cooking")).thenReturn(createMockCategoryData());
+        List<BookDTO> books = List.of(
+                BookDTO.builder().bookId(5L).title("Clean Architecture").authorName("Robert Cecil Martin").categoryName("Cooking").build(),
+                BookDTO.builder().bookId(6L).title("Clean Code").authorName("Robert Cecil Martin").categoryName("Cooking").build());
+
+        assertThrows(IllegalStateException.class, () -> bookApplicationService.saveAndUpdateBooks(books));
+
+        assertEquals(List.of(5L), bookSearchIndex.search("clean", 10));
+    }
+
     @Test
     void getAllBooks() {
         BookEntity mockData = createMockBookData();
@@ -78,13 +221,21 @@ class BookApplicationServiceTest {
         assertEquals(mockData.getBookId(), result.get(0).getBookId());
     }
 
+    @Test
+    void getBooksAfter() {
+        BookEntity mockData = createMockBookData();
+        when(bookRepository.findPageAfter(Mockito.eq(0L), Mockito.any())).thenReturn(Collections.singletonList(mockData));
+        List<BookDTO> result = bookApplicationService.getBooksAfter(0L, 10);
+        assertEquals(1, result.size());
+        assertEquals(mockData.getBookId(), result.get(0).getBookId());
+    }
 
     @Test
     void saveBooks() {
         BookEntity mockBookData = createMockBookData();
 
-        when(authorRepository.save(Mockito.any(AuthorEntity.class))).thenReturn(createMockAuthorData());
-        when(categoryRepository.save(Mockito.any(CategoryEntity.class))).thenReturn(createMockCategoryData());
+        when(authorRepository.findByAuthorName("Robert Cecil Martin")).thenReturn(null, createMockAuthorData());
+        when(categoryRepository.findByCategoryName("Cooking")).thenReturn(null, createMockCategoryData());
         when(bookRepository.save(Mockito.any(BookEntity.class))).thenReturn(mockBookData);
 
         List<BookDTO> bookDTOList = Collections.singletonList(
@@ -103,8 +254,29 @@ class BookApplicationServiceTest {
         assertEquals(mockBookData.getAuthorEntity().getAuthorName(), savedBook.get(0).getAuthorName());
         assertEquals(mockBookData.getCategoryEntity().getCategoryName(), savedBook.get(0).getCategoryName());
         assertEquals(mockBookData.getPublicationYear(), savedBook.get(0).getPublicationYear());
+        Mockito.verify(authorRepository).insertIfAbsent("Robert Cecil Martin");
+        Mockito.verify(categoryRepository).insertIfAbsent("Cooking");
     }
 
+    @Test
+    void saveBooksResolvesAuthorFromCache() {
+        AuthorEntity author = createMockAuthorData();
+        when(authorRepository.findByAuthorName("Robert Cecil Martin")).thenReturn(author);
+        when(categoryRepository.findByCategoryName("Cooking")).thenReturn(createMockCategoryData());
+        when(bookRepository.save(Mockito.any(BookEntity.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        BookDTO bookDTO = BookDTO.builder()
+                .bookId(7L)
+                .title("Clean Code")
+                .authorName("Robert Cecil Martin")
+                .categoryName("Cooking")
+                .build();
+        bookApplicationService.saveAndUpdateBooks(Arrays.asList(bookDTO, bookDTO));
+
+        Mockito.verify(authorRepository, Mockito.times(1)).findByAuthorName("Robert Cecil Martin");
+        Mockito.verify(authorRepository, Mockito.never()).insertIfAbsent(Mockito.anyString());
+        assertEquals(1, dimensionCache.stats().get(0).getHitCount());
+    }
 
     @Test
     void updateBooks() {
@@ -0,0 +1,33 @@
+package com.books.service.impl;
+
+import com.books.cache.CatalogVersion;
+import com.books.cache.JsonResponseCache;
+import com.books.service.BookChangeListener;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class BookChangePublisherTest {
+
+    @Autowired
+    private BookChangePublisher bookChangePublisher;
+
+    @Test
+    void catalogVersionMovesOnAfterEveryCacheAndReadModel() {
+        List<BookChangeListener> listeners = bookChangePublisher.listeners();
+        int last = listeners.size() - 1;
+
+        assertInstanceOf(CatalogVersion.class, listeners.get(last));
+        assertInstanceOf(JsonResponseCache.class, listeners.get(last - 1));
+        for (BookChangeListener listener : listeners.subList(0, last - 1)) {
+            assertTrue(listener.getOrder() < listeners.get(last - 1).getOrder(),
+                    listener.getClass().getSimpleName() + " runs after the JSON cache");
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package com.books.service.impl;
+
+import com.books.dto.ImportReportDTO;
+import com.books.entities.BookEntity;
+import com.books.repository.AuthorRepository;
+import com.books.repository.BookRepository;
+import com.books.repository.CategoryRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@TestPropertySource(properties = {"books.import.batch-size=3", "books.import.queue-capacity=1",
+        "books.import.writer-threads=2"})
+class BookImportApplicationServiceTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private BookImportApplicationService bookImportService;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private AuthorRepository authorRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @AfterEach
+    void cleanUp() {
+        bookRepository.deleteAll();
+        authorRepository.deleteAll();
+        categoryRepository.deleteAll();
+    }
+
+    private ImportReportDTO importBooks(MediaType contentType, String body) throws Exception {
+        MvcResult result = mockMvc.perform(post("/books/import").contentType(contentType).content(body))
+                .andExpect(status().isOk())
+                .andReturn();
+        return objectMapper.readValue(result.getResponse().getContentAsString(), ImportReportDTO.class);
+    }
+
+    @Test
+    void importsCsvInBatchesAndReportsRejectedRecords() throws Exception {
+        String csv = "bookId,title,authorName,categoryName,isbn,publicationYear\n"
+                + IntStream.rangeClosed(1, 10)
+                .mapToObj(id -> id + ",title" + id + ",author" + (id % 3) + ",cat" + (id % 2) + "," + (9000 + id) + ",2001")
+                .collect(Collectors.joining("\n"))
+                + "\nnot-a-number,broken,author0,cat0,1,2001\n";
+
+        ImportReportDTO report = importBooks(new MediaType("text", "csv"), csv);
+
+        assertEquals(10, report.getRecordsRead());
+        assertEquals(1, report.getRejected());
+        assertEquals(10, report.getInserted());
+        assertEquals(4, report.getBatches());
+        assertEquals(3, report.getAuthorsCreated());
+        assertEquals(2, report.getCategoriesCreated());
+        assertEquals(10, bookRepository.count());
+        assertEquals(3, authorRepository.count());
+    }
+
+    @Test
+    void concurrentImportsShareTheWriterPool() throws Exception {
+        List<CompletableFuture<ImportReportDTO>> imports = IntStream.range(0, 3)
+                .mapToObj(run -> CompletableFuture.supplyAsync(() -> {
+                    try {
+                        return importBooks(MediaType.APPLICATION_NDJSON, IntStream.rangeClosed(1, 20)
+                                .map(id -> run * 100 + id)
+                                .mapToObj(id -> "{\"bookId\":" + id + ",\"title\":\"title" + id
+                                        + "\",\"authorName\":\"pooled\",\"categoryName\":\"pooled\",\"isbn\":" + (9000 + id) + "}")
+                                .collect(Collectors.joining("\n")));
+                    } catch (Exception e) {
+                        throw new IllegalStateException(e);
+                    }
+                }))
+                .toList();
+
+        for (CompletableFuture<ImportReportDTO> running : imports) {
+            assertEquals(20, running.get().getInserted());
+        }
+        assertEquals(60, bookRepository.count());
+    }
+
+    @Test
+    void importIsRejectedWhenNoWritersComeFree() throws Exception {
+        BookImportApplicationService service = AopTestUtils.getTargetObject(bookImportService);
+        Semaphore writerSlots = (Semaphore) ReflectionTestUtils.getField(service, "writerSlots");
+        Object writerWait = ReflectionTestUtils.getField(service, "writerWait");
+        writerSlots.acquire(2);
+        try {
+            ReflectionTestUtils.setField(service, "writerWait", Duration.ofMillis(100));
+            mockMvc.perform(post("/books/import").contentType(MediaType.APPLICATION_NDJSON)
+                            .content("{\"bookId\":1,\"title\":\"first\",\"authorName\":\"a\",\"categoryName\":\"c\",\"isbn\":11}"))
+                    .andExpect(status().isTooManyRequests())
+                    .andExpect(header().string(HttpHeaders.RETRY_AFTER, "5"));
+        } finally {
+            ReflectionTestUtils.setField(service, "writerWait", writerWait);
+            writerSlots.release(2);
+        }
+        assertEquals(0, bookRepository.count());
+    }
+
+    @Test
+    void importsNdjsonAndUpdatesExistingBooks() throws Exception {
+        importBooks(MediaType.APPLICATION_NDJSON, """
+                {"bookId":1,"title":"first","authorName":"a","categoryName":"c","isbn":11}
+                {"bookId":2,"title":"second","authorName":"a","categoryName":"c","isbn":12}
+                """);
+
+        ImportReportDTO report = importBooks(MediaType.APPLICATION_NDJSON, """
+                {"bookId":2,"title":"second, revised","authorName":"b","categoryName":"c","isbn":12}
+
+                {"bookId":3,"title":"third","authorName":"b","categoryName":"c","isbn":13}
+                {"bookId":
+                """);
+
+        assertEquals(2, report.getRecordsRead());
+        assertEquals(1, report.getRejected());
+        assertEquals(1, report.getInserted());
+        assertEquals(1, report.getUpdated());
+        BookEntity revised = bookRepository.findByIsbn(12L);
+        assertEquals("second, revised", revised.getTitle());
+        assertEquals("b", revised.getAuthorEntity().getAuthorName());
+        assertEquals(3, bookRepository.count());
+    }
+
+}
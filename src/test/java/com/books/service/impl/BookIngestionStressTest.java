@@ -0,0 +1,167 @@
+package com.books.service.impl;
+
+import com.books.cache.DimensionCache;
+import com.books.dto.BookDTO;
+import com.books.dto.ImportReportDTO;
+import com.books.entities.AuthorEntity;
+import com.books.entities.BookEntity;
+import com.books.entities.CategoryEntity;
+import com.books.ingest.BookImportFormat;
+import com.books.repository.AuthorRepository;
+import com.books.repository.BookRepository;
+import com.books.repository.CategoryRepository;
+import com.books.service.BookImportService;
+import com.books.service.BookService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+@TestPropertySource(properties = {"books.import.batch-size=25", "books.import.writers=4"})
+class BookIngestionStressTest {
+
+    private static final int IMPORTERS = 16;
+
+    private static final int BOOKS_PER_IMPORTER = 200;
+
+    private static final int AUTHORS = 40;
+
+    private static final int CATEGORIES = 6;
+
+    @Autowired
+    private BookImportService bookImportService;
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private AuthorRepository authorRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private DimensionCache dimensionCache;
+
+    @BeforeEach
+    @AfterEach
+    void cleanUp() {
+        bookRepository.deleteAll();
+        authorRepository.deleteAll();
+        categoryRepository.deleteAll();
+        dimensionCache.invalidateAll();
+    }
+
+    // importers overlap on most of their authors, so many of them miss on the same new name at once
+    private static String authorName(int importer, int book) {
+        return "author" + ((importer * 3 + book) % AUTHORS);
+    }
+
+    private static String categoryName(int importer, int book) {
+        return "cat" + ((importer + book) % CATEGORIES);
+    }
+
+    private static long bookId(int importer, int book) {
+        return (long) importer * BOOKS_PER_IMPORTER + book + 1;
+    }
+
+    private static <T> List<T> runConcurrently(Function<Integer, T> task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(IMPORTERS);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<T>> results = new ArrayList<>();
+            for (int importer = 0; importer < IMPORTERS; importer++) {
+                int current = importer;
+                Callable<T> call = () -> {
+                    start.await();
+                    return task.apply(current);
+                };
+                results.add(executor.submit(call));
+            }
+            start.countDown();
+            List<T> values = new ArrayList<>();
+            for (Future<T> result : results) {
+                values.add(result.get(2, TimeUnit.MINUTES));
+            }
+            return values;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void assertCatalogIsConsistent() {
+        assertEquals(IMPORTERS * BOOKS_PER_IMPORTER, bookRepository.count());
+        assertEquals(AUTHORS, authorRepository.count());
+        assertEquals(CATEGORIES, categoryRepository.count());
+
+        Map<Long, String> authorNames = authorRepository.findAll().stream()
+                .collect(Collectors.toMap(AuthorEntity::getAuthorId, AuthorEntity::getAuthorName));
+        Map<Long, String> categoryNames = categoryRepository.findAll().stream()
+                .collect(Collectors.toMap(CategoryEntity::getCategoryId, CategoryEntity::getCategoryName));
+        for (int importer = 0; importer < IMPORTERS; importer++) {
+            for (int book = 0; book < BOOKS_PER_IMPORTER; book += 37) {
+                BookEntity saved = bookRepository.findById(bookId(importer, book)).orElseThrow();
+                assertEquals(authorName(importer, book), authorNames.get(saved.getAuthorEntity().getAuthorId()));
+                assertEquals(categoryName(importer, book), categoryNames.get(saved.getCategoryEntity().getCategoryId()));
+            }
+        }
+    }
+
+    @Test
+    void concurrentImportsCreateEachAuthorAndCategoryOnce() throws Exception {
+        List<ImportReportDTO> reports = runConcurrently(importer -> {
+            String csv = "bookId,title,authorName,categoryName,isbn,publicationYear\n"
+                    + IntStream.range(0, BOOKS_PER_IMPORTER)
+                    .mapToObj(book -> bookId(importer, book) + ",title" + bookId(importer, book) + ","
+                            + authorName(importer, book) + "," + categoryName(importer, book) + ","
+                            + (900_000 + bookId(importer, book)) + ",2001")
+                    .collect(Collectors.joining("\n"));
+            return bookImportService.importBooks(BookImportFormat.CSV, new BufferedReader(new StringReader(csv)));
+        });
+
+        assertEquals(IMPORTERS * BOOKS_PER_IMPORTER, reports.stream().mapToLong(ImportReportDTO::getInserted).sum());
+        assertEquals(AUTHORS, reports.stream().mapToLong(ImportReportDTO::getAuthorsCreated).sum());
+        assertEquals(CATEGORIES, reports.stream().mapToLong(ImportReportDTO::getCategoriesCreated).sum());
+        assertCatalogIsConsistent();
+    }
+
+    @Test
+    void concurrentSavesShareAuthorsAndCategories() throws Exception {
+        runConcurrently(importer -> bookService.saveAndUpdateBooks(IntStream.range(0, BOOKS_PER_IMPORTER)
+                .mapToObj(book -> BookDTO.builder()
+                        .bookId(bookId(importer, book))
+                        .title("title" + bookId(importer, book))
+                        .authorName(authorName(importer, book))
+                        .categoryName(categoryName(importer, book))
+                        .isbn(900_000 + bookId(importer, book))
+                        .publicationYear("2001")
+                        .build())
+                .collect(Collectors.toList())));
+
+        assertCatalogIsConsistent();
+    }
+
+}
@@ -0,0 +1,232 @@
+package com.books.service.impl;
+
+import com.books.dto.BookDTO;
+import com.books.dto.BookJobDTO;
+import com.books.dto.BulkSaveReportDTO;
+import com.books.entities.BookEntity;
+import com.books.repository.AuthorRepository;
+import com.books.repository.BookRepository;
+import com.books.repository.CategoryRepository;
+import com.books.service.BookService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@TestPropertySource(properties = "books.jobs.batch-size=4")
+class BookJobApplicationServiceTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private AuthorRepository authorRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @TempDir
+    private Path journalDir;
+
+    @AfterEach
+    void cleanUp() {
+        bookRepository.deleteAll();
+        authorRepository.deleteAll();
+        categoryRepository.deleteAll();
+    }
+
+    private static List<BookDTO> books(long fromId, long toId) {
+        return LongStream.rangeClosed(fromId, toId)
+                .mapToObj(id -> BookDTO.builder()
+                        .bookId(id)
+                        .title("title" + id)
+                        .authorName("author" + (id % 3))
+                        .categoryName("cat" + (id % 2))
+                        .isbn(9000L + id)
+                        .publicationYear("2001")
+                        .build())
+                .collect(Collectors.toList());
+    }
+
+    private static BookJobDTO awaitFinished(Supplier<BookJobDTO> job) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        BookJobDTO current = job.get();
+        while (current.getStatus().equals("QUEUED") || current.getStatus().equals("RUNNING")) {
+            assertTrue(System.nanoTime() < deadline, "job still " + current.getStatus());
+            Thread.sleep(20);
+            current = job.get();
+        }
+        return current;
+    }
+
+    private BookJobApplicationService newService(BookService bookService, int queueCapacity) {
+        BookJobApplicationService service = new BookJobApplicationService();
+        ReflectionTestUtils.setField(service, "bookService", bookService);
+        ReflectionTestUtils.setField(service, "objectMapper", objectMapper);
+        ReflectionTestUtils.setField(service, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(service, "workerCount", 1);
+        ReflectionTestUtils.setField(service, "queueCapacity", queueCapacity);
+        ReflectionTestUtils.setField(service, "journalDir", journalDir.toString());
+        return service;
+    }
+
+    @Test
+    void submittedJobIsSavedInTheBackground() throws Exception {
+        MvcResult result = mockMvc.perform(post("/books/jobs")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(books(1, 10))))
+                .andExpect(status().isAccepted())
+                .andReturn();
+        BookJobDTO submitted = objectMapper.readValue(result.getResponse().getContentAsString(), BookJobDTO.class);
+        assertEquals(10, submitted.getTotalBooks());
+        assertTrue(result.getResponse().getHeader(HttpHeaders.LOCATION).endsWith("/books/jobs/" + submitted.getJobId()));
+
+        BookJobDTO finished = awaitFinished(() -> {
+            try {
+                String json = mockMvc.perform(get("/books/jobs/{jobId}", submitted.getJobId()))
+                        .andExpect(status().isOk())
+                        .andReturn().getResponse().getContentAsString();
+                return objectMapper.readValue(json, BookJobDTO.class);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+
+        assertEquals("SUCCEEDED", finished.getStatus());
+        assertEquals(10, finished.getProcessedBooks());
+        assertEquals(10, finished.getInserted());
+        assertEquals(3, finished.getBatches());
+        assertEquals(10, bookRepository.count());
+        BookEntity book = bookRepository.findById(7L).orElseThrow();
+        assertEquals("author1", book.getAuthorEntity().getAuthorName());
+    }
+
+    @Test
+    void jobStatusIsNeverAnsweredFromTheCatalogETag() throws Exception {
+        String etag = mockMvc.perform(get("/books"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/books/jobs/{jobId}", "no-such-job").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void unknownJobIsNotFound() throws Exception {
+        mockMvc.perform(get("/books/jobs/{jobId}", "no-such-job"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void rejectsJobsWhileTheQueueIsFullAndRecordsFailedBatches() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        BookService bookService = Mockito.mock(BookService.class);
+        Mockito.when(bookService.bulkSaveBooks(Mockito.anyList())).thenAnswer(invocation -> {
+            release.await();
+            List<BookDTO> batch = invocation.getArgument(0);
+            if (batch.get(0).getBookId() == 3L) {
+                throw new IllegalStateException("disk full");
+            }
+            return BulkSaveReportDTO.builder().inserted(batch.size()).build();
+        });
+        BookJobApplicationService service = newService(bookService, 1);
+        ReflectionTestUtils.setField(service, "journalDir", "");
+        service.start();
+        try {
+            BookJobDTO running = service.submit(books(1, 2));
+            awaitStatus(service, running.getJobId(), "RUNNING");
+            BookJobDTO waiting = service.submit(books(3, 4));
+            assertThrows(RejectedExecutionException.class, () -> service.submit(books(5, 6)));
+
+            release.countDown();
+            assertEquals("SUCCEEDED", awaitFinished(() -> service.getJob(running.getJobId())).getStatus());
+            BookJobDTO failed = awaitFinished(() -> service.getJob(waiting.getJobId()));
+            assertEquals("FAILED", failed.getStatus());
+            assertEquals(2, failed.getFailed());
+            assertTrue(failed.getErrors().get(0).contains("disk full"));
+            assertEquals(2, service.submit(books(5, 6)).getTotalBooks());
+        } finally {
+            service.shutdown();
+        }
+    }
+
+    private static void awaitStatus(BookJobApplicationService service, String jobId, String status)
+            throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (!service.getJob(jobId).getStatus().equals(status)) {
+            assertTrue(System.nanoTime() < deadline, "job never reached " + status);
+            Thread.sleep(10);
+        }
+    }
+
+    @Test
+    void journaledJobsAreReplayedOnTheNextStart() throws Exception {
+        CountDownLatch never = new CountDownLatch(1);
+        BookService stuck = Mockito.mock(BookService.class);
+        Mockito.when(stuck.bulkSaveBooks(Mockito.anyList())).thenAnswer(invocation -> {
+            never.await();
+            return BulkSaveReportDTO.builder().build();
+        });
+        BookJobApplicationService before = newService(stuck, 10);
+        before.start();
+        BookJobDTO first = before.submit(books(1, 2));
+        BookJobDTO second = before.submit(books(3, 5));
+        before.shutdown();
+        assertTrue(Files.exists(journalDir.resolve(first.getJobId() + ".json")));
+
+        BookService bookService = Mockito.mock(BookService.class);
+        Mockito.when(bookService.bulkSaveBooks(Mockito.anyList())).thenAnswer(invocation ->
+                BulkSaveReportDTO.builder().inserted(((List<?>) invocation.getArgument(0)).size()).build());
+        BookJobApplicationService after = newService(bookService, 10);
+        after.start();
+        try {
+            BookJobDTO replayed = awaitFinished(() -> after.getJob(second.getJobId()));
+            assertTrue(replayed.isRecovered());
+            assertEquals(3, replayed.getInserted());
+            assertEquals("SUCCEEDED", awaitFinished(() -> after.getJob(first.getJobId())).getStatus());
+            Mockito.verify(bookService).bulkSaveBooks(books(1, 2));
+            Mockito.verify(bookService).bulkSaveBooks(books(3, 5));
+            assertFalse(Files.exists(journalDir.resolve(first.getJobId() + ".json")));
+            assertFalse(Files.exists(journalDir.resolve(second.getJobId() + ".json")));
+        } finally {
+            after.shutdown();
+        }
+    }
+
+}
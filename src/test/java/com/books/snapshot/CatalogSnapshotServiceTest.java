@@ -0,0 +1,91 @@
+package com.books.snapshot;
+
+import com.books.cache.BookResponseCache;
+import com.books.cache.DimensionCache;
+import com.books.dto.BookDTO;
+import com.books.repository.AuthorRepository;
+import com.books.repository.BookRepository;
+import com.books.repository.CategoryRepository;
+import com.books.service.BookService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+// rebuilds are triggered by the test, the scheduled ones would only race with it
+@SpringBootTest(properties = {"books.snapshot.enabled=true", "books.snapshot.rebuild-delay=1h"})
+class CatalogSnapshotServiceTest {
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private CatalogSnapshotService catalogSnapshotService;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private AuthorRepository authorRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private DimensionCache dimensionCache;
+
+    @Autowired
+    private BookResponseCache bookResponseCache;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @AfterEach
+    void cleanUp() {
+        bookRepository.deleteAll();
+        authorRepository.deleteAll();
+        categoryRepository.deleteAll();
+        dimensionCache.invalidateAll();
+        bookResponseCache.invalidateAll();
+    }
+
+    private static BookDTO book(long bookId, String title, String categoryName) {
+        return BookDTO.builder().bookId(bookId).title(title).authorName("author" + bookId % 2)
+                .categoryName(categoryName).isbn(7000 + bookId).publicationYear("2010").build();
+    }
+
+    @Test
+    void readsAreServedFromTheSnapshotOnlyWhileItIsCurrent() {
+        List<BookDTO> books = List.of(book(1, "one", "FUN"), book(2, "two", "HORROR"), book(3, "three", "FUN"));
+        bookService.saveAndUpdateBooks(books);
+        assertNull(catalogSnapshotService.current());
+
+        catalogSnapshotService.rebuild();
+        assertNotNull(catalogSnapshotService.current());
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        assertEquals(books, bookService.getAllBooks());
+        assertEquals(books.get(1), bookService.getBookById(2L));
+        assertEquals(List.of(books.get(0), books.get(2)), bookService.getBooksByCategory("FUN"));
+        assertEquals(0, statistics.getPrepareStatementCount());
+
+        BookDTO renamed = book(2, "two, revised", "HORROR");
+        bookService.saveAndUpdateBooks(List.of(renamed));
+        assertNull(catalogSnapshotService.current());
+        assertEquals(renamed, bookService.getBookById(2L));
+
+        catalogSnapshotService.rebuild();
+        assertEquals(renamed, catalogSnapshotService.current().getBookById(2L));
+        assertEquals(3, catalogSnapshotService.stats().getBooks());
+    }
+
+}
@@ -0,0 +1,96 @@
+package com.books.snapshot;
+
+import com.books.dto.BookDTO;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CatalogSnapshotTest {
+
+    private static final List<BookDTO> BOOKS = List.of(
+            BookDTO.builder().bookId(3L).title("Der Zauberberg").authorName("Thomas Mann").categoryName("NOVEL")
+                    .isbn(9783596294336L).publicationYear("1924").build(),
+            BookDTO.builder().bookId(7L).title("Buddenbrooks").authorName("Thomas Mann").categoryName("NOVEL")
+                    .isbn(9783596294312L).publicationYear("1901").build(),
+            BookDTO.builder().bookId(8L).title("Ελληνικά").authorName("Ανώνυμος").categoryName("POETRY").build(),
+            BookDTO.builder().bookId(12L).title("Untitled draft").build());
+
+    private static CatalogSnapshot snapshot() {
+        CatalogSnapshot.Builder builder = new CatalogSnapshot.Builder(4);
+        BOOKS.forEach(builder::add);
+        return builder.build();
+    }
+
+    @Test
+    void answersLookupsFromTheColumns() {
+        CatalogSnapshot snapshot = snapshot();
+
+        assertEquals(4, snapshot.generation());
+        assertEquals(BOOKS, snapshot.getAllBooks());
+        assertEquals(BOOKS.get(2), snapshot.getBookById(8L));
+        assertEquals(BOOKS.get(3), snapshot.getBookById(12L));
+        assertNull(snapshot.getBookById(5L));
+        assertNull(snapshot.getBookById(13L));
+        assertEquals(List.of(BOOKS.get(0), BOOKS.get(1)), snapshot.getBooksByCategory("NOVEL"));
+        assertEquals(List.of(), snapshot.getBooksByCategory("Thomas Mann"));
+        assertEquals(List.of(), snapshot.getBooksByCategory(null));
+        assertTrue(snapshot.offHeapBytes() > 0);
+    }
+
+    @Test
+    void emptySnapshotAnswersEverything() {
+        CatalogSnapshot snapshot = new CatalogSnapshot.Builder(0).build();
+
+        assertEquals(List.of(), snapshot.getAllBooks());
+        assertNull(snapshot.getBookById(1L));
+        assertEquals(List.of(), snapshot.getBooksByCategory("NOVEL"));
+    }
+
+    @Test
+    void mapsWhatWasWrittenToFile(@TempDir Path dir) throws IOException {
+        CatalogSnapshot written = snapshot();
+        Path file = dir.resolve("catalog.snapshot");
+        CatalogSnapshotFile.write(written, file);
+
+        CatalogSnapshot mapped = CatalogSnapshotFile.map(file, 9);
+
+        assertEquals(9, mapped.generation());
+        assertEquals(written.builtAt().toEpochMilli(), mapped.builtAt().toEpochMilli());
+        assertEquals(BOOKS, mapped.getAllBooks());
+        assertEquals(BOOKS.get(1), mapped.getBookById(7L));
+        assertNull(mapped.getBookById(5L));
+        assertEquals(List.of(BOOKS.get(2)), mapped.getBooksByCategory("POETRY"));
+        assertEquals(written.offHeapBytes(), mapped.offHeapBytes());
+    }
+
+    @Test
+    void rejectsFilesThatAreNotSnapshots(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("catalog.snapshot");
+        CatalogSnapshotFile.write(snapshot(), file);
+        byte[] content = Files.readAllBytes(file);
+
+        Files.write(file, Arrays.copyOf(content, content.length / 2));
+        assertThrows(IOException.class, () -> CatalogSnapshotFile.map(file, 0));
+
+        Files.writeString(file, "bookId,title\n1,Buddenbrooks\n");
+        assertThrows(IOException.class, () -> CatalogSnapshotFile.map(file, 0));
+    }
+
+    @Test
+    void rejectsBooksOutOfOrder() {
+        CatalogSnapshot.Builder builder = new CatalogSnapshot.Builder(0).add(BOOKS.get(1));
+
+        assertThrows(IllegalArgumentException.class, () -> builder.add(BOOKS.get(0)));
+    }
+
+}
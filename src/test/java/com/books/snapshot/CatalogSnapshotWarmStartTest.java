@@ -0,0 +1,93 @@
+package com.books.snapshot;
+
+import com.books.dto.BookDTO;
+import com.books.dto.SnapshotStatsDTO;
+import com.books.service.BookService;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// the database starts empty, so everything read before the rebuild can only come from the file
+@SpringBootTest(properties = {"books.snapshot.enabled=true", "books.snapshot.rebuild-delay=1h"})
+class CatalogSnapshotWarmStartTest {
+
+    private static final List<BookDTO> PERSISTED = List.of(
+            BookDTO.builder().bookId(1L).title("Stiller").authorName("Max Frisch").categoryName("NOVEL")
+                    .isbn(9783518368053L).publicationYear("1954").build(),
+            BookDTO.builder().bookId(2L).title("Homo faber").authorName("Max Frisch").categoryName("NOVEL")
+                    .isbn(9783518368060L).publicationYear("1957").build());
+
+    @TempDir
+    static Path snapshotDir;
+
+    @DynamicPropertySource
+    static void snapshotFile(DynamicPropertyRegistry registry) {
+        registry.add("books.snapshot.file", () -> {
+            Path file = snapshotDir.resolve("catalog.snapshot");
+            CatalogSnapshot.Builder builder = new CatalogSnapshot.Builder(0);
+            PERSISTED.forEach(builder::add);
+            try {
+                CatalogSnapshotFile.write(builder.build(), file);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return file.toString();
+        });
+    }
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private CatalogSnapshotService catalogSnapshotService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void servesTheMappedFileUntilReconciledWithTheDatabase() throws IOException {
+        SnapshotStatsDTO stats = catalogSnapshotService.stats();
+        assertEquals("file", stats.getSource());
+        assertTrue(stats.isServing());
+        assertNull(stats.getReconciledChanges());
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        assertEquals(PERSISTED.get(1), bookService.getBookById(2L));
+        assertEquals(PERSISTED, bookService.getBooksByCategory("NOVEL"));
+        assertEquals(0, statistics.getPrepareStatementCount());
+        long firstWarmResponse = catalogSnapshotService.stats().getTimeToFirstWarmResponseMillis();
+        assertTrue(firstWarmResponse > 0);
+        assertEquals(firstWarmResponse, meterRegistry.get("books.snapshot.first-warm-response").timeGauge()
+                .value(TimeUnit.MILLISECONDS));
+
+        catalogSnapshotService.rebuild();
+        stats = catalogSnapshotService.stats();
+        assertEquals("database", stats.getSource());
+        assertEquals(2L, stats.getReconciledChanges());
+        assertEquals(0, stats.getBooks());
+        assertEquals(List.of(), bookService.getAllBooks());
+        assertEquals(List.of(), CatalogSnapshotFile.map(snapshotDir.resolve("catalog.snapshot"), 0).getAllBooks());
+    }
+
+}